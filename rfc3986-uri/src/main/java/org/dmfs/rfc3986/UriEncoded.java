@@ -16,7 +16,10 @@
 
 package org.dmfs.rfc3986;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.CharBuffer;
 
 
 /**
@@ -53,6 +56,65 @@ public interface UriEncoded extends CharSequence
      */
     CharSequence decoded();
 
+    /**
+     * Appends the decoded text, assuming UTF-8 encoding, to the given {@link Appendable}.
+     * <p>
+     * This is meant for callers that decode into a reusable buffer. Implementations should decode straight into the target, without creating an intermediate
+     * {@link CharSequence}. The default implementation appends the result of {@link #decoded()}.
+     *
+     * @param target
+     *         The {@link Appendable} to append to.
+     *
+     * @throws IOException
+     *         if the {@link Appendable} throws.
+     */
+    default void decodeTo(Appendable target) throws IOException
+    {
+        target.append(decoded());
+    }
+
+    /**
+     * Writes the decoded text, assuming UTF-8 encoding, into the given char array, starting at the given offset.
+     *
+     * @param target
+     *         The array to write to.
+     * @param offset
+     *         The position of the first char to write.
+     *
+     * @return The number of chars written.
+     *
+     * @throws java.nio.BufferOverflowException
+     *         if the array is too small to hold the decoded text.
+     */
+    default int decodeTo(char[] target, int offset)
+    {
+        CharBuffer buffer = CharBuffer.wrap(target, offset, target.length - offset);
+        decodeTo(buffer);
+        return buffer.position() - offset;
+    }
+
+    /**
+     * Writes the decoded text, assuming UTF-8 encoding, into the given {@link CharBuffer}, starting at its current position.
+     *
+     * @param target
+     *         The {@link CharBuffer} to write to.
+     *
+     * @throws java.nio.BufferOverflowException
+     *         if the buffer is too small to hold the decoded text.
+     */
+    default void decodeTo(CharBuffer target)
+    {
+        try
+        {
+            decodeTo((Appendable) target);
+        }
+        catch (IOException e)
+        {
+            // CharBuffers don't throw IOExceptions
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @Override
     UriEncoded subSequence(int startIndex, int endIndex);
 
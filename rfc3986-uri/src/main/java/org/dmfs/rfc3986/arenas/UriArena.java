@@ -0,0 +1,177 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.arenas;
+
+import org.dmfs.rfc3986.Uri;
+import org.dmfs.rfc3986.UriEncoded;
+import org.dmfs.rfc3986.encoding.AsciiPrecoded;
+import org.dmfs.rfc3986.uris.IndexedUri;
+import org.dmfs.rfc3986.utils.UriScanner;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.dmfs.rfc3986.utils.UriScanner.SLOTS;
+
+
+/**
+ * An append-only store of URIs outside of the Java heap.
+ * <p>
+ * Each URI is scanned once (see {@link UriScanner}) and appended to a direct {@link ByteBuffer} together with the boundaries of its components. The
+ * returned {@code long} handle identifies the URI for the lifetime of the arena. {@link #uri(long)} returns a flyweight {@link Uri} view on the stored bytes,
+ * so the URIs don't put any load on the garbage collector, no matter how many of them are stored. The views can be used with all the decorators of this
+ * library, like {@link org.dmfs.rfc3986.uris.Resolved} or {@link org.dmfs.rfc3986.uris.Normalized}.
+ * <p>
+ * The arena allocates chunks of a fixed size on demand, a single URI must fit into a chunk. URIs can't be removed. The memory is released when the arena
+ * becomes unreachable.
+ * <p>
+ * {@link #append(CharSequence)} may be called by multiple threads concurrently. A handle must be passed to other threads in a thread-safe manner (e.g. via
+ * a concurrent collection), which ensures the reader sees the stored URI.
+ */
+public final class UriArena
+{
+    /**
+     * The default chunk size, 64 MiB.
+     */
+    public final static int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    // each record consists of the scanner table and the length of the URI, followed by the bytes of the URI
+    private final static int HEADER_SIZE = (SLOTS + 1) * Integer.BYTES;
+
+    private final int mChunkSize;
+    private volatile ByteBuffer[] mChunks;
+    private int mPosition;
+    private long mCount;
+
+
+    public UriArena()
+    {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+
+    public UriArena(int chunkSize)
+    {
+        if (chunkSize < HEADER_SIZE)
+        {
+            throw new IllegalArgumentException(String.format("Chunk size %d is too small", chunkSize));
+        }
+        mChunkSize = chunkSize;
+        mChunks = new ByteBuffer[0];
+        mPosition = chunkSize;
+    }
+
+
+    /**
+     * Appends the given URI reference to this arena.
+     *
+     * @param uri
+     *         An encoded URI reference.
+     *
+     * @return The handle of the stored URI.
+     *
+     * @throws IllegalArgumentException
+     *         if the given {@link CharSequence} is not a valid URI reference or doesn't fit into a chunk.
+     */
+    public long append(CharSequence uri)
+    {
+        final int[] table = UriScanner.INSTANCE.table(uri);
+        final int length = uri.length();
+        // keep the records aligned to 4 bytes
+        final int recordSize = HEADER_SIZE + (length + 3 & ~3);
+        if (recordSize > mChunkSize)
+        {
+            throw new IllegalArgumentException(String.format("URI of length %d doesn't fit into a chunk of %d bytes", length, mChunkSize));
+        }
+
+        synchronized (this)
+        {
+            if (mPosition + recordSize > mChunkSize)
+            {
+                ByteBuffer[] chunks = Arrays.copyOf(mChunks, mChunks.length + 1);
+                chunks[chunks.length - 1] = ByteBuffer.allocateDirect(mChunkSize);
+                mChunks = chunks;
+                mPosition = 0;
+            }
+            final ByteBuffer chunk = mChunks[mChunks.length - 1];
+            final int start = mPosition;
+            int pos = start;
+            for (int slot : table)
+            {
+                chunk.putInt(pos, slot);
+                pos += Integer.BYTES;
+            }
+            chunk.putInt(pos, length);
+            pos += Integer.BYTES;
+            for (int i = 0; i < length; ++i)
+            {
+                // the scanner made sure the URI contains US-ASCII characters only
+                chunk.put(pos + i, (byte) uri.charAt(i));
+            }
+            mPosition = start + recordSize;
+            mCount += 1;
+            return (long) (mChunks.length - 1) << 32 | start;
+        }
+    }
+
+
+    /**
+     * Returns a flyweight {@link Uri} view on the URI with the given handle.
+     */
+    public Uri uri(long handle)
+    {
+        final ByteBuffer chunk = chunk(handle);
+        final int start = (int) handle;
+        final int[] table = new int[SLOTS];
+        for (int i = 0; i < SLOTS; ++i)
+        {
+            table[i] = chunk.getInt(start + i * Integer.BYTES);
+        }
+        return new IndexedUri(encoded(chunk, start), table, 0);
+    }
+
+
+    /**
+     * Returns the encoded text of the URI with the given handle.
+     */
+    public UriEncoded encoded(long handle)
+    {
+        return encoded(chunk(handle), (int) handle);
+    }
+
+
+    /**
+     * Returns the number of URIs in this arena.
+     */
+    public synchronized long count()
+    {
+        return mCount;
+    }
+
+
+    private ByteBuffer chunk(long handle)
+    {
+        return mChunks[(int) (handle >>> 32)];
+    }
+
+
+    private static UriEncoded encoded(ByteBuffer chunk, int start)
+    {
+        final int bytesStart = start + HEADER_SIZE;
+        return new AsciiPrecoded(chunk, bytesStart, bytesStart + chunk.getInt(start + SLOTS * Integer.BYTES));
+    }
+}
@@ -20,6 +20,8 @@ import org.dmfs.jems2.Optional;
 import org.dmfs.jems2.optional.Present;
 import org.dmfs.rfc3986.Authority;
 import org.dmfs.rfc3986.UriEncoded;
+import org.dmfs.rfc3986.pools.ComponentPool;
+import org.dmfs.rfc3986.pools.Unpooled;
 import org.dmfs.rfc3986.utils.Parsed;
 
 import static org.dmfs.jems2.optional.Absent.absent;
@@ -32,16 +34,28 @@ import static org.dmfs.rfc3986.validation.CharSets.*;
 public final class EncodedAuthority implements Authority, Parsed
 {
     private final UriEncoded mAuthority;
-    private OptionalLazyUserInfo mUserInfo;
+    private final OptionalLazyUserInfo mUserInfo;
+    private final ComponentPool mPool;
     private UriEncoded mHost;
-    private Optional<Integer> mPort;
+    // publishes mEnd
+    private volatile Optional<Integer> mPort;
     private int mEnd;
 
 
     public EncodedAuthority(UriEncoded authority)
+    {
+        this(authority, Unpooled.INSTANCE);
+    }
+
+
+    /**
+     * An {@link Authority} that takes its host from the given {@link ComponentPool}.
+     */
+    public EncodedAuthority(UriEncoded authority, ComponentPool pool)
     {
         mAuthority = authority;
         mUserInfo = new OptionalLazyUserInfo(mAuthority);
+        mPool = pool;
     }
 
 
@@ -55,11 +69,13 @@ public final class EncodedAuthority implements Authority, Parsed
     @Override
     public UriEncoded host()
     {
-        if (mHost == null)
+        UriEncoded result = mHost;
+        if (result == null)
         {
-            mHost = parsedHost();
+            result = mPool.pooled(parsedHost());
+            mHost = result;
         }
-        return mHost;
+        return result;
     }
 
 
@@ -80,10 +96,7 @@ public final class EncodedAuthority implements Authority, Parsed
             return parsedIpvFuture(authority, i, count);
         }
 
-        while (i < count && REG_NAME_CHAR.contains(authority.charAt(i)))
-        {
-            ++i;
-        }
+        i = REG_NAME_CHAR.endOfRun(authority, i, count);
 
         if (i < count && !HOST_TERMINATOR_CHARS.contains(authority.charAt(i)))
         {
@@ -108,18 +121,21 @@ public final class EncodedAuthority implements Authority, Parsed
         {
             throw new IllegalArgumentException(String.format("missing ']' in %s", authority.toString()));
         }
-        return authority.subSequence(start, i);
+        // the IP literal includes the brackets, just like with UriScanner
+        return authority.subSequence(start, i + 1);
     }
 
 
     @Override
     public Optional<Integer> port()
     {
-        if (mPort == null)
+        Optional<Integer> result = mPort;
+        if (result == null)
         {
-            mPort = parsedPort();
+            result = parsedPort();
+            mPort = result;
         }
-        return mPort;
+        return result;
     }
 
 
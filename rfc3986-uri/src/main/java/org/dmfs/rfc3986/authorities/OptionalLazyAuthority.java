@@ -20,6 +20,8 @@ import org.dmfs.jems2.Optional;
 import org.dmfs.jems2.optional.Present;
 import org.dmfs.rfc3986.Authority;
 import org.dmfs.rfc3986.UriEncoded;
+import org.dmfs.rfc3986.pools.ComponentPool;
+import org.dmfs.rfc3986.pools.Unpooled;
 import org.dmfs.rfc3986.utils.Parsed;
 
 import java.util.NoSuchElementException;
@@ -33,12 +35,20 @@ import static org.dmfs.jems2.optional.Absent.absent;
 public final class OptionalLazyAuthority implements Optional<Authority>, Parsed
 {
     private final UriEncoded mUriEncoded;
+    private final ComponentPool mPool;
     private Optional<Authority> mOptionalAuthority;
 
 
     public OptionalLazyAuthority(UriEncoded uriEncoded)
+    {
+        this(uriEncoded, Unpooled.INSTANCE);
+    }
+
+
+    public OptionalLazyAuthority(UriEncoded uriEncoded, ComponentPool pool)
     {
         mUriEncoded = uriEncoded;
+        mPool = pool;
     }
 
 
@@ -58,11 +68,13 @@ public final class OptionalLazyAuthority implements Optional<Authority>, Parsed
 
     private Optional<Authority> authority()
     {
-        if (mOptionalAuthority == null)
+        Optional<Authority> result = mOptionalAuthority;
+        if (result == null)
         {
-            mOptionalAuthority = parsedAuthority();
+            result = parsedAuthority();
+            mOptionalAuthority = result;
         }
-        return mOptionalAuthority;
+        return result;
     }
 
 
@@ -74,14 +86,15 @@ public final class OptionalLazyAuthority implements Optional<Authority>, Parsed
             return absent();
         }
         // this looks like an authority
-        return new Present<Authority>(new EncodedAuthority(mUriEncoded.subSequence(2, mUriEncoded.length())));
+        return new Present<Authority>(new EncodedAuthority(mUriEncoded.subSequence(2, mUriEncoded.length()), mPool));
     }
 
 
     @Override
     public int parsedLength()
     {
-        return authority().isPresent() ? ((EncodedAuthority) mOptionalAuthority.value()).parsedLength() + 2 : 0;
+        Optional<Authority> authority = authority();
+        return authority.isPresent() ? ((EncodedAuthority) authority.value()).parsedLength() + 2 : 0;
     }
 
 }
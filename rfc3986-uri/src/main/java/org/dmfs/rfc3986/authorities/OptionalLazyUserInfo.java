@@ -24,7 +24,7 @@ import org.dmfs.rfc3986.utils.Parsed;
 import java.util.NoSuchElementException;
 
 import static org.dmfs.jems2.optional.Absent.absent;
-import static org.dmfs.rfc3986.validation.CharSets.REG_NAME_CHAR;
+import static org.dmfs.rfc3986.validation.CharSets.USER_INFO_CHAR;
 
 
 /**
@@ -33,7 +33,8 @@ import static org.dmfs.rfc3986.validation.CharSets.REG_NAME_CHAR;
 public final class OptionalLazyUserInfo implements Optional<UriEncoded>, Parsed
 {
     private final UriEncoded mEncodedAuthority;
-    private Optional<UriEncoded> mUserInfo;
+    // publishes mEnd
+    private volatile Optional<UriEncoded> mUserInfo;
     private int mEnd;
 
 
@@ -59,11 +60,13 @@ public final class OptionalLazyUserInfo implements Optional<UriEncoded>, Parsed
 
     private Optional<UriEncoded> userInfo()
     {
-        if (mUserInfo == null)
+        Optional<UriEncoded> result = mUserInfo;
+        if (result == null)
         {
-            mUserInfo = parsedUserInfo();
+            result = parsedUserInfo();
+            mUserInfo = result;
         }
-        return mUserInfo;
+        return result;
     }
 
 
@@ -71,11 +74,7 @@ public final class OptionalLazyUserInfo implements Optional<UriEncoded>, Parsed
     {
         final UriEncoded encodedAuthority = mEncodedAuthority;
         final int count = encodedAuthority.length();
-        int i = 0;
-        while (i < count && (REG_NAME_CHAR.contains(encodedAuthority.charAt(i)) || encodedAuthority.charAt(i) == ':'))
-        {
-            ++i;
-        }
+        final int i = USER_INFO_CHAR.endOfRun(encodedAuthority, 0, count);
 
         if (i == count || encodedAuthority.charAt(i) != '@')
         {
@@ -91,6 +90,8 @@ public final class OptionalLazyUserInfo implements Optional<UriEncoded>, Parsed
     @Override
     public int parsedLength()
     {
+        // make sure the user info has been parsed
+        userInfo();
         return mEnd;
     }
 }
@@ -42,13 +42,14 @@ public final class Text implements UriEncoded
     @Override
     public int length()
     {
-        if (mText == null)
+        final String cached = mText;
+        if (cached == null)
         {
             // result not cached yet, calculate the length on the fly
-            int len = mDelegate.host().length();
+            int len = mDelegate.host().normalized().length();
             if (mDelegate.userInfo().isPresent())
             {
-                len += mDelegate.userInfo().value().length() + 1;
+                len += mDelegate.userInfo().value().normalized().length() + 1;
             }
             Optional<Integer> optionalPort = mDelegate.port();
             if (optionalPort.isPresent())
@@ -82,7 +83,7 @@ public final class Text implements UriEncoded
             }
             return len;
         }
-        return mText.length();
+        return cached.length();
     }
 
 
@@ -107,7 +108,8 @@ public final class Text implements UriEncoded
     @Override
     public String toString()
     {
-        if (mText == null)
+        String result = mText;
+        if (result == null)
         {
             StringBuilder builder = new StringBuilder(64);
             Optional<? extends UriEncoded> mUserInfo = mDelegate.userInfo();
@@ -123,9 +125,10 @@ public final class Text implements UriEncoded
                 builder.append(':');
                 builder.append((int) port.value());
             }
-            mText = builder.toString();
+            result = builder.toString();
+            mText = result;
         }
-        return mText;
+        return result;
     }
 
 
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.batches;
+
+import org.dmfs.jems2.iterator.BaseIterator;
+import org.dmfs.rfc3986.Uri;
+import org.dmfs.rfc3986.UriEncoded;
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.uris.IndexedUri;
+import org.dmfs.rfc3986.utils.UriScanner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.dmfs.rfc3986.utils.UriScanner.*;
+
+
+/**
+ * A batch of eagerly parsed URI references, stored in a columnar fashion.
+ * <p>
+ * All URIs are scanned once, when the batch is created. Instead of a tree of component objects per URI, the batch holds the component boundaries of all
+ * URIs in a single {@code int} array (in the layout of {@link UriScanner}) and the schemes and hosts in two dictionaries, so each distinct scheme and host is
+ * stored only once and can be compared by its code. Apart from the given {@link CharSequence}s, which are kept as they are, the batch doesn't create any
+ * objects per URI, which is meant for analytics jobs that process millions of URIs.
+ * <p>
+ * {@link #uri(int)} and {@link #iterator()} return flyweight {@link Uri} views on the batch. They are cheap to create and should not be retained. A
+ * {@link CharSequence} that is not {@link UriEncoded} is wrapped in a {@link Precoded} each time a view is created.
+ * <p>
+ * Note, the constructor throws an {@link IllegalArgumentException} if any of the given {@link CharSequence}s is not a valid URI reference.
+ */
+public final class UriBatch implements Iterable<Uri>
+{
+    private final CharSequence[] mUris;
+    private final int[] mTable;
+    private final int[] mSchemeCodes;
+    private final int[] mHostCodes;
+    private final String[] mSchemes;
+    private final String[] mHosts;
+
+
+    public UriBatch(CharSequence... uris)
+    {
+        this(Arrays.asList(uris));
+    }
+
+
+    public UriBatch(List<? extends CharSequence> uris)
+    {
+        final int size = uris.size();
+        final CharSequence[] values = new CharSequence[size];
+        final int[] table = new int[size * SLOTS];
+        final int[] schemeCodes = new int[size];
+        final int[] hostCodes = new int[size];
+        final Dictionary schemes = new Dictionary();
+        final Dictionary hosts = new Dictionary();
+
+        int i = 0;
+        for (CharSequence uri : uris)
+        {
+            final int offset = i * SLOTS;
+            try
+            {
+                UriScanner.INSTANCE.scan(uri, table, offset);
+            }
+            catch (IllegalArgumentException e)
+            {
+                throw new IllegalArgumentException(String.format("URI at index %d is invalid", i), e);
+            }
+            values[i] = uri;
+            final int schemeEnd = table[offset + SCHEME_END];
+            schemeCodes[i] = schemeEnd < 0 ? -1 : schemes.code(uri, 0, schemeEnd);
+            final int hostStart = table[offset + HOST_START];
+            hostCodes[i] = hostStart < 0 ? -1 : hosts.code(uri, hostStart, table[offset + HOST_END]);
+            ++i;
+        }
+
+        mUris = values;
+        mTable = table;
+        mSchemeCodes = schemeCodes;
+        mHostCodes = hostCodes;
+        mSchemes = schemes.values();
+        mHosts = hosts.values();
+    }
+
+
+    /**
+     * Returns the number of URIs in this batch.
+     */
+    public int size()
+    {
+        return mUris.length;
+    }
+
+
+    /**
+     * Returns a flyweight {@link Uri} view on the URI at the given index.
+     */
+    public Uri uri(int index)
+    {
+        final CharSequence uri = mUris[index];
+        return new IndexedUri(uri instanceof UriEncoded ? (UriEncoded) uri : new Precoded(uri), mTable, index * SLOTS);
+    }
+
+
+    /**
+     * Returns the code of the scheme of the URI at the given index or {@code -1} if the URI has no scheme. URIs with equal schemes have equal codes.
+     * <p>
+     * Note, schemes are not normalized, so {@code http} and {@code HTTP} have different codes.
+     */
+    public int schemeCode(int index)
+    {
+        return mSchemeCodes[index];
+    }
+
+
+    /**
+     * Returns the scheme of the given code.
+     */
+    public String scheme(int code)
+    {
+        return mSchemes[code];
+    }
+
+
+    /**
+     * Returns the number of distinct schemes in this batch. Scheme codes range from {@code 0} to {@code schemeCount() - 1}.
+     */
+    public int schemeCount()
+    {
+        return mSchemes.length;
+    }
+
+
+    /**
+     * Returns the code of the host of the URI at the given index or {@code -1} if the URI has no authority. URIs with equal hosts have equal codes.
+     * <p>
+     * Note, hosts are not normalized, so {@code example.com} and {@code EXAMPLE.COM} have different codes.
+     */
+    public int hostCode(int index)
+    {
+        return mHostCodes[index];
+    }
+
+
+    /**
+     * Returns the encoded host of the given code.
+     */
+    public String host(int code)
+    {
+        return mHosts[code];
+    }
+
+
+    /**
+     * Returns the number of distinct hosts in this batch. Host codes range from {@code 0} to {@code hostCount() - 1}.
+     */
+    public int hostCount()
+    {
+        return mHosts.length;
+    }
+
+
+    /**
+     * Returns the port of the URI at the given index or {@code -1} if the URI has no port.
+     */
+    public int port(int index)
+    {
+        return mTable[index * SLOTS + PORT];
+    }
+
+
+    @Override
+    public Iterator<Uri> iterator()
+    {
+        return new BaseIterator<Uri>()
+        {
+            private int mNext;
+
+
+            @Override
+            public boolean hasNext()
+            {
+                return mNext < mUris.length;
+            }
+
+
+            @Override
+            public Uri next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException("No more URIs to iterate.");
+                }
+                return uri(mNext++);
+            }
+        };
+    }
+
+
+    /**
+     * A dictionary that assigns consecutive codes to distinct values. Only used while the batch is created.
+     */
+    private final static class Dictionary
+    {
+        private final Map<String, Integer> mCodes = new HashMap<>();
+        private final List<String> mValues = new ArrayList<>();
+
+
+        int code(CharSequence source, int start, int end)
+        {
+            final String value = source.subSequence(start, end).toString();
+            Integer code = mCodes.get(value);
+            if (code == null)
+            {
+                code = mValues.size();
+                mCodes.put(value, code);
+                mValues.add(value);
+            }
+            return code;
+        }
+
+
+        String[] values()
+        {
+            return mValues.toArray(new String[0]);
+        }
+    }
+}
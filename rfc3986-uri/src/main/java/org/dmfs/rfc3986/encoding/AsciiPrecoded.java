@@ -0,0 +1,222 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.encoding;
+
+import org.dmfs.rfc3986.UriEncoded;
+import org.dmfs.rfc3986.encoding.utils.PercentDecoder;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * An {@link UriEncoded} {@link CharSequence} that is derived from already encoded US-ASCII bytes, like a request line or a log record.
+ * <p>
+ * The bytes are not copied. Each byte is interpreted as one character, {@link #subSequence(int, int)} returns a view on the same bytes and {@link #decoded()}
+ * and {@link #normalized()} operate on the bytes directly. This allows to parse a {@link org.dmfs.rfc3986.Uri} straight from a (heap or direct)
+ * {@link ByteBuffer} without converting it to a {@link String} first, e.g.
+ * <pre>
+ * Uri uri = new LazyUri(new AsciiPrecoded(buffer));
+ * </pre>
+ * <p>
+ * Note, the bytes must not be modified as long as this object is in use.
+ */
+public final class AsciiPrecoded implements UriEncoded
+{
+    private final ByteBuffer mBuffer;
+    private final int mStart;
+    private final int mEnd;
+    private CharSequence mUtf8Plain;
+    private UriEncoded mNormalized;
+
+
+    public AsciiPrecoded(byte[] encoded)
+    {
+        this(encoded, 0, encoded.length);
+    }
+
+
+    public AsciiPrecoded(byte[] encoded, int offset, int length)
+    {
+        this(ByteBuffer.wrap(encoded), offset, offset + length);
+    }
+
+
+    /**
+     * Creates an {@link AsciiPrecoded} of the remaining bytes of the given {@link ByteBuffer}, i.e. the bytes between its current position and its limit.
+     * <p>
+     * The position of the buffer is not modified.
+     *
+     * @param encoded
+     *         A {@link ByteBuffer} containing an encoded US-ASCII value.
+     */
+    public AsciiPrecoded(ByteBuffer encoded)
+    {
+        this(encoded, encoded.position(), encoded.limit());
+    }
+
+
+    /**
+     * Creates an {@link AsciiPrecoded} of the bytes between the given absolute positions of the given {@link ByteBuffer}. The position and limit of the buffer
+     * are not taken into account.
+     *
+     * @param encoded
+     *         A {@link ByteBuffer} containing an encoded US-ASCII value.
+     * @param start
+     *         The absolute position of the first byte.
+     * @param end
+     *         The absolute position after the last byte.
+     */
+    public AsciiPrecoded(ByteBuffer encoded, int start, int end)
+    {
+        if (start < 0 || end < start || end > encoded.capacity())
+        {
+            throw new ArrayIndexOutOfBoundsException(String.format("Range %d to %d exceeds buffer capacity %d.", start, end, encoded.capacity()));
+        }
+        mBuffer = encoded;
+        mStart = start;
+        mEnd = end;
+    }
+
+
+    @Override
+    public UriEncoded normalized()
+    {
+        UriEncoded result = mNormalized;
+        if (result == null)
+        {
+            result = new Normalized(this);
+            mNormalized = result;
+        }
+        return result;
+    }
+
+
+    @Override
+    public CharSequence decoded(String charset) throws UnsupportedEncodingException
+    {
+        if ("UTF-8".equalsIgnoreCase(charset))
+        {
+            return decoded();
+        }
+        return PercentDecoder.PLAIN.decoded(this, 0, length(), charset);
+    }
+
+
+    @Override
+    public CharSequence decoded()
+    {
+        CharSequence result = mUtf8Plain;
+        if (result == null)
+        {
+            result = PercentDecoder.PLAIN.decoded(this, 0, length(), StandardCharsets.UTF_8);
+            mUtf8Plain = result;
+        }
+        return result;
+    }
+
+
+    @Override
+    public void decodeTo(Appendable target) throws IOException
+    {
+        final CharSequence utf8Plain = mUtf8Plain;
+        if (utf8Plain != null)
+        {
+            target.append(utf8Plain);
+            return;
+        }
+        PercentDecoder.PLAIN.decodeTo(this, 0, length(), target);
+    }
+
+
+    @Override
+    public int length()
+    {
+        return mEnd - mStart;
+    }
+
+
+    @Override
+    public char charAt(int i)
+    {
+        if (i < 0)
+        {
+            throw new ArrayIndexOutOfBoundsException(String.format("Index %d is negative.", i));
+        }
+        if (mStart + i >= mEnd)
+        {
+            throw new ArrayIndexOutOfBoundsException(String.format("Index %d exceeds length %d", i, length()));
+        }
+        return (char) (mBuffer.get(mStart + i) & 0xff);
+    }
+
+
+    @Override
+    public UriEncoded subSequence(int startIndex, int endIndex)
+    {
+        if (startIndex == 0 && endIndex == length())
+        {
+            return this;
+        }
+        if (endIndex < startIndex)
+        {
+            throw new ArrayIndexOutOfBoundsException(String.format("Start index %d < end index %d.", startIndex, endIndex));
+        }
+        if (startIndex < 0)
+        {
+            throw new ArrayIndexOutOfBoundsException(String.format("Start index %d is negative.", startIndex));
+        }
+        if (mStart + endIndex > mEnd)
+        {
+            throw new ArrayIndexOutOfBoundsException(String.format("End index %d exceeds length %d", endIndex, length()));
+        }
+        return new AsciiPrecoded(mBuffer, startIndex + mStart, endIndex + mStart);
+    }
+
+
+    @Override
+    public int hashCode()
+    {
+        return normalized().hashCode();
+    }
+
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        return obj instanceof UriEncoded && normalized().equals(obj);
+    }
+
+
+    @Override
+    public String toString()
+    {
+        final ByteBuffer buffer = mBuffer;
+        if (buffer.hasArray())
+        {
+            return new String(buffer.array(), buffer.arrayOffset() + mStart, mEnd - mStart, StandardCharsets.ISO_8859_1);
+        }
+        byte[] bytes = new byte[mEnd - mStart];
+        for (int i = mStart; i < mEnd; ++i)
+        {
+            bytes[i - mStart] = buffer.get(i);
+        }
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+}
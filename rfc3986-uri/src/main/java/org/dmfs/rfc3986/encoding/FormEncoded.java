@@ -17,14 +17,9 @@
 package org.dmfs.rfc3986.encoding;
 
 import org.dmfs.rfc3986.UriEncoded;
-import org.dmfs.rfc3986.encoding.utils.FormPercentEncodingOutputStream;
-import org.dmfs.rfc3986.validation.CharSets;
+import org.dmfs.rfc3986.encoding.utils.PercentEncoder;
 
-import java.io.IOException;
-import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
-import java.io.Writer;
 
 
 /**
@@ -118,44 +113,29 @@ public final class FormEncoded implements UriEncoded
     @Override
     public String toString()
     {
-        if (mEncoded == null)
+        CharSequence result = mEncoded;
+        if (result == null)
         {
             try
             {
-                mEncoded = encoded(mPlain, mCharSet);
+                result = encoded(mPlain, mCharSet);
             }
             catch (UnsupportedEncodingException e)
             {
                 throw new IllegalArgumentException(String.format("Charset %s not supported by Runtime", mCharSet));
             }
+            mEncoded = result;
         }
-        return mEncoded.toString();
+        return result.toString();
     }
 
 
     private CharSequence encoded(CharSequence charSequence, String charSet) throws UnsupportedEncodingException
     {
-        final int len = charSequence.length();
-        if (len == 0)
+        if (charSequence.length() == 0)
         {
             return IdempotentEncoded.EMPTY;
         }
-        try
-        {
-            // TODO: improve the performance. This appears to have quite some overhead compared to URLEncoder.encode().
-            OutputStream out = new FormPercentEncodingOutputStream(len, CharSets.UNRESERVED);
-            Writer w = new OutputStreamWriter(out, charSet);
-            w.append(charSequence);
-            w.close();
-            return out.toString();
-        }
-        catch (UnsupportedEncodingException e)
-        {
-            throw e;
-        }
-        catch (IOException e)
-        {
-            throw new RuntimeException("IOException while operating on CharSequences");
-        }
+        return PercentEncoder.FORM.encoded(charSequence, charSet);
     }
 }
@@ -17,9 +17,11 @@
 package org.dmfs.rfc3986.encoding;
 
 import org.dmfs.rfc3986.UriEncoded;
+import org.dmfs.rfc3986.encoding.utils.PercentDecoder;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 
 
 /**
@@ -44,11 +46,13 @@ public final class FormPrecoded implements UriEncoded
     @Override
     public UriEncoded normalized()
     {
-        if (mNormalized == null)
+        UriEncoded result = mNormalized;
+        if (result == null)
         {
-            mNormalized = new Normalized(this);
+            result = new Normalized(this);
+            mNormalized = result;
         }
-        return mNormalized;
+        return result;
     }
 
 
@@ -59,25 +63,33 @@ public final class FormPrecoded implements UriEncoded
         {
             return decoded();
         }
-        return decoded(mEncoded, charset);
+        return PercentDecoder.FORM.decoded(mEncoded, 0, mEncoded.length(), charset);
     }
 
 
     @Override
     public CharSequence decoded()
     {
-        if (mUtf8Plain == null)
+        CharSequence result = mUtf8Plain;
+        if (result == null)
         {
-            try
-            {
-                mUtf8Plain = decoded(mEncoded, "UTF-8");
-            }
-            catch (UnsupportedEncodingException e)
-            {
-                throw new RuntimeException("Runtime doesn't support UTF-8");
-            }
+            result = PercentDecoder.FORM.decoded(mEncoded, 0, mEncoded.length(), StandardCharsets.UTF_8);
+            mUtf8Plain = result;
         }
-        return mUtf8Plain;
+        return result;
+    }
+
+
+    @Override
+    public void decodeTo(Appendable target) throws IOException
+    {
+        final CharSequence utf8Plain = mUtf8Plain;
+        if (utf8Plain != null)
+        {
+            target.append(utf8Plain);
+            return;
+        }
+        PercentDecoder.FORM.decodeTo(mEncoded, 0, mEncoded.length(), target);
     }
 
 
@@ -121,56 +133,4 @@ public final class FormPrecoded implements UriEncoded
     {
         return mEncoded.toString();
     }
-
-
-    private CharSequence decoded(CharSequence encoded, String charSet) throws UnsupportedEncodingException
-    {
-        if (encoded.length() == 0)
-        {
-            return encoded;
-        }
-        ByteArrayOutputStream out = new ByteArrayOutputStream(encoded.length());
-        final int count = encoded.length();
-        int i = 0;
-        while (i < count)
-        {
-            char c = encoded.charAt(i);
-            if (c == '%')
-            {
-                if (i + 2 >= count)
-                {
-                    throw new IllegalArgumentException("Illegal percent encoding.");
-                }
-
-                out.write((decodeDigit(encoded.charAt(i + 1)) << 4) + decodeDigit(encoded.charAt(i + 2)));
-                i += 3;
-            }
-            else if (c == '+')
-            {
-                out.write(' ');
-                i += 1;
-            }
-            else
-            {
-                out.write(c);
-                i += 1;
-            }
-        }
-        return out.toString(charSet);
-    }
-
-
-    private int decodeDigit(char c)
-    {
-        if ('0' <= c && c <= '9')
-        {
-            return c - '0';
-        }
-        int r = (c - 'A') & 0xffffffDF;
-        if (r < 0 || r > 5)
-        {
-            throw new IllegalArgumentException(String.format("%c is not a valid hex digit"));
-        }
-        return r + 10;
-    }
 }
@@ -17,14 +17,17 @@
 package org.dmfs.rfc3986.encoding;
 
 import org.dmfs.rfc3986.UriEncoded;
+import org.dmfs.rfc3986.encoding.utils.HexDigits;
 import org.dmfs.rfc3986.validation.CharSets;
 
-import java.io.ByteArrayOutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 
 
 /**
  * A normalized {@link UriEncoded} {@link CharSequence}.
+ * <p>
+ * If the delegate is in normal form already, its {@link String} value is used as is.
  */
 public final class Normalized implements UriEncoded
 {
@@ -105,94 +108,150 @@ public final class Normalized implements UriEncoded
     @Override
     public String toString()
     {
-        if (mNormalized == null)
+        CharSequence result = mNormalized;
+        if (result == null)
         {
-            mNormalized = normalized(mDelegate);
+            result = normalized(mDelegate);
+            mNormalized = result;
         }
-        return mNormalized.toString();
+        return result.toString();
     }
 
 
     private CharSequence normalized(CharSequence encoded)
     {
-        if (encoded.length() == 0)
+        final int count = encoded.length();
+        if (count == 0)
         {
             return encoded;
         }
-        ByteArrayOutputStream out = new ByteArrayOutputStream(encoded.length());
-        final int count = encoded.length();
+
+        // most values are normalized already, so check that first and return the original value if nothing needs to be changed
         int i = 0;
         while (i < count)
         {
-            char c = encoded.charAt(i);
+            final char c = encoded.charAt(i);
             if (c == '%')
             {
                 if (i + 2 >= count)
                 {
                     throw new IllegalArgumentException("Illegal encoding");
                 }
+                final char high = encoded.charAt(i + 1);
+                final char low = encoded.charAt(i + 2);
+                if (high >= 'a' || low >= 'a' || CharSets.UNRESERVED.contains((char) HexDigits.octet(high, low)))
+                {
+                    break;
+                }
+                i += 3;
+            }
+            else if (c >= 0x80)
+            {
+                break;
+            }
+            else
+            {
+                i += 1;
+            }
+        }
 
-                int value = (decodeDigit(encoded.charAt(i + 1)) << 4) + decodeDigit(encoded.charAt(i + 2));
+        if (i == count)
+        {
+            return encoded.toString();
+        }
+
+        // the result can't be longer than the input
+        final char[] out = new char[count];
+        int pos = 0;
+        // the part before i is normalized
+        while (pos < i)
+        {
+            out[pos] = encoded.charAt(pos);
+            ++pos;
+        }
+        while (i < count)
+        {
+            final char c = encoded.charAt(i);
+            if (c == '%')
+            {
+                if (i + 2 >= count)
+                {
+                    throw new IllegalArgumentException("Illegal encoding");
+                }
+                final char high = encoded.charAt(i + 1);
+                final char low = encoded.charAt(i + 2);
+                final int value = HexDigits.octet(high, low);
                 if (CharSets.UNRESERVED.contains((char) value))
                 {
                     // this doesn't have to be encoded
-                    out.write(value);
-                    i += 3;
+                    out[pos++] = (char) value;
                 }
                 else
                 {
                     // preserve encoding
-                    out.write('%');
-                    char high = encoded.charAt(i + 1);
-                    if (high >= 'a')
-                    {
-                        out.write(high & 0xffdf);
-                    }
-                    else
-                    {
-                        out.write(high);
-                    }
-                    char low = encoded.charAt(i + 2);
-                    if (low >= 'a')
-                    {
-                        out.write(low & 0xffdf);
-                    }
-                    else
-                    {
-                        out.write(low);
-                    }
-                    i += 3;
+                    out[pos++] = '%';
+                    out[pos++] = high >= 'a' ? (char) (high & 0xffdf) : high;
+                    out[pos++] = low >= 'a' ? (char) (low & 0xffdf) : low;
                 }
+                i += 3;
+            }
+            else if (c >= 0x80)
+            {
+                // not properly encoded, take the long way
+                return utf8Normalized(encoded);
             }
             else
             {
-                out.write(c);
+                out[pos++] = c;
                 i += 1;
             }
         }
-        try
-        {
-            // TODO: can we assume that all non-ASCII characters are encoded?
-            return out.toString("UTF-8");
-        }
-        catch (UnsupportedEncodingException e)
-        {
-            throw new RuntimeException("Runtime doesn't support UTF-8");
-        }
+        return new String(out, 0, pos);
     }
 
 
-    private int decodeDigit(char c)
+    /**
+     * Normalizes a value that contains non-ASCII characters. The value is normalized on byte level and decoded as UTF-8 afterwards.
+     */
+    private CharSequence utf8Normalized(CharSequence encoded)
     {
-        if ('0' <= c && c <= '9')
-        {
-            return c - '0';
-        }
-        int r = (c - 'A') & 0xffffffDF;
-        if (r < 0 || r > 5)
+        final int count = encoded.length();
+        final byte[] out = new byte[count];
+        int pos = 0;
+        int i = 0;
+        while (i < count)
         {
-            throw new IllegalArgumentException(String.format("%c is not a valid hex digit"));
+            char c = encoded.charAt(i);
+            if (c == '%')
+            {
+                if (i + 2 >= count)
+                {
+                    throw new IllegalArgumentException("Illegal encoding");
+                }
+                final char high = encoded.charAt(i + 1);
+                final char low = encoded.charAt(i + 2);
+                final int value = HexDigits.octet(high, low);
+                if (CharSets.UNRESERVED.contains((char) value))
+                {
+                    // this doesn't have to be encoded
+                    out[pos++] = (byte) value;
+                }
+                else
+                {
+                    // preserve encoding
+                    out[pos++] = '%';
+                    out[pos++] = (byte) (high >= 'a' ? high & 0xffdf : high);
+                    out[pos++] = (byte) (low >= 'a' ? low & 0xffdf : low);
+                }
+                i += 3;
+            }
+            else
+            {
+                out[pos++] = (byte) c;
+                i += 1;
+            }
         }
-        return r + 10;
+        // TODO: can we assume that all non-ASCII characters are encoded?
+        return new String(out, 0, pos, StandardCharsets.UTF_8);
     }
 }
@@ -17,9 +17,11 @@
 package org.dmfs.rfc3986.encoding;
 
 import org.dmfs.rfc3986.UriEncoded;
+import org.dmfs.rfc3986.encoding.utils.PercentDecoder;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 
 
 /**
@@ -51,11 +53,13 @@ public final class Precoded implements UriEncoded
     @Override
     public UriEncoded normalized()
     {
-        if (mNormalized == null)
+        UriEncoded result = mNormalized;
+        if (result == null)
         {
-            mNormalized = new Normalized(this);
+            result = new Normalized(this);
+            mNormalized = result;
         }
-        return mNormalized;
+        return result;
     }
 
 
@@ -66,25 +70,33 @@ public final class Precoded implements UriEncoded
         {
             return decoded();
         }
-        return decoded(mEncoded, mStart, mEnd, charset);
+        return PercentDecoder.PLAIN.decoded(mEncoded, mStart, mEnd, charset);
     }
 
 
     @Override
     public CharSequence decoded()
     {
-        if (mUtf8Plain == null)
+        CharSequence result = mUtf8Plain;
+        if (result == null)
         {
-            try
-            {
-                mUtf8Plain = decoded(mEncoded, mStart, mEnd, "UTF-8");
-            }
-            catch (UnsupportedEncodingException e)
-            {
-                throw new RuntimeException("Runtime doesn't support UTF-8");
-            }
+            result = PercentDecoder.PLAIN.decoded(mEncoded, mStart, mEnd, StandardCharsets.UTF_8);
+            mUtf8Plain = result;
         }
-        return mUtf8Plain;
+        return result;
+    }
+
+
+    @Override
+    public void decodeTo(Appendable target) throws IOException
+    {
+        final CharSequence utf8Plain = mUtf8Plain;
+        if (utf8Plain != null)
+        {
+            target.append(utf8Plain);
+            return;
+        }
+        PercentDecoder.PLAIN.decodeTo(mEncoded, mStart, mEnd, target);
     }
 
 
@@ -152,50 +164,4 @@ public final class Precoded implements UriEncoded
     {
         return mEncoded.subSequence(mStart, mEnd).toString();
     }
-
-
-    private CharSequence decoded(CharSequence encoded, int start, int end, String charSet) throws UnsupportedEncodingException
-    {
-        if (start == end)
-        {
-            return "";
-        }
-        ByteArrayOutputStream out = new ByteArrayOutputStream(encoded.length());
-        int i = start;
-        while (i < end)
-        {
-            char c = encoded.charAt(i);
-            if (c == '%')
-            {
-                if (i + 2 >= end)
-                {
-                    throw new IllegalArgumentException("Illegal percent encoding.");
-                }
-
-                out.write((decodeDigit(encoded.charAt(i + 1)) << 4) + decodeDigit(encoded.charAt(i + 2)));
-                i += 3;
-            }
-            else
-            {
-                out.write(c);
-                i += 1;
-            }
-        }
-        return out.toString(charSet);
-    }
-
-
-    private int decodeDigit(char c)
-    {
-        if ('0' <= c && c <= '9')
-        {
-            return c - '0';
-        }
-        int r = (c - 'A') & 0xffffffDF;
-        if (r < 0 || r > 5)
-        {
-            throw new IllegalArgumentException(String.format("%c is not a valid hex digit"));
-        }
-        return r + 10;
-    }
 }
@@ -17,6 +17,7 @@
 package org.dmfs.rfc3986.encoding;
 
 import org.dmfs.rfc3986.UriEncoded;
+import org.dmfs.rfc3986.encoding.utils.PercentEncoder;
 import org.dmfs.rfc3986.parameters.Parameter;
 import org.dmfs.rfc3986.parameters.ParameterList;
 
@@ -98,7 +99,8 @@ public final class XWwwFormUrlEncoded implements UriEncoded
     @Override
     public String toString()
     {
-        if (mText == null)
+        String result = mText;
+        if (result == null)
         {
             StringBuilder sb = new StringBuilder(256);
             boolean first = true;
@@ -112,12 +114,20 @@ public final class XWwwFormUrlEncoded implements UriEncoded
                 {
                     sb.append('&');
                 }
-                sb.append(new FormEncoded(parameter.name(), mCharSet));
-                sb.append('=');
-                sb.append(new FormEncoded(parameter.textValue(), mCharSet));
+                try
+                {
+                    PercentEncoder.FORM.encodeTo(parameter.name(), mCharSet, sb);
+                    sb.append('=');
+                    PercentEncoder.FORM.encodeTo(parameter.textValue(), mCharSet, sb);
+                }
+                catch (UnsupportedEncodingException e)
+                {
+                    throw new IllegalArgumentException(String.format("Charset %s not supported by Runtime", mCharSet));
+                }
             }
-            mText = sb.toString();
+            result = sb.toString();
+            mText = result;
         }
-        return mText;
+        return result;
     }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.rfc3986.encoding.utils;
+
+import java.util.Arrays;
+
+
+/**
+ * The values of hexadecimal digits, as used in percent encoded octets.
+ */
+public final class HexDigits
+{
+    // the values of all hex digits, -1 for any other US-ASCII character
+    private final static byte[] HEX_VALUES = new byte[128];
+
+    static
+    {
+        Arrays.fill(HEX_VALUES, (byte) -1);
+        for (int i = 0; i < 10; ++i)
+        {
+            HEX_VALUES['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; ++i)
+        {
+            HEX_VALUES['a' + i] = (byte) (i + 10);
+            HEX_VALUES['A' + i] = (byte) (i + 10);
+        }
+    }
+
+
+    private HexDigits()
+    {
+    }
+
+
+    /**
+     * Returns the value of the given hex digit (upper or lower case).
+     *
+     * @param c
+     *         A hex digit.
+     *
+     * @return The value of the digit, in the range {@code 0} to {@code 15}.
+     *
+     * @throws IllegalArgumentException
+     *         if {@code c} is not a hex digit.
+     */
+    public static int value(char c)
+    {
+        final int value = c < 128 ? HEX_VALUES[c] : -1;
+        if (value < 0)
+        {
+            throw new IllegalArgumentException(String.format("%c is not a valid hex digit", c));
+        }
+        return value;
+    }
+
+
+    /**
+     * Returns the octet encoded by the given two hex digits, i.e. the value of an escape sequence like {@code %2F}.
+     *
+     * @param high
+     *         The high order hex digit.
+     * @param low
+     *         The low order hex digit.
+     *
+     * @return The value of the octet, in the range {@code 0} to {@code 255}.
+     *
+     * @throws IllegalArgumentException
+     *         if either char is not a hex digit.
+     */
+    public static int octet(char high, char low)
+    {
+        return (value(high) << 4) | value(low);
+    }
+}
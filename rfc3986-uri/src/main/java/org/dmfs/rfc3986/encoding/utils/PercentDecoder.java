@@ -0,0 +1,274 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.encoding.utils;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+
+
+/**
+ * A percent decoder for (a range of) an encoded {@link CharSequence}.
+ * <p>
+ * If the range contains no escape sequence and only US-ASCII characters, the decoder just returns the range as a {@link String}, provided the charset maps
+ * US-ASCII bytes to the same characters (which is true for UTF-8, ISO-8859-1 and US-ASCII). Otherwise the range is decoded into a byte array of the size of
+ * the range, which is the maximum size of the result.
+ * <p>
+ * Characters that are not escaped are taken as the lower 8 bits of their value.
+ * <p>
+ * In addition, {@link #decodeTo(CharSequence, int, int, Appendable)} decodes UTF-8 values straight into an {@link Appendable}, without any intermediate
+ * buffer.
+ */
+public final class PercentDecoder
+{
+    /**
+     * A {@link PercentDecoder} for {@link org.dmfs.rfc3986.UriEncoded} values.
+     */
+    public final static PercentDecoder PLAIN = new PercentDecoder(false);
+
+    /**
+     * A {@link PercentDecoder} for {@code x-www-form-urlencoded} values. In addition to percent decoding this decodes {@code +} into a space character.
+     */
+    public final static PercentDecoder FORM = new PercentDecoder(true);
+
+    private final boolean mPlusIsSpace;
+
+
+    private PercentDecoder(boolean plusIsSpace)
+    {
+        mPlusIsSpace = plusIsSpace;
+    }
+
+
+    /**
+     * Decodes the given range of an encoded {@link CharSequence} using the charset of the given name.
+     *
+     * @throws UnsupportedEncodingException
+     *         if the charset is not supported.
+     * @throws IllegalArgumentException
+     *         if the range contains an invalid escape sequence.
+     */
+    public CharSequence decoded(CharSequence encoded, int start, int end, String charset) throws UnsupportedEncodingException
+    {
+        final Charset cs;
+        try
+        {
+            cs = Charset.forName(charset);
+        }
+        catch (UnsupportedCharsetException | IllegalCharsetNameException e)
+        {
+            throw new UnsupportedEncodingException(charset);
+        }
+        return decoded(encoded, start, end, cs);
+    }
+
+
+    /**
+     * Decodes the given range of an encoded {@link CharSequence} using the given {@link Charset}.
+     *
+     * @throws IllegalArgumentException
+     *         if the range contains an invalid escape sequence.
+     */
+    public CharSequence decoded(CharSequence encoded, int start, int end, Charset charset)
+    {
+        if (start == end)
+        {
+            return "";
+        }
+
+        final boolean plusIsSpace = mPlusIsSpace;
+        // find the first character that needs decoding
+        int i = start;
+        while (i < end)
+        {
+            final char c = encoded.charAt(i);
+            if (c == '%' || c >= 0x80 || c == '+' && plusIsSpace)
+            {
+                break;
+            }
+            ++i;
+        }
+
+        if (i == end && isAsciiCompatible(charset))
+        {
+            return encoded.subSequence(start, end).toString();
+        }
+
+        // the result can't be longer than the input
+        final byte[] out = new byte[end - start];
+        int pos = 0;
+        // the characters before i are US-ASCII, copy them as they are
+        for (int j = start; j < i; ++j)
+        {
+            out[pos++] = (byte) encoded.charAt(j);
+        }
+
+        while (i < end)
+        {
+            final char c = encoded.charAt(i);
+            if (c == '%')
+            {
+                if (i + 2 >= end)
+                {
+                    throw new IllegalArgumentException("Illegal percent encoding.");
+                }
+                out[pos++] = (byte) HexDigits.octet(encoded.charAt(i + 1), encoded.charAt(i + 2));
+                i += 3;
+            }
+            else
+            {
+                out[pos++] = c == '+' && plusIsSpace ? (byte) ' ' : (byte) c;
+                i += 1;
+            }
+        }
+        return new String(out, 0, pos, charset);
+    }
+
+
+    /**
+     * Decodes the given range of an encoded UTF-8 {@link CharSequence} and appends the result to the given {@link Appendable}.
+     * <p>
+     * The result equals the result of {@link #decoded(CharSequence, int, int, Charset)} with UTF-8, including the replacement of malformed sequences. In
+     * contrast to that method, this doesn't allocate any buffer. Note, if the range contains an invalid escape sequence, the characters before it have already
+     * been appended when the {@link IllegalArgumentException} is thrown.
+     *
+     * @throws IOException
+     *         if the {@link Appendable} throws.
+     * @throws IllegalArgumentException
+     *         if the range contains an invalid escape sequence.
+     */
+    public void decodeTo(CharSequence encoded, int start, int end, Appendable target) throws IOException
+    {
+        final boolean plusIsSpace = mPlusIsSpace;
+        int i = start;
+        while (i < end)
+        {
+            final char c = encoded.charAt(i);
+            if (c != '%' && c < 0x80)
+            {
+                target.append(c == '+' && plusIsSpace ? ' ' : c);
+                i += 1;
+                continue;
+            }
+
+            final int lead = byteAt(encoded, i, end);
+            i += c == '%' ? 3 : 1;
+            if (lead < 0x80)
+            {
+                target.append((char) lead);
+                continue;
+            }
+
+            // the number of continuation bytes and the range of the first one, as per the Unicode standard, table 3-7 "Well-Formed UTF-8 Byte Sequences"
+            // like the decoder of the JDK, this accepts encoded surrogates at first and replaces them as a whole
+            int count;
+            int min = 0x80;
+            int max = 0xBF;
+            int codePoint;
+            if (lead >= 0xC2 && lead <= 0xDF)
+            {
+                count = 1;
+                codePoint = lead & 0x1F;
+            }
+            else if (lead >= 0xE0 && lead <= 0xEF)
+            {
+                count = 2;
+                codePoint = lead & 0x0F;
+                if (lead == 0xE0)
+                {
+                    min = 0xA0;
+                }
+            }
+            else if (lead >= 0xF0 && lead <= 0xF4)
+            {
+                count = 3;
+                codePoint = lead & 0x07;
+                if (lead == 0xF0)
+                {
+                    min = 0x90;
+                }
+                else if (lead == 0xF4)
+                {
+                    max = 0x8F;
+                }
+            }
+            else
+            {
+                target.append('\uFFFD');
+                continue;
+            }
+
+            while (count > 0 && i < end)
+            {
+                final int b = byteAt(encoded, i, end);
+                if (b < min || b > max)
+                {
+                    // the byte is not part of this sequence, it's decoded on its own
+                    break;
+                }
+                codePoint = (codePoint << 6) | (b & 0x3F);
+                i += encoded.charAt(i) == '%' ? 3 : 1;
+                min = 0x80;
+                max = 0xBF;
+                --count;
+            }
+
+            if (count > 0 || codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)
+            {
+                // replace the maximal valid subpart of an incomplete sequence or an encoded surrogate with a single replacement character
+                target.append('\uFFFD');
+            }
+            else if (codePoint < 0x10000)
+            {
+                target.append((char) codePoint);
+            }
+            else
+            {
+                target.append(Character.highSurrogate(codePoint));
+                target.append(Character.lowSurrogate(codePoint));
+            }
+        }
+    }
+
+
+    /**
+     * Returns the value of the byte at the given position, which is either an escape sequence or a single character.
+     */
+    private int byteAt(CharSequence encoded, int i, int end)
+    {
+        final char c = encoded.charAt(i);
+        if (c == '%')
+        {
+            if (i + 2 >= end)
+            {
+                throw new IllegalArgumentException("Illegal percent encoding.");
+            }
+            return HexDigits.octet(encoded.charAt(i + 1), encoded.charAt(i + 2));
+        }
+        return c == '+' && mPlusIsSpace ? ' ' : c & 0xff;
+    }
+
+
+
+    private static boolean isAsciiCompatible(Charset charset)
+    {
+        return StandardCharsets.UTF_8.equals(charset) || StandardCharsets.ISO_8859_1.equals(charset) || StandardCharsets.US_ASCII.equals(charset);
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.encoding.utils;
+
+import org.dmfs.rfc3986.validation.CharSet;
+import org.dmfs.rfc3986.validation.CharSets;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+
+
+/**
+ * A percent encoder that encodes all characters except for {@link CharSets#UNRESERVED} characters.
+ * <p>
+ * UTF-8 is encoded directly, walking the input only once to determine the exact length of the result and once more to write it. If the input contains no
+ * character that needs to be encoded, it's returned as a {@link String} without any further work. Other charsets are encoded by an {@link OutputStreamWriter}.
+ * <p>
+ * Unpaired surrogates are encoded as {@code ?} (i.e. {@code %3F}), just like the {@link OutputStreamWriter} does.
+ */
+public final class PercentEncoder
+{
+    /**
+     * A {@link PercentEncoder} for {@link org.dmfs.rfc3986.UriEncoded} values.
+     */
+    public final static PercentEncoder PLAIN = new PercentEncoder(false);
+
+    /**
+     * A {@link PercentEncoder} for {@code x-www-form-urlencoded} values. This encodes spaces as {@code +} and normalizes line breaks to {@code %0D%0A}, see
+     * {@link FormPercentEncodingOutputStream}.
+     */
+    public final static PercentEncoder FORM = new PercentEncoder(true);
+
+    private final static char[] HEXDIGITS = new char[] { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F' };
+    private final static CharSet NO_ENCODE = CharSets.UNRESERVED;
+
+    private final boolean mForm;
+
+
+    private PercentEncoder(boolean form)
+    {
+        mForm = form;
+    }
+
+
+    /**
+     * Returns the encoded form of the given {@link CharSequence}.
+     *
+     * @param plain
+     *         The text to encode.
+     * @param charset
+     *         The name of the charset to use.
+     *
+     * @throws UnsupportedEncodingException
+     *         if the charset is not supported.
+     */
+    public CharSequence encoded(CharSequence plain, String charset) throws UnsupportedEncodingException
+    {
+        final int length = plain.length();
+        if (!isUtf8(charset))
+        {
+            return fallbackEncoded(plain, charset);
+        }
+        final int first = NO_ENCODE.endOfRun(plain, 0, length);
+        if (first == length)
+        {
+            return plain.toString();
+        }
+        StringBuilder result = new StringBuilder(first + encodedLength(plain, first, length));
+        result.append(plain, 0, first);
+        encode(plain, first, length, result);
+        return result.toString();
+    }
+
+
+    /**
+     * Appends the encoded form of the given {@link CharSequence} to the given {@link StringBuilder}.
+     *
+     * @param plain
+     *         The text to encode.
+     * @param charset
+     *         The name of the charset to use.
+     * @param target
+     *         The {@link StringBuilder} to append to.
+     *
+     * @throws UnsupportedEncodingException
+     *         if the charset is not supported.
+     */
+    public void encodeTo(CharSequence plain, String charset, StringBuilder target) throws UnsupportedEncodingException
+    {
+        final int length = plain.length();
+        if (!isUtf8(charset))
+        {
+            target.append(fallbackEncoded(plain, charset));
+            return;
+        }
+        final int first = NO_ENCODE.endOfRun(plain, 0, length);
+        if (first == length)
+        {
+            target.append(plain);
+            return;
+        }
+        target.ensureCapacity(target.length() + first + encodedLength(plain, first, length));
+        target.append(plain, 0, first);
+        encode(plain, first, length, target);
+    }
+
+
+    /**
+     * Returns the exact length of the UTF-8 encoded form of the given range.
+     */
+    private int encodedLength(CharSequence plain, int start, int end)
+    {
+        final boolean form = mForm;
+        int result = 0;
+        int i = start;
+        while (i < end)
+        {
+            final char c = plain.charAt(i);
+            if (c < 0x80)
+            {
+                if (NO_ENCODE.contains(c) || form && c == ' ')
+                {
+                    result += 1;
+                }
+                else if (form && c == '\n')
+                {
+                    result += 6;
+                }
+                else if (!form || c != '\r')
+                {
+                    result += 3;
+                }
+            }
+            else if (c < 0x800)
+            {
+                result += 6;
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(plain.charAt(i + 1)))
+            {
+                result += 12;
+                i += 1;
+            }
+            else if (Character.isSurrogate(c))
+            {
+                // unpaired surrogate, encoded as "?"
+                result += 3;
+            }
+            else
+            {
+                result += 9;
+            }
+            i += 1;
+        }
+        return result;
+    }
+
+
+    private void encode(CharSequence plain, int start, int end, StringBuilder target)
+    {
+        final boolean form = mForm;
+        int i = start;
+        while (i < end)
+        {
+            final char c = plain.charAt(i);
+            if (c < 0x80)
+            {
+                if (NO_ENCODE.contains(c))
+                {
+                    target.append(c);
+                }
+                else if (form && c == ' ')
+                {
+                    target.append('+');
+                }
+                else if (form && c == '\n')
+                {
+                    // normalize new line
+                    target.append("%0D%0A");
+                }
+                else if (!form || c != '\r')
+                {
+                    // in forms CR chars are not encoded, CRLF sequences are encoded with the LF
+                    appendByte(c, target);
+                }
+            }
+            else if (c < 0x800)
+            {
+                appendByte(0xC0 | (c >>> 6), target);
+                appendByte(0x80 | (c & 0x3F), target);
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(plain.charAt(i + 1)))
+            {
+                final int codePoint = Character.toCodePoint(c, plain.charAt(i + 1));
+                appendByte(0xF0 | (codePoint >>> 18), target);
+                appendByte(0x80 | ((codePoint >>> 12) & 0x3F), target);
+                appendByte(0x80 | ((codePoint >>> 6) & 0x3F), target);
+                appendByte(0x80 | (codePoint & 0x3F), target);
+                i += 1;
+            }
+            else if (Character.isSurrogate(c))
+            {
+                appendByte('?', target);
+            }
+            else
+            {
+                appendByte(0xE0 | (c >>> 12), target);
+                appendByte(0x80 | ((c >>> 6) & 0x3F), target);
+                appendByte(0x80 | (c & 0x3F), target);
+            }
+            i += 1;
+        }
+    }
+
+
+    private static void appendByte(int b, StringBuilder target)
+    {
+        target.append('%');
+        target.append(HEXDIGITS[(b >>> 4) & 0x0f]);
+        target.append(HEXDIGITS[b & 0x0f]);
+    }
+
+
+    private CharSequence fallbackEncoded(CharSequence plain, String charset) throws UnsupportedEncodingException
+    {
+        final int length = plain.length();
+        OutputStream out = mForm ? new FormPercentEncodingOutputStream(length, NO_ENCODE) : new PercentEncodingOutputStream(length, NO_ENCODE);
+        try
+        {
+            Writer w = new OutputStreamWriter(out, charset);
+            w.append(plain);
+            w.close();
+            return out.toString();
+        }
+        catch (UnsupportedEncodingException e)
+        {
+            throw e;
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException("IOException while operating on CharSequences");
+        }
+    }
+
+
+    private static boolean isUtf8(String charset)
+    {
+        return "UTF-8".equalsIgnoreCase(charset) || "UTF8".equalsIgnoreCase(charset);
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.filters;
+
+import org.dmfs.rfc3986.Uri;
+import org.dmfs.rfc3986.UriEncoded;
+import org.dmfs.rfc3986.keys.UriKey;
+import org.dmfs.rfc3986.uris.IndexedUri;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * A concurrent, fixed size set of normalized URIs that may report false positives, but no false negatives.
+ * <p>
+ * This is a blocked Bloom filter. Each URI is reduced to the 64-bit fingerprint of its {@link UriKey}, so URIs that differ only in
+ * their representation, like {@code http://Example.com/%7ea} and {@code http://example.com/~a}, are the same element. The fingerprint selects a block of 512
+ * bits (one cache line) and the bits of the URI within that block. Inserts and queries don't lock, bits are set with atomic compare and set operations.
+ * <p>
+ * The filter is sized by the expected number of URIs and the desired false positive rate. It takes about {@code -1.44 * log2(rate)} bits per URI, i.e. 10
+ * bits (or a little more than one byte) at a rate of 1%, regardless of the length of the URIs. Due to the blocking the actual rate is slightly higher than
+ * the desired one and it grows beyond it if more than the expected number of URIs are added.
+ * <p>
+ * A filter can be written to an {@link OutputStream} and read back from an {@link InputStream}, e.g.
+ * <pre>
+ * try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file)))
+ * {
+ *     filter.writeTo(out);
+ * }
+ * ...
+ * try (InputStream in = new BufferedInputStream(Files.newInputStream(file)))
+ * {
+ *     filter = new UriBloomFilter(in);
+ * }
+ * </pre>
+ */
+public final class UriBloomFilter
+{
+    private final static int MAGIC = 0x55424631; // "UBF1"
+    private final static int BLOCK_LONGS = 8;
+    private final static int MAX_HASHES = 16;
+
+    private final AtomicLongArray mBits;
+    private final int mBlocks;
+    private final int mHashes;
+    private final LongAdder mCount = new LongAdder();
+
+
+    /**
+     * A {@link UriBloomFilter} for the given number of URIs at the given false positive rate.
+     *
+     * @param expectedCount
+     *         The number of URIs the filter is meant to hold.
+     * @param falsePositiveRate
+     *         The desired probability of false positives, between 0 and 1 (exclusive).
+     */
+    public UriBloomFilter(long expectedCount, double falsePositiveRate)
+    {
+        if (expectedCount < 1 || !(falsePositiveRate > 0 && falsePositiveRate < 1))
+        {
+            throw new IllegalArgumentException(String.format("Invalid count %d or false positive rate %f", expectedCount, falsePositiveRate));
+        }
+        final double ln2 = Math.log(2);
+        final double bits = -expectedCount * Math.log(falsePositiveRate) / (ln2 * ln2);
+        final long blocks = (long) Math.ceil(bits / (BLOCK_LONGS * 64));
+        if (blocks * BLOCK_LONGS > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException(String.format("%d URIs at a rate of %f exceed the maximum size of a filter", expectedCount, falsePositiveRate));
+        }
+        mBlocks = (int) blocks;
+        mHashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(bits / expectedCount * ln2)));
+        mBits = new AtomicLongArray(mBlocks * BLOCK_LONGS);
+    }
+
+
+    /**
+     * Reads a {@link UriBloomFilter} that has been written by {@link #writeTo(OutputStream)}.
+     *
+     * @throws IOException
+     *         if the stream can't be read or doesn't contain a filter.
+     */
+    public UriBloomFilter(InputStream in) throws IOException
+    {
+        final DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC)
+        {
+            throw new IOException("Not a UriBloomFilter");
+        }
+        mHashes = data.readInt();
+        mBlocks = data.readInt();
+        if (mHashes < 1 || mHashes > MAX_HASHES || mBlocks < 1 || mBlocks > Integer.MAX_VALUE / BLOCK_LONGS)
+        {
+            throw new IOException(String.format("Invalid filter parameters %d and %d", mHashes, mBlocks));
+        }
+        mCount.add(data.readLong());
+        mBits = new AtomicLongArray(mBlocks * BLOCK_LONGS);
+        for (int i = 0, length = mBits.length(); i < length; ++i)
+        {
+            mBits.lazySet(i, data.readLong());
+        }
+    }
+
+
+    /**
+     * Adds the given {@link Uri}.
+     *
+     * @return {@code true} if the {@link Uri} has not been contained before, {@code false} if it (probably) has.
+     */
+    public boolean add(Uri uri)
+    {
+        return add(fingerprint(uri));
+    }
+
+
+    /**
+     * Adds the given encoded URI reference.
+     *
+     * @return {@code true} if the URI has not been contained before, {@code false} if it (probably) has.
+     *
+     * @throws IllegalArgumentException
+     *         if the given {@link UriEncoded} is not a valid URI reference.
+     */
+    public boolean add(UriEncoded uri)
+    {
+        return add(fingerprint(new IndexedUri(uri)));
+    }
+
+
+    /**
+     * Returns whether the given {@link Uri} has probably been added. A result of {@code false} is always correct.
+     */
+    public boolean mightContain(Uri uri)
+    {
+        return mightContain(fingerprint(uri));
+    }
+
+
+    /**
+     * Returns whether the given encoded URI reference has probably been added. A result of {@code false} is always correct.
+     *
+     * @throws IllegalArgumentException
+     *         if the given {@link UriEncoded} is not a valid URI reference.
+     */
+    public boolean mightContain(UriEncoded uri)
+    {
+        return mightContain(fingerprint(new IndexedUri(uri)));
+    }
+
+
+    /**
+     * Returns the number of calls to {@code add} that returned {@code true}. Due to false positives this is a lower bound of the number of distinct URIs
+     * added.
+     */
+    public long count()
+    {
+        return mCount.sum();
+    }
+
+
+    /**
+     * Returns the size of the bit array in bytes.
+     */
+    public long byteSize()
+    {
+        return (long) mBits.length() * 8;
+    }
+
+
+    /**
+     * Writes this filter to the given {@link OutputStream}. The stream is flushed, but not closed.
+     * <p>
+     * Note, URIs that are added while the filter is written may or may not be contained in the result.
+     */
+    public void writeTo(OutputStream out) throws IOException
+    {
+        final DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(mHashes);
+        data.writeInt(mBlocks);
+        data.writeLong(mCount.sum());
+        for (int i = 0, length = mBits.length(); i < length; ++i)
+        {
+            data.writeLong(mBits.get(i));
+        }
+        data.flush();
+    }
+
+
+    /**
+     * The single fingerprint function of all overloads, so a URI is found regardless of the form it has been added or queried in.
+     */
+    private static long fingerprint(Uri uri)
+    {
+        return new UriKey(uri).fingerprint();
+    }
+
+
+    private boolean add(long fingerprint)
+    {
+        final int base = block(fingerprint);
+        boolean changed = false;
+        long x = fingerprint;
+        for (int i = 0; i < mHashes; ++i)
+        {
+            x = next(x);
+            // the top 9 bits select one of the 512 bits of the block
+            final int bit = (int) (x >>> 55);
+            final int index = base + (bit >>> 6);
+            final long mask = 1L << bit;
+            if ((mBits.get(index) & mask) == 0)
+            {
+                changed |= (mBits.getAndAccumulate(index, mask, (current, m) -> current | m) & mask) == 0;
+            }
+        }
+        if (changed)
+        {
+            mCount.increment();
+        }
+        return changed;
+    }
+
+
+    private boolean mightContain(long fingerprint)
+    {
+        final int base = block(fingerprint);
+        long x = fingerprint;
+        for (int i = 0; i < mHashes; ++i)
+        {
+            x = next(x);
+            final int bit = (int) (x >>> 55);
+            if ((mBits.get(base + (bit >>> 6)) & (1L << bit)) == 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Returns the index of the first long of the block of the given fingerprint.
+     */
+    private int block(long fingerprint)
+    {
+        // maps the lower 32 bits evenly to [0, mBlocks) without a division
+        return (int) (((fingerprint & 0xffffffffL) * mBlocks) >>> 32) * BLOCK_LONGS;
+    }
+
+
+    /**
+     * A step of a 64-bit linear congruential generator, seeded with the fingerprint, to derive the bit positions.
+     */
+    private static long next(long x)
+    {
+        return x * 0x5851f42d4c957f2dL + 0x14057b7ef767814fL;
+    }
+}
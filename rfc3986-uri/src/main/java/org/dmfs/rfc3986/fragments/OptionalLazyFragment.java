@@ -58,11 +58,13 @@ public final class OptionalLazyFragment implements Optional<Fragment>
 
     private Optional<Fragment> fragment()
     {
-        if (mDelegate == null)
+        Optional<Fragment> result = mDelegate;
+        if (result == null)
         {
-            mDelegate = parsedFragment();
+            result = parsedFragment();
+            mDelegate = result;
         }
-        return mDelegate;
+        return result;
     }
 
 
@@ -76,11 +78,7 @@ public final class OptionalLazyFragment implements Optional<Fragment>
             return absent();
         }
 
-        int i = 1;
-        while (i < count && FRAGMENT_CHAR.contains(uriEncoded.charAt(i)))
-        {
-            ++i;
-        }
+        final int i = FRAGMENT_CHAR.endOfRun(uriEncoded, 1, count);
 
         if (i != count)
         {
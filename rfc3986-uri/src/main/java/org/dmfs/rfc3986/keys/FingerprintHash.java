@@ -0,0 +1,170 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.keys;
+
+import org.dmfs.rfc3986.encoding.utils.HexDigits;
+import org.dmfs.rfc3986.validation.CharSets;
+
+
+/**
+ * The hash function behind the fingerprints of {@link UriKey} and {@link UriFingerprinter}.
+ * <p>
+ * The hash is FNV-1a over a stream of tokens, one per normalized character, followed by the 64-bit finalizer of MurmurHash3. A token is the character
+ * itself (decoded if it's a percent-encoded unreserved character) or {@link #ENCODED} plus the value of any other percent-encoded octet, so the tokens of
+ * two values are equal if and only if the normalized values are equal. Each component is introduced with its own marker token.
+ */
+final class FingerprintHash
+{
+    // tokens of percent-encoded octets are above the range of char values
+    private final static int ENCODED = 0x10000;
+    private final static int COMPONENT = 0x20000;
+    private final static int ABSENT = 0x30000;
+
+    final static int SCHEME = 0;
+    final static int AUTHORITY = 1;
+    final static int USER_INFO = 2;
+    final static int HOST = 3;
+    final static int PORT = 4;
+    final static int PATH = 5;
+    final static int SEGMENT = 6;
+    final static int QUERY = 7;
+    final static int FRAGMENT = 8;
+
+    final static long INITIAL = 0xcbf29ce484222325L;
+    private final static long FNV_PRIME = 0x100000001b3L;
+
+
+    private FingerprintHash()
+    {
+    }
+
+
+    /**
+     * Returns the hash with the marker of the given component.
+     */
+    static long component(long hash, int component)
+    {
+        return mixed(hash, COMPONENT + component);
+    }
+
+
+    /**
+     * Returns the hash with the marker of the given absent component.
+     */
+    static long absent(long hash, int component)
+    {
+        return mixed(hash, ABSENT + component);
+    }
+
+
+    /**
+     * Returns the hash with the given component value, {@code null} denoting an absent component.
+     */
+    static long hashed(long hash, int component, CharSequence value, boolean ignoreCase)
+    {
+        return value == null ? absent(hash, component) : hashed(component(hash, component), value, 0, value.length(), ignoreCase);
+    }
+
+
+    /**
+     * Returns the hash with the normalized characters between the given positions.
+     */
+    static long hashed(long hash, CharSequence value, int start, int end, boolean ignoreCase)
+    {
+        long result = hash;
+        int i = start;
+        while (i < end)
+        {
+            result = mixed(result, token(value, i, end, ignoreCase));
+            i += value.charAt(i) == '%' ? 3 : 1;
+        }
+        return result;
+    }
+
+
+    /**
+     * One FNV-1a step, applied to the whole token rather than to its individual bytes.
+     */
+    static long mixed(long hash, int token)
+    {
+        return (hash ^ token) * FNV_PRIME;
+    }
+
+
+    /**
+     * The 64-bit finalizer of MurmurHash3, to spread the FNV-1a state over all bits.
+     */
+    static long finalized(long hash)
+    {
+        long result = hash;
+        result ^= result >>> 33;
+        result *= 0xff51afd7ed558ccdL;
+        result ^= result >>> 33;
+        result *= 0xc4ceb9fe1a85ec53L;
+        result ^= result >>> 33;
+        return result;
+    }
+
+
+    /**
+     * Compares the normalized forms of the given values without creating them.
+     */
+    static boolean equal(CharSequence value, CharSequence other, boolean ignoreCase)
+    {
+        if (value == null || other == null)
+        {
+            return value == other;
+        }
+        final int length = value.length();
+        final int otherLength = other.length();
+        int i = 0;
+        int j = 0;
+        while (i < length && j < otherLength)
+        {
+            if (token(value, i, length, ignoreCase) != token(other, j, otherLength, ignoreCase))
+            {
+                return false;
+            }
+            i += value.charAt(i) == '%' ? 3 : 1;
+            j += other.charAt(j) == '%' ? 3 : 1;
+        }
+        return i >= length && j >= otherLength;
+    }
+
+
+    /**
+     * Returns the token of the normalized character at the given position.
+     */
+    private static int token(CharSequence value, int i, int end, boolean ignoreCase)
+    {
+        char c = value.charAt(i);
+        if (c == '%')
+        {
+            if (i + 2 >= end)
+            {
+                throw new IllegalArgumentException("Illegal encoding");
+            }
+            final int octet = HexDigits.octet(value.charAt(i + 1), value.charAt(i + 2));
+            if (!CharSets.UNRESERVED.contains((char) octet))
+            {
+                return ENCODED + octet;
+            }
+            c = (char) octet;
+        }
+        return ignoreCase && c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+}
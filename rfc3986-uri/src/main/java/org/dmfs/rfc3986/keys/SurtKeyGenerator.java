@@ -0,0 +1,335 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.keys;
+
+import org.dmfs.jems2.Optional;
+import org.dmfs.rfc3986.Authority;
+import org.dmfs.rfc3986.Query;
+import org.dmfs.rfc3986.Scheme;
+import org.dmfs.rfc3986.Uri;
+import org.dmfs.rfc3986.UriEncoded;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Generates SURT (Sort-friendly URI Reordering Transform) keys of {@link Uri}s, as used by web archives and crawlers, e.g.
+ * <pre>
+ * http://www.example.com:80/a/b?y=2&amp;x=1#f  -&gt;  com,example)/a/b?x=1&amp;y=2
+ * </pre>
+ * The host is lower-cased and its labels are reversed and separated by {@code ","}. IP addresses are not reversed. A port (unless it's the default port of the
+ * scheme and default ports are stripped) follows the host as {@code ":port"}, the host part is terminated by {@code ")"}. The scheme, the user info and the
+ * fragment are dropped, the encoded path (or {@code "/"} if it's empty) and the encoded query are copied. {@link Uri}s without an authority, like {@code
+ * mailto:me@example.com}, are copied without their fragment.
+ * <p>
+ * Keys are US-ASCII (as long as the {@link Uri} is properly encoded), so the {@code byte[]} keys of {@link #bytes(Uri)} compare like their {@link String}
+ * counterparts. Since {@code ")"} sorts before {@code ","}, the keys of a domain sort right before the keys of its subdomains.
+ */
+public final class SurtKeyGenerator
+{
+    private final boolean mDropWww;
+    private final boolean mStripDefaultPort;
+    private final boolean mSortQuery;
+
+
+    /**
+     * A {@link SurtKeyGenerator} that drops {@code www} labels, strips default ports and sorts query parameters.
+     */
+    public SurtKeyGenerator()
+    {
+        this(true, true, true);
+    }
+
+
+    /**
+     * A {@link SurtKeyGenerator} with the given canonicalizations.
+     *
+     * @param dropWww
+     *         Whether to drop a leading {@code www} label of the host, unless it's followed by a top level domain only.
+     * @param stripDefaultPort
+     *         Whether to drop the port if it's the default port of {@code http}, {@code https} or {@code ftp}.
+     * @param sortQuery
+     *         Whether to sort the {@code "&"} separated parameters of the query.
+     */
+    public SurtKeyGenerator(boolean dropWww, boolean stripDefaultPort, boolean sortQuery)
+    {
+        mDropWww = dropWww;
+        mStripDefaultPort = stripDefaultPort;
+        mSortQuery = sortQuery;
+    }
+
+
+    /**
+     * Appends the key of the given {@link Uri} to the given {@link Appendable}.
+     */
+    public void appendTo(Uri uri, Appendable out) throws IOException
+    {
+        final Optional<? extends Authority> authority = uri.authority();
+        if (authority.isPresent())
+        {
+            appendHost(authority.value().host(), out);
+            final Optional<Integer> port = authority.value().port();
+            if (port.isPresent() && !(mStripDefaultPort && isDefaultPort(uri.scheme(), port.value())))
+            {
+                out.append(':').append(port.value().toString());
+            }
+            out.append(')');
+            if (uri.path().isEmpty())
+            {
+                out.append('/');
+            }
+        }
+        else if (uri.scheme().isPresent())
+        {
+            out.append(uri.scheme().value()).append(':');
+        }
+
+        boolean first = true;
+        for (UriEncoded segment : uri.path())
+        {
+            if (!first)
+            {
+                out.append('/');
+            }
+            out.append(segment);
+            first = false;
+        }
+
+        final Optional<? extends Query> query = uri.query();
+        if (query.isPresent())
+        {
+            out.append('?');
+            appendQuery(query.value(), out);
+        }
+    }
+
+
+    /**
+     * Returns the key of the given {@link Uri}.
+     */
+    public String key(Uri uri)
+    {
+        final StringBuilder result = new StringBuilder(64);
+        try
+        {
+            appendTo(uri, result);
+        }
+        catch (IOException e)
+        {
+            // StringBuilder doesn't throw
+            throw new UncheckedIOException(e);
+        }
+        return result.toString();
+    }
+
+
+    /**
+     * Returns the key of the given {@link Uri} as bytes, ordered like the {@link String} returned by {@link #key(Uri)}.
+     */
+    public byte[] bytes(Uri uri)
+    {
+        final ByteSink result = new ByteSink();
+        try
+        {
+            appendTo(uri, result);
+        }
+        catch (IOException e)
+        {
+            // ByteSink doesn't throw
+            throw new UncheckedIOException(e);
+        }
+        return result.bytes();
+    }
+
+
+    private void appendHost(CharSequence host, Appendable out) throws IOException
+    {
+        final int length = host.length();
+        if (length == 0 || host.charAt(0) == '[' || isIpV4(host))
+        {
+            appendLowerCase(host, 0, length, out);
+            return;
+        }
+        // drop a trailing dot of a fully qualified name
+        final int end = host.charAt(length - 1) == '.' ? length - 1 : length;
+        int start = 0;
+        if (mDropWww && end > 4 && (host.charAt(0) | 0x20) == 'w' && (host.charAt(1) | 0x20) == 'w' && (host.charAt(2) | 0x20) == 'w' && host.charAt(3) == '.'
+            && hasDot(host, 4, end))
+        {
+            // drop "www", unless that would leave a top level domain only
+            start = 4;
+        }
+        int labelEnd = end;
+        for (int i = end - 1; i >= start - 1; --i)
+        {
+            if (i < start || host.charAt(i) == '.')
+            {
+                appendLowerCase(host, i + 1, labelEnd, out);
+                if (i >= start)
+                {
+                    out.append(',');
+                }
+                labelEnd = i;
+            }
+        }
+    }
+
+
+    private void appendQuery(CharSequence query, Appendable out) throws IOException
+    {
+        if (!mSortQuery)
+        {
+            out.append(query);
+            return;
+        }
+        final List<String> parameters = new ArrayList<>();
+        int start = 0;
+        for (int i = 0, length = query.length(); i <= length; ++i)
+        {
+            if (i == length || query.charAt(i) == '&')
+            {
+                parameters.add(query.subSequence(start, i).toString());
+                start = i + 1;
+            }
+        }
+        final String[] sorted = parameters.toArray(new String[0]);
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; ++i)
+        {
+            if (i > 0)
+            {
+                out.append('&');
+            }
+            out.append(sorted[i]);
+        }
+    }
+
+
+    private static void appendLowerCase(CharSequence value, int start, int end, Appendable out) throws IOException
+    {
+        for (int i = start; i < end; ++i)
+        {
+            final char c = value.charAt(i);
+            out.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+        }
+    }
+
+
+    private static boolean hasDot(CharSequence value, int start, int end)
+    {
+        for (int i = start; i < end; ++i)
+        {
+            if (value.charAt(i) == '.')
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    private static boolean isIpV4(CharSequence host)
+    {
+        for (int i = 0, length = host.length(); i < length; ++i)
+        {
+            final char c = host.charAt(i);
+            if (c != '.' && (c < '0' || c > '9'))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    private static boolean isDefaultPort(Optional<? extends Scheme> scheme, int port)
+    {
+        if (!scheme.isPresent())
+        {
+            return false;
+        }
+        final String name = scheme.value().toString();
+        return port == 80 && "http".equalsIgnoreCase(name)
+            || port == 443 && "https".equalsIgnoreCase(name)
+            || port == 21 && "ftp".equalsIgnoreCase(name);
+    }
+
+
+    /**
+     * An {@link Appendable} that collects the UTF-8 bytes of the appended characters. Surrogates are encoded one by one, which keeps the byte order consistent
+     * with the {@link String} order.
+     */
+    private final static class ByteSink implements Appendable
+    {
+        private byte[] mBytes = new byte[64];
+        private int mSize;
+
+
+        @Override
+        public Appendable append(CharSequence csq)
+        {
+            return append(csq, 0, csq.length());
+        }
+
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end)
+        {
+            for (int i = start; i < end; ++i)
+            {
+                append(csq.charAt(i));
+            }
+            return this;
+        }
+
+
+        @Override
+        public Appendable append(char c)
+        {
+            if (mSize + 3 > mBytes.length)
+            {
+                mBytes = Arrays.copyOf(mBytes, mBytes.length * 2);
+            }
+            if (c < 0x80)
+            {
+                mBytes[mSize++] = (byte) c;
+            }
+            else if (c < 0x800)
+            {
+                mBytes[mSize++] = (byte) (0xc0 | (c >>> 6));
+                mBytes[mSize++] = (byte) (0x80 | (c & 0x3f));
+            }
+            else
+            {
+                mBytes[mSize++] = (byte) (0xe0 | (c >>> 12));
+                mBytes[mSize++] = (byte) (0x80 | ((c >>> 6) & 0x3f));
+                mBytes[mSize++] = (byte) (0x80 | (c & 0x3f));
+            }
+            return this;
+        }
+
+
+        byte[] bytes()
+        {
+            return Arrays.copyOf(mBytes, mSize);
+        }
+    }
+}
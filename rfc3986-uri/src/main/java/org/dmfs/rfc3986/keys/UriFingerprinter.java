@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.keys;
+
+import org.dmfs.rfc3986.paths.utils.SegmentRanges;
+import org.dmfs.rfc3986.utils.UriScanner;
+
+import static org.dmfs.rfc3986.keys.FingerprintHash.*;
+import static org.dmfs.rfc3986.utils.UriScanner.SCHEME_END;
+import static org.dmfs.rfc3986.utils.UriScanner.USER_INFO_END;
+import static org.dmfs.rfc3986.utils.UriScanner.HOST_START;
+import static org.dmfs.rfc3986.utils.UriScanner.HOST_END;
+import static org.dmfs.rfc3986.utils.UriScanner.PATH_START;
+import static org.dmfs.rfc3986.utils.UriScanner.PATH_END;
+import static org.dmfs.rfc3986.utils.UriScanner.QUERY_END;
+import static org.dmfs.rfc3986.utils.UriScanner.FRAGMENT_START;
+
+
+/**
+ * Calculates 64-bit fingerprints of the normalized forms of encoded URI references, without creating the normalized forms or any {@link
+ * org.dmfs.rfc3986.Uri} objects.
+ * <p>
+ * The URI is scanned once with the {@link UriScanner} and each normalized character is fed to the hash right away. Normalization follows the same rules as
+ * {@link UriKey}: schemes and hosts are lower-cased, percent-encodings are normalized like {@link org.dmfs.rfc3986.encoding.Normalized} does and dot-segments
+ * are removed like {@link org.dmfs.rfc3986.paths.Normalized} does. The result equals the {@link UriKey#fingerprint()} of the same URI, so
+ * <pre>
+ * UriFingerprinter.INSTANCE.fingerprint(uri)
+ * </pre>
+ * is a much cheaper replacement for hashing {@code new Text(new Normalized(new LazyUri(new Precoded(uri)))).toString()}.
+ * <p>
+ * The instance is thread-safe, each thread uses its own scratch space.
+ */
+public final class UriFingerprinter
+{
+    public final static UriFingerprinter INSTANCE = new UriFingerprinter();
+
+    private final static ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+
+    private UriFingerprinter()
+    {
+    }
+
+
+    /**
+     * Returns the fingerprint of the normalized form of the given URI reference.
+     *
+     * @throws IllegalArgumentException
+     *         if the given {@link CharSequence} is not a valid URI reference.
+     */
+    public long fingerprint(CharSequence uri)
+    {
+        final Scratch scratch = SCRATCH.get();
+        final int[] table = scratch.mTable;
+        UriScanner.INSTANCE.scan(uri, table, 0);
+
+        final int schemeEnd = table[SCHEME_END];
+        long hash = schemeEnd < 0 ? absent(INITIAL, SCHEME) : hashed(component(INITIAL, SCHEME), uri, 0, schemeEnd, true);
+
+        final int hostStart = table[HOST_START];
+        if (hostStart >= 0)
+        {
+            hash = component(hash, AUTHORITY);
+            final int userInfoEnd = table[USER_INFO_END];
+            // the authority starts right after the "//"
+            hash = userInfoEnd < 0 ? absent(hash, USER_INFO) : hashed(component(hash, USER_INFO), uri, schemeEnd + 3, userInfoEnd, false);
+            hash = hashed(component(hash, HOST), uri, hostStart, table[HOST_END], true);
+            hash = mixed(component(hash, PORT), table[UriScanner.PORT]);
+        }
+        else
+        {
+            hash = absent(hash, AUTHORITY);
+        }
+
+        hash = component(hash, PATH);
+        final SegmentRanges segments = scratch.mSegments;
+        segments.scan(uri, table[PATH_START], table[PATH_END]);
+        for (int i = 0, count = segments.count(); i < count; ++i)
+        {
+            final int start = segments.start(i);
+            hash = start < 0
+                ? mixed(component(hash, SEGMENT), '.')
+                : hashed(component(hash, SEGMENT), uri, start, segments.end(i), false);
+        }
+
+        final int queryEnd = table[QUERY_END];
+        hash = queryEnd < 0 ? absent(hash, QUERY) : hashed(component(hash, QUERY), uri, table[PATH_END] + 1, queryEnd, false);
+        final int fragmentStart = table[FRAGMENT_START];
+        hash = fragmentStart < 0 ? absent(hash, FRAGMENT) : hashed(component(hash, FRAGMENT), uri, fragmentStart, uri.length(), false);
+        return finalized(hash);
+    }
+
+
+    /**
+     * The scratch space of a thread.
+     */
+    private final static class Scratch
+    {
+        private final int[] mTable = new int[UriScanner.SLOTS];
+        private final SegmentRanges mSegments = new SegmentRanges();
+    }
+}
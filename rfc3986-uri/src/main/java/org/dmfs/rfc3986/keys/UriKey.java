@@ -0,0 +1,178 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.keys;
+
+import org.dmfs.jems2.Optional;
+import org.dmfs.rfc3986.Authority;
+import org.dmfs.rfc3986.Uri;
+import org.dmfs.rfc3986.UriEncoded;
+import org.dmfs.rfc3986.paths.utils.SegmentStack;
+
+import java.util.Iterator;
+
+import static org.dmfs.rfc3986.keys.FingerprintHash.*;
+
+
+/**
+ * A key for {@link Uri}s with semantic {@link #equals(Object)} and {@link #hashCode()}, meant for hash based collections.
+ * <p>
+ * Two keys are equal if their {@link Uri}s are equal after normalization, i.e.
+ * <ul>
+ * <li>schemes and hosts are compared case-insensitively,</li>
+ * <li>percent-encoded unreserved characters are equal to their decoded counterparts and hex digits are case-insensitive,</li>
+ * <li>dot-segments are removed from the path (like {@link org.dmfs.rfc3986.paths.Normalized} does) and</li>
+ * <li>ports are compared by their numeric value.</li>
+ * </ul>
+ * Any other difference, like an absent vs. an empty query, makes two keys different.
+ * <p>
+ * The normalized form is never materialized. Instead, the components are walked once, when the key is created, to calculate a 64-bit {@link #fingerprint()}
+ * and {@link #equals(Object)} compares the components of two keys on the fly, which is rarely necessary unless the keys are actually equal. The
+ * fingerprint is the same that {@link UriFingerprinter} calculates for the text of the {@link Uri}.
+ */
+public final class UriKey
+{
+    private final Uri mUri;
+    private final CharSequence mScheme;
+    private final boolean mHasAuthority;
+    private final CharSequence mUserInfo;
+    private final CharSequence mHost;
+    private final int mPort;
+    private final SegmentStack mPath;
+    private final CharSequence mQuery;
+    private final CharSequence mFragment;
+    private final long mFingerprint;
+
+
+    /**
+     * Creates a key for the given {@link Uri}.
+     *
+     * @throws IllegalArgumentException
+     *         if any component of the given {@link Uri} contains an invalid percent-encoding.
+     */
+    public UriKey(Uri uri)
+    {
+        mUri = uri;
+        mScheme = valueOrNull(uri.scheme());
+        final Optional<? extends Authority> authority = uri.authority();
+        mHasAuthority = authority.isPresent();
+        mUserInfo = mHasAuthority ? valueOrNull(authority.value().userInfo()) : null;
+        mHost = mHasAuthority ? authority.value().host() : null;
+        mPort = mHasAuthority && authority.value().port().isPresent() ? authority.value().port().value() : -1;
+        mPath = new SegmentStack(uri.path().iterator(), false);
+        mQuery = valueOrNull(uri.query());
+        mFragment = valueOrNull(uri.fragment());
+
+        long hash = hashed(INITIAL, SCHEME, mScheme, true);
+        if (mHasAuthority)
+        {
+            hash = component(hash, AUTHORITY);
+            hash = hashed(hash, USER_INFO, mUserInfo, false);
+            hash = hashed(hash, HOST, mHost, true);
+            hash = mixed(component(hash, PORT), mPort);
+        }
+        else
+        {
+            hash = absent(hash, AUTHORITY);
+        }
+        hash = component(hash, PATH);
+        for (UriEncoded segment : mPath)
+        {
+            hash = hashed(hash, SEGMENT, segment, false);
+        }
+        hash = hashed(hash, QUERY, mQuery, false);
+        hash = hashed(hash, FRAGMENT, mFragment, false);
+        mFingerprint = finalized(hash);
+    }
+
+
+    /**
+     * Returns the {@link Uri} of this key.
+     */
+    public Uri uri()
+    {
+        return mUri;
+    }
+
+
+    /**
+     * Returns a 64-bit fingerprint of the normalized {@link Uri}. Equal keys have equal fingerprints. Different keys have different fingerprints with a very
+     * high probability.
+     */
+    public long fingerprint()
+    {
+        return mFingerprint;
+    }
+
+
+    @Override
+    public int hashCode()
+    {
+        return (int) (mFingerprint ^ (mFingerprint >>> 32));
+    }
+
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (obj == this)
+        {
+            return true;
+        }
+        if (!(obj instanceof UriKey))
+        {
+            return false;
+        }
+        final UriKey other = (UriKey) obj;
+        return mFingerprint == other.mFingerprint
+            && mHasAuthority == other.mHasAuthority
+            && mPort == other.mPort
+            && equal(mScheme, other.mScheme, true)
+            && equal(mUserInfo, other.mUserInfo, false)
+            && equal(mHost, other.mHost, true)
+            && equal(mQuery, other.mQuery, false)
+            && equal(mFragment, other.mFragment, false)
+            && samePath(mPath, other.mPath);
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return String.format("UriKey(%016x)", mFingerprint);
+    }
+
+
+    private static CharSequence valueOrNull(Optional<? extends CharSequence> optional)
+    {
+        return optional.isPresent() ? optional.value() : null;
+    }
+
+
+    private static boolean samePath(SegmentStack path, SegmentStack otherPath)
+    {
+        final Iterator<UriEncoded> segments = path.iterator();
+        final Iterator<UriEncoded> otherSegments = otherPath.iterator();
+        while (segments.hasNext() && otherSegments.hasNext())
+        {
+            if (!equal(segments.next(), otherSegments.next(), false))
+            {
+                return false;
+            }
+        }
+        return !segments.hasNext() && !otherSegments.hasNext();
+    }
+}
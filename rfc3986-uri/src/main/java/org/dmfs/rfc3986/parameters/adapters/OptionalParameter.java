@@ -19,6 +19,7 @@ package org.dmfs.rfc3986.parameters.adapters;
 import org.dmfs.jems2.Optional;
 import org.dmfs.jems2.iterator.Mapped;
 import org.dmfs.jems2.iterator.Sieved;
+import org.dmfs.jems2.optional.Present;
 import org.dmfs.rfc3986.parameters.Parameter;
 import org.dmfs.rfc3986.parameters.ParameterList;
 import org.dmfs.rfc3986.parameters.ParameterType;
@@ -26,6 +27,8 @@ import org.dmfs.rfc3986.parameters.ParameterType;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
+import static org.dmfs.jems2.optional.Absent.absent;
+
 
 /**
  * The value of a {@link Parameter} that can be present once or not at all.
@@ -33,8 +36,7 @@ import java.util.NoSuchElementException;
 public final class OptionalParameter<V> implements Optional<V>
 {
     private final Iterable<V> mDelegate;
-    private V mValue;
-    private Boolean mIsPresent;
+    private Optional<V> mValue;
 
 
     public OptionalParameter(final ParameterType<V> parameterType, final ParameterList delegate)
@@ -61,26 +63,31 @@ public final class OptionalParameter<V> implements Optional<V>
     @Override
     public boolean isPresent()
     {
-        if (mIsPresent == null)
-        {
-            mIsPresent = mDelegate.iterator().hasNext();
-        }
-        return mIsPresent;
+        return parameter().isPresent();
     }
 
 
     @Override
     public V value() throws NoSuchElementException
     {
-        if (mValue == null)
+        Optional<V> parameter = parameter();
+        if (!parameter.isPresent())
+        {
+            throw new NoSuchElementException("No value present. Better call \"isPresent()\" beforehand.");
+        }
+        return parameter.value();
+    }
+
+
+    private Optional<V> parameter()
+    {
+        Optional<V> result = mValue;
+        if (result == null)
         {
             Iterator<V> iterator = mDelegate.iterator();
-            if (!iterator.hasNext())
-            {
-                throw new NoSuchElementException("No value present. Better call \"isPresent()\" beforehand.");
-            }
-            mValue = iterator.next();
+            result = iterator.hasNext() ? new Present<>(iterator.next()) : absent();
+            mValue = result;
         }
-        return mValue;
+        return result;
     }
 }
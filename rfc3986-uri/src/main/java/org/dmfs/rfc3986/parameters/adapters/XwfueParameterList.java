@@ -25,6 +25,8 @@ import org.dmfs.rfc3986.encoding.Precoded;
 import org.dmfs.rfc3986.parameters.Parameter;
 import org.dmfs.rfc3986.parameters.ParameterList;
 import org.dmfs.rfc3986.parameters.parameters.UrlEncodedParameter;
+import org.dmfs.rfc3986.pools.ComponentPool;
+import org.dmfs.rfc3986.pools.Unpooled;
 import org.dmfs.rfc3986.utils.Split;
 
 import java.util.Iterator;
@@ -36,6 +38,7 @@ import java.util.Iterator;
 public final class XwfueParameterList implements ParameterList
 {
     private final Optional<UriEncoded> mDelegate;
+    private final ComponentPool mPool;
 
 
     public XwfueParameterList(UriEncoded delegate)
@@ -45,8 +48,18 @@ public final class XwfueParameterList implements ParameterList
 
 
     public XwfueParameterList(Optional<UriEncoded> delegate)
+    {
+        this(delegate, Unpooled.INSTANCE);
+    }
+
+
+    /**
+     * A {@link ParameterList} that takes the parameter names from the given {@link ComponentPool}.
+     */
+    public XwfueParameterList(Optional<UriEncoded> delegate, ComponentPool pool)
     {
         mDelegate = delegate;
+        mPool = pool;
     }
 
 
@@ -58,6 +71,6 @@ public final class XwfueParameterList implements ParameterList
             return EmptyIterator.emptyIterator();
         }
 
-        return new Mapped<>(param -> new UrlEncodedParameter(new Precoded(param)), new Split(mDelegate.value(), '&'));
+        return new Mapped<>(param -> new UrlEncodedParameter(new Precoded(param), "UTF-8", mPool), new Split(mDelegate.value(), '&'));
     }
 }
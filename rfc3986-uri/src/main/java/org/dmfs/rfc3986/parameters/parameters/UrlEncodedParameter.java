@@ -20,6 +20,8 @@ import org.dmfs.rfc3986.UriEncoded;
 import org.dmfs.rfc3986.encoding.FormPrecoded;
 import org.dmfs.rfc3986.encoding.IdempotentEncoded;
 import org.dmfs.rfc3986.parameters.Parameter;
+import org.dmfs.rfc3986.pools.ComponentPool;
+import org.dmfs.rfc3986.pools.Unpooled;
 
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
@@ -33,7 +35,9 @@ public final class UrlEncodedParameter implements Parameter
 {
     private final CharSequence mEncodedParameter;
     private final String mCharSet;
-    private UriEncoded mName;
+    private final ComponentPool mPool;
+    // publishes mValue
+    private volatile UriEncoded mName;
     private UriEncoded mValue;
 
 
@@ -44,9 +48,19 @@ public final class UrlEncodedParameter implements Parameter
 
 
     public UrlEncodedParameter(UriEncoded encodedParameter, String charSet) throws UnsupportedCharsetException
+    {
+        this(encodedParameter, charSet, Unpooled.INSTANCE);
+    }
+
+
+    /**
+     * A {@link Parameter} that takes its name from the given {@link ComponentPool}.
+     */
+    public UrlEncodedParameter(UriEncoded encodedParameter, String charSet, ComponentPool pool) throws UnsupportedCharsetException
     {
         mEncodedParameter = encodedParameter;
         mCharSet = charSet;
+        mPool = pool;
         // check early if the charset exists
         Charset.forName(charSet);
     }
@@ -55,10 +69,9 @@ public final class UrlEncodedParameter implements Parameter
     @Override
     public CharSequence name()
     {
-        parse();
         try
         {
-            return mName.decoded(mCharSet);
+            return parsedName().decoded(mCharSet);
         }
         catch (UnsupportedEncodingException e)
         {
@@ -71,7 +84,7 @@ public final class UrlEncodedParameter implements Parameter
     @Override
     public CharSequence textValue()
     {
-        parse();
+        parsedName();
         try
         {
             return mValue.decoded(mCharSet);
@@ -84,12 +97,15 @@ public final class UrlEncodedParameter implements Parameter
     }
 
 
-    private void parse()
+    /**
+     * Parses the parameter (unless that has been done before) and returns the name.
+     */
+    private UriEncoded parsedName()
     {
-        if (mName == null)
+        UriEncoded result = mName;
+        if (result == null)
         {
             int equalsPos = equalsPos(mEncodedParameter);
-            mName = new FormPrecoded(mEncodedParameter.subSequence(0, equalsPos));
             if (equalsPos < mEncodedParameter.length())
             {
                 mValue = new FormPrecoded(mEncodedParameter.subSequence(equalsPos + 1, mEncodedParameter.length()));
@@ -98,7 +114,10 @@ public final class UrlEncodedParameter implements Parameter
             {
                 mValue = IdempotentEncoded.EMPTY;
             }
+            result = new FormPrecoded(mPool.pooled(mEncodedParameter.subSequence(0, equalsPos)));
+            mName = result;
         }
+        return result;
     }
 
 
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.parsers;
+
+import org.dmfs.rfc3986.Uri;
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.uris.IndexedUri;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * A parser that caches the {@link Uri}s it returns, for applications that parse the same URIs over and over again.
+ * <p>
+ * The {@link Uri}s are {@link IndexedUri}s, i.e. they are parsed and validated completely and can be shared among threads. The cache has two levels. The
+ * first level is a small direct mapped table per thread, that's accessed without any synchronization. The second level is shared among all threads. It's
+ * split into a number of independently locked stripes, each of which evicts its least recently used entries when it's full.
+ * <p>
+ * Each instance maintains its own {@link ThreadLocal}, so instances are meant to be long-lived and shared, e.g.
+ * <pre>
+ * private final static CachingUriParser PARSER = new CachingUriParser(10000);
+ * ...
+ * Uri uri = PARSER.parsed(request.uri());
+ * </pre>
+ */
+public final class CachingUriParser
+{
+    private final static int STRIPES = 16;
+    private final static int DEFAULT_LOCAL_CAPACITY = 64;
+
+    private final Stripe[] mStripes;
+    private final ThreadLocal<LocalCache> mLocalCache;
+    private final LongAdder mHits = new LongAdder();
+    private final LongAdder mMisses = new LongAdder();
+    private final LongAdder mEvictions = new LongAdder();
+
+
+    /**
+     * A {@link CachingUriParser} that caches about the given number of {@link Uri}s.
+     */
+    public CachingUriParser(int capacity)
+    {
+        this(capacity, DEFAULT_LOCAL_CAPACITY);
+    }
+
+
+    /**
+     * A {@link CachingUriParser} that caches about the given number of {@link Uri}s and the given number of {@link Uri}s per thread.
+     *
+     * @param capacity
+     *         The capacity of the shared cache.
+     * @param localCapacity
+     *         The capacity of the cache of each thread, rounded up to the next power of two.
+     */
+    public CachingUriParser(int capacity, int localCapacity)
+    {
+        if (capacity < 1 || localCapacity < 1)
+        {
+            throw new IllegalArgumentException(String.format("Capacities must be positive, but were %d and %d", capacity, localCapacity));
+        }
+        final int stripeCapacity = (capacity + STRIPES - 1) / STRIPES;
+        mStripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; ++i)
+        {
+            mStripes[i] = new Stripe(stripeCapacity, mEvictions);
+        }
+        final int size = Integer.highestOneBit(localCapacity - 1) << 1;
+        mLocalCache = ThreadLocal.withInitial(() -> new LocalCache(Math.max(size, 1)));
+    }
+
+
+    /**
+     * Returns the parsed {@link Uri} of the given encoded URI reference.
+     *
+     * @throws IllegalArgumentException
+     *         if the given {@link CharSequence} is not a valid URI reference.
+     */
+    public Uri parsed(CharSequence uri)
+    {
+        final String key = uri.toString();
+        final int hash = spread(key.hashCode());
+
+        final LocalCache localCache = mLocalCache.get();
+        Uri result = localCache.get(key, hash);
+        if (result != null)
+        {
+            mHits.increment();
+            return result;
+        }
+
+        final Stripe stripe = mStripes[hash & (STRIPES - 1)];
+        synchronized (stripe)
+        {
+            result = stripe.get(key);
+        }
+        if (result != null)
+        {
+            mHits.increment();
+        }
+        else
+        {
+            mMisses.increment();
+            // parse outside of the lock, in the worst case multiple threads parse the same URI at the same time
+            result = new IndexedUri(new Precoded(key));
+            synchronized (stripe)
+            {
+                stripe.put(key, result);
+            }
+        }
+        localCache.put(key, hash, result);
+        return result;
+    }
+
+
+    /**
+     * Returns the number of calls to {@link #parsed(CharSequence)} that have been served from the cache.
+     */
+    public long hits()
+    {
+        return mHits.sum();
+    }
+
+
+    /**
+     * Returns the number of calls to {@link #parsed(CharSequence)} that had to parse the URI.
+     */
+    public long misses()
+    {
+        return mMisses.sum();
+    }
+
+
+    /**
+     * Returns the number of {@link Uri}s that have been evicted from the shared cache.
+     */
+    public long evictions()
+    {
+        return mEvictions.sum();
+    }
+
+
+    private static int spread(int hash)
+    {
+        // the lower bits select the stripe and the local slot, so mix in the higher bits
+        return hash ^ (hash >>> 16);
+    }
+
+
+    /**
+     * A stripe of the shared cache. An access ordered {@link LinkedHashMap} that removes its least recently used entry when it exceeds its capacity. Not
+     * thread-safe, callers synchronize on the stripe.
+     */
+    private final static class Stripe
+    {
+        private final LinkedHashMap<String, Uri> mEntries = new LinkedHashMap<>(16, 0.75f, true);
+        private final int mCapacity;
+        private final LongAdder mEvictions;
+
+
+        private Stripe(int capacity, LongAdder evictions)
+        {
+            mCapacity = capacity;
+            mEvictions = evictions;
+        }
+
+
+        Uri get(String key)
+        {
+            return mEntries.get(key);
+        }
+
+
+        void put(String key, Uri value)
+        {
+            mEntries.put(key, value);
+            if (mEntries.size() > mCapacity)
+            {
+                // the first entry is the least recently used one
+                final Iterator<String> keys = mEntries.keySet().iterator();
+                keys.next();
+                keys.remove();
+                mEvictions.increment();
+            }
+        }
+    }
+
+
+    /**
+     * The cache of a single thread. A direct mapped table, each key replaces any previous key in the same slot.
+     */
+    private final static class LocalCache
+    {
+        private final String[] mKeys;
+        private final Uri[] mValues;
+
+
+        private LocalCache(int size)
+        {
+            mKeys = new String[size];
+            mValues = new Uri[size];
+        }
+
+
+        Uri get(String key, int hash)
+        {
+            final int slot = (hash >>> 4) & (mKeys.length - 1);
+            return key.equals(mKeys[slot]) ? mValues[slot] : null;
+        }
+
+
+        void put(String key, int hash, Uri value)
+        {
+            final int slot = (hash >>> 4) & (mKeys.length - 1);
+            mKeys[slot] = key;
+            mValues[slot] = value;
+        }
+    }
+}
@@ -19,7 +19,8 @@ package org.dmfs.rfc3986.paths;
 import org.dmfs.jems2.iterator.Mapped;
 import org.dmfs.rfc3986.Path;
 import org.dmfs.rfc3986.UriEncoded;
-import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.pools.ComponentPool;
+import org.dmfs.rfc3986.pools.Unpooled;
 import org.dmfs.rfc3986.utils.Split;
 
 import java.util.Iterator;
@@ -31,11 +32,22 @@ import java.util.Iterator;
 public final class EncodedPath implements Path
 {
     private final CharSequence mPath;
+    private final ComponentPool mPool;
 
 
     public EncodedPath(UriEncoded path)
+    {
+        this(path, Unpooled.INSTANCE);
+    }
+
+
+    /**
+     * A {@link Path} that takes its segments from the given {@link ComponentPool}.
+     */
+    public EncodedPath(UriEncoded path, ComponentPool pool)
     {
         mPath = path;
+        mPool = pool;
     }
 
 
@@ -60,6 +72,6 @@ public final class EncodedPath implements Path
         {
             return org.dmfs.jems2.iterator.EmptyIterator.emptyIterator();
         }
-        return new Mapped<>(Precoded::new, new Split(mPath, '/'));
+        return new Mapped<>(mPool::pooled, new Split(mPath, '/'));
     }
 }
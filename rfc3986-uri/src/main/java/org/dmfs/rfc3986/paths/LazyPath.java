@@ -18,11 +18,13 @@ package org.dmfs.rfc3986.paths;
 
 import org.dmfs.rfc3986.Path;
 import org.dmfs.rfc3986.UriEncoded;
+import org.dmfs.rfc3986.pools.ComponentPool;
+import org.dmfs.rfc3986.pools.Unpooled;
 import org.dmfs.rfc3986.utils.Parsed;
 
 import java.util.Iterator;
 
-import static org.dmfs.rfc3986.validation.CharSets.PCHAR;
+import static org.dmfs.rfc3986.validation.CharSets.PATH_CHAR;
 
 
 /**
@@ -31,13 +33,22 @@ import static org.dmfs.rfc3986.validation.CharSets.PCHAR;
 public final class LazyPath implements Path, Parsed
 {
     private final UriEncoded mUriEncoded;
-    private Path mDelegate;
+    private final ComponentPool mPool;
+    // publishes mEnd
+    private volatile Path mDelegate;
     private int mEnd;
 
 
     public LazyPath(UriEncoded uri)
+    {
+        this(uri, Unpooled.INSTANCE);
+    }
+
+
+    public LazyPath(UriEncoded uri, ComponentPool pool)
     {
         mUriEncoded = uri;
+        mPool = pool;
     }
 
 
@@ -64,11 +75,13 @@ public final class LazyPath implements Path, Parsed
 
     private Path path()
     {
-        if (mDelegate == null)
+        Path result = mDelegate;
+        if (result == null)
         {
-            mDelegate = parsedPath();
+            result = parsedPath();
+            mDelegate = result;
         }
-        return mDelegate;
+        return result;
     }
 
 
@@ -81,12 +94,9 @@ public final class LazyPath implements Path, Parsed
         {
             return EmptyPath.INSTANCE;
         }
-        while (i < count && (PCHAR.contains(uriEncoded.charAt(i)) || uriEncoded.charAt(i) == '/'))
-        {
-            ++i;
-        }
+        i = PATH_CHAR.endOfRun(uriEncoded, i, count);
         mEnd = i;
-        return new EncodedPath(uriEncoded.subSequence(0, i));
+        return new EncodedPath(uriEncoded.subSequence(0, i), mPool);
     }
 
 
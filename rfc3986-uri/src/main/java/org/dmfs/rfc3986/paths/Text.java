@@ -38,7 +38,8 @@ public final class Text implements CharSequence
     @Override
     public int length()
     {
-        if (mPath == null)
+        final String cached = mPath;
+        if (cached == null)
         {
             // we don't have a cached copy of the path, so just sum the length of all segments
             int len = 0;
@@ -48,7 +49,7 @@ public final class Text implements CharSequence
             }
             return len == 0 ? 0 : len - 1;
         }
-        return mPath.length();
+        return cached.length();
     }
 
 
@@ -69,7 +70,8 @@ public final class Text implements CharSequence
     @Override
     public String toString()
     {
-        if (mPath == null)
+        String result = mPath;
+        if (result == null)
         {
             StringBuilder stringBuilder = new StringBuilder(256);
             boolean first = true;
@@ -85,8 +87,9 @@ public final class Text implements CharSequence
                 }
                 stringBuilder.append(segment);
             }
-            mPath = stringBuilder.toString();
+            result = stringBuilder.toString();
+            mPath = result;
         }
-        return mPath;
+        return result;
     }
 }
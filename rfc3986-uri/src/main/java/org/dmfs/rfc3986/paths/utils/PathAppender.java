@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.paths.utils;
+
+import static org.dmfs.rfc3986.paths.utils.SegmentStack.PARENT;
+import static org.dmfs.rfc3986.paths.utils.SegmentStack.SEGMENT;
+
+
+/**
+ * Appends encoded paths to an absolute directory path in a {@link StringBuilder}, removing dot-segments on the fly.
+ * <p>
+ * This is the char-level equivalent of a {@link SegmentStack} of an absolute path, i.e. the result is the same as the text of a {@link SegmentStack} of the
+ * concatenated segments, but there is no intermediate object per segment. The {@link StringBuilder} itself serves as the stack.
+ */
+public final class PathAppender
+{
+    public final static PathAppender INSTANCE = new PathAppender();
+
+
+    /**
+     * Appends the segments of the path between the given positions to the given absolute directory path.
+     *
+     * @param target
+     *         A {@link StringBuilder} that ends with an absolute path without dot-segments, which is terminated by a {@code "/"}. Any chars before {@code
+     *         pathStart} are not touched.
+     * @param pathStart
+     *         The position of the absolute path in {@code target}.
+     * @param path
+     *         The {@link CharSequence} containing the encoded path to append. A leading {@code "/"} is ignored.
+     * @param start
+     *         The start of the path to append.
+     * @param end
+     *         The end of the path to append.
+     */
+    public void append(StringBuilder target, int pathStart, CharSequence path, int start, int end)
+    {
+        int segmentStart = start < end && path.charAt(start) == '/' ? start + 1 : start;
+        while (segmentStart <= end)
+        {
+            int segmentEnd = segmentStart;
+            while (segmentEnd < end && path.charAt(segmentEnd) != '/')
+            {
+                ++segmentEnd;
+            }
+            switch (SegmentStack.type(path, segmentStart, segmentEnd))
+            {
+                case SEGMENT:
+                    target.append(path, segmentStart, segmentEnd);
+                    if (segmentEnd < end)
+                    {
+                        target.append('/');
+                    }
+                    break;
+                case PARENT:
+                    // remove the last segment, if any, the target ends with a "/" at this point
+                    final int length = target.length();
+                    if (length - pathStart > 1)
+                    {
+                        int i = length - 2;
+                        while (target.charAt(i) != '/')
+                        {
+                            --i;
+                        }
+                        target.setLength(i + 1);
+                    }
+                    break;
+                default:
+                    // empty segments and "." are dropped, the target ends with a "/" already
+            }
+            segmentStart = segmentEnd + 1;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.paths.utils;
+
+import java.util.Arrays;
+
+import static org.dmfs.rfc3986.paths.utils.SegmentStack.*;
+
+
+/**
+ * The boundaries of the segments of an encoded path with all dot-segments removed. This is the index based counterpart of {@link SegmentStack} for callers
+ * that work on the raw characters of a URI, the resulting segments are the same.
+ * <p>
+ * Instances are mutable and meant to be reused, each call to {@link #scan(CharSequence, int, int)} replaces the previous result. A segment with a
+ * {@link #start(int)} of {@code -1} is a {@code "."} segment that has been inserted and doesn't exist in the source.
+ */
+public final class SegmentRanges
+{
+    private int[] mBounds = new int[16];
+    private int mSize;
+
+
+    /**
+     * Removes the dot-segments of the path between the given positions of the given {@link CharSequence}.
+     */
+    public void scan(CharSequence source, int start, int end)
+    {
+        // the first slot is reserved for the empty segment of an absolute path
+        int size = 1;
+        mSize = 0;
+        if (start == end)
+        {
+            return;
+        }
+        boolean first = true;
+        int backSteps = 0;
+        boolean isAbsolute = false;
+        boolean endWithEmptySegment = false;
+        boolean singleDot = false;
+        int segmentStart = start;
+        while (segmentStart <= end)
+        {
+            int segmentEnd = segmentStart;
+            while (segmentEnd < end && source.charAt(segmentEnd) != '/')
+            {
+                ++segmentEnd;
+            }
+            switch (type(source, segmentStart, segmentEnd))
+            {
+                case EMPTY:
+                    if (first)
+                    {
+                        isAbsolute = true;
+                    }
+                    else
+                    {
+                        endWithEmptySegment = true;
+                    }
+                    break;
+                case CURRENT:
+                    if (size == 1 && !isAbsolute)
+                    {
+                        singleDot = true;
+                    }
+                    else
+                    {
+                        endWithEmptySegment = true;
+                    }
+                    break;
+                case PARENT:
+                    if (backSteps > 0)
+                    {
+                        size -= 1;
+                        backSteps -= 1;
+                    }
+                    else if (!isAbsolute)
+                    {
+                        push(size++, segmentStart, segmentEnd);
+                    }
+                    endWithEmptySegment = true;
+                    singleDot = size == 1 && !isAbsolute;
+                    break;
+                default:
+                    push(size++, segmentStart, segmentEnd);
+                    backSteps += 1;
+                    endWithEmptySegment = false;
+                    singleDot = false;
+            }
+            first = false;
+            segmentStart = segmentEnd + 1;
+        }
+        if (singleDot)
+        {
+            push(size++, -1, -1);
+            push(size++, 0, 0);
+        }
+        else if (endWithEmptySegment)
+        {
+            push(size++, 0, 0);
+        }
+        if (isAbsolute)
+        {
+            push(0, 0, 0);
+            mSize = size;
+        }
+        else if (size > 1)
+        {
+            // drop the reserved slot
+            System.arraycopy(mBounds, 2, mBounds, 0, (size - 1) * 2);
+            mSize = size - 1;
+        }
+    }
+
+
+    /**
+     * Returns the number of segments.
+     */
+    public int count()
+    {
+        return mSize;
+    }
+
+
+    /**
+     * Returns the start of the segment at the given index or {@code -1} if it's an inserted {@code "."} segment.
+     */
+    public int start(int index)
+    {
+        return mBounds[index * 2];
+    }
+
+
+    /**
+     * Returns the end (exclusive) of the segment at the given index or {@code -1} if it's an inserted {@code "."} segment.
+     */
+    public int end(int index)
+    {
+        return mBounds[index * 2 + 1];
+    }
+
+
+    private void push(int position, int start, int end)
+    {
+        if (position * 2 + 1 >= mBounds.length)
+        {
+            mBounds = Arrays.copyOf(mBounds, mBounds.length * 2);
+        }
+        mBounds[position * 2] = start;
+        mBounds[position * 2 + 1] = end;
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.paths.utils;
+
+import org.dmfs.jems2.iterator.BaseIterator;
+import org.dmfs.rfc3986.Path;
+import org.dmfs.rfc3986.UriEncoded;
+import org.dmfs.rfc3986.encoding.IdempotentEncoded;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+
+/**
+ * The segments of a path with all dot-segments removed, as specified in <a href="https://tools.ietf.org/html/rfc3986#section-5.2.4">RFC 3986, section
+ * 5.2.4</a>.
+ * <p>
+ * The segments are processed eagerly, when this is created, using a plain array as the stack of the output segments. The segments themselves are not copied.
+ * <p>
+ * Dot-segments are recognized in their encoded forms as well, i.e. {@code %2E} and {@code %2E%2E} are treated like {@code .} and {@code ..}.
+ */
+public final class SegmentStack implements Path
+{
+    private final static UriEncoded[] NO_SEGMENTS = new UriEncoded[0];
+
+    final static int SEGMENT = 0;
+    final static int EMPTY = 1;
+    final static int CURRENT = 2;
+    final static int PARENT = 3;
+
+    private final UriEncoded[] mSegments;
+    private final int mSize;
+
+
+    /**
+     * Removes the dot-segments of the given segments.
+     *
+     * @param segments
+     *         The segments of a path.
+     * @param normalizeSegments
+     *         Whether to {@link UriEncoded#normalized() normalize} the segments.
+     */
+    public SegmentStack(Iterator<UriEncoded> segments, boolean normalizeSegments)
+    {
+        // the first slot is reserved for the empty segment of an absolute path
+        UriEncoded[] stack = NO_SEGMENTS;
+        int size = 1;
+        boolean first = true;
+        int backSteps = 0;
+        boolean isAbsolute = false;
+        boolean endWithEmptySegment = false;
+        boolean singleDot = false;
+        while (segments.hasNext())
+        {
+            final UriEncoded segment = normalizeSegments ? segments.next().normalized() : segments.next();
+
+            switch (type(segment, 0, segment.length()))
+            {
+                case EMPTY:
+                    if (first)
+                    {
+                        // this is an absolute Path, it starts with a "/"
+                        isAbsolute = true;
+                    }
+                    else
+                    {
+                        // an empty segment has been added, which means we add an empty segment if this is the last segment
+                        endWithEmptySegment = true;
+                    }
+                    break;
+                case CURRENT:
+                    // insert a dot if the path is empty and relative (not absolute), otherwise just append a "/"
+                    if (size == 1 && !isAbsolute)
+                    {
+                        singleDot = true;
+                    }
+                    else
+                    {
+                        endWithEmptySegment = true;
+                    }
+                    break;
+                case PARENT:
+                    // go back in the hierarchy
+                    if (backSteps > 0)
+                    {
+                        // we have segments that we can remove
+                        size -= 1;
+                        backSteps -= 1;
+                    }
+                    else if (!isAbsolute)
+                    {
+                        // no segments to remove
+                        stack = pushed(stack, size++, segment);
+                    }
+                    // when going back in the hierarchy we always append a "/"
+                    endWithEmptySegment = true;
+                    // also we only append a "." if no other segment is left
+                    singleDot = size == 1 && !isAbsolute;
+                    break;
+                default:
+                    stack = pushed(stack, size++, segment);
+                    backSteps += 1;
+                    endWithEmptySegment = false;
+                    singleDot = false;
+            }
+            first = false;
+        }
+        if (singleDot)
+        {
+            stack = pushed(stack, size++, IdempotentEncoded.CURRENT);
+            stack = pushed(stack, size++, IdempotentEncoded.EMPTY);
+        }
+        else if (endWithEmptySegment)
+        {
+            // Note, the last segment can't be empty at this point, so we don't need to check for double slashes
+            stack = pushed(stack, size++, IdempotentEncoded.EMPTY);
+        }
+        if (isAbsolute)
+        {
+            stack = pushed(stack, 0, IdempotentEncoded.EMPTY);
+            mSegments = stack;
+            mSize = size;
+        }
+        else if (size == 1)
+        {
+            mSegments = NO_SEGMENTS;
+            mSize = 0;
+        }
+        else
+        {
+            // drop the reserved slot
+            mSegments = Arrays.copyOfRange(stack, 1, size);
+            mSize = size - 1;
+        }
+    }
+
+
+    @Override
+    public boolean isEmpty()
+    {
+        return mSize == 0;
+    }
+
+
+    @Override
+    public boolean isAbsolute()
+    {
+        return mSize > 0 && mSegments[0].length() == 0;
+    }
+
+
+    /**
+     * Returns whether the last segment is a directory, i.e. an empty segment or a dot-segment. This is also true for empty paths.
+     */
+    public boolean endsWithDirectory()
+    {
+        return mSize == 0 || type(mSegments[mSize - 1], 0, mSegments[mSize - 1].length()) != SEGMENT;
+    }
+
+
+    @Override
+    public Iterator<UriEncoded> iterator()
+    {
+        return iterator(mSize);
+    }
+
+
+    /**
+     * Returns an {@link Iterator} of the segments of this path without the last one, unless it's a directory (see {@link #endsWithDirectory()}). That's the
+     * base path against which relative references are resolved.
+     */
+    public Iterator<UriEncoded> directoryIterator()
+    {
+        return iterator(endsWithDirectory() ? mSize : mSize - 1);
+    }
+
+
+    /**
+     * Returns the encoded path.
+     */
+    @Override
+    public String toString()
+    {
+        int length = mSize == 0 ? 0 : mSize - 1;
+        for (int i = 0; i < mSize; ++i)
+        {
+            length += mSegments[i].length();
+        }
+        StringBuilder result = new StringBuilder(length);
+        for (int i = 0; i < mSize; ++i)
+        {
+            if (i > 0)
+            {
+                result.append('/');
+            }
+            result.append(mSegments[i]);
+        }
+        return result.toString();
+    }
+
+
+    private Iterator<UriEncoded> iterator(final int end)
+    {
+        final UriEncoded[] segments = mSegments;
+        return new BaseIterator<UriEncoded>()
+        {
+            private int mNext;
+
+
+            @Override
+            public boolean hasNext()
+            {
+                return mNext < end;
+            }
+
+
+            @Override
+            public UriEncoded next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException("No more segments to iterate.");
+                }
+                return segments[mNext++];
+            }
+        };
+    }
+
+
+    private static UriEncoded[] pushed(UriEncoded[] stack, int position, UriEncoded segment)
+    {
+        UriEncoded[] result = stack;
+        if (position >= result.length)
+        {
+            result = Arrays.copyOf(result, Math.max(8, result.length * 2));
+        }
+        result[position] = segment;
+        return result;
+    }
+
+
+    /**
+     * Returns the type of the segment between the given positions, taking encoded dots into account.
+     */
+    static int type(CharSequence segment, int start, int end)
+    {
+        final int length = end - start;
+        if (length == 0)
+        {
+            return EMPTY;
+        }
+        if (length > 6)
+        {
+            return SEGMENT;
+        }
+        int i = start;
+        int dots = 0;
+        while (i < end)
+        {
+            if (segment.charAt(i) == '.')
+            {
+                i += 1;
+            }
+            else if (i + 2 < end && segment.charAt(i) == '%' && segment.charAt(i + 1) == '2' && (segment.charAt(i + 2) | 0x20) == 'e')
+            {
+                i += 3;
+            }
+            else
+            {
+                return SEGMENT;
+            }
+            dots += 1;
+        }
+        return dots == 1 ? CURRENT : dots == 2 ? PARENT : SEGMENT;
+    }
+}
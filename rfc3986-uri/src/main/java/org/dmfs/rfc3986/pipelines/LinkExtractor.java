@@ -0,0 +1,318 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.pipelines;
+
+import org.dmfs.rfc3986.Uri;
+import org.dmfs.rfc3986.encoding.Normalized;
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.resolvers.BaseResolver;
+import org.dmfs.rfc3986.uris.CompactUri;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Turns the raw {@code href} values of a document into a list of unique absolute {@link Uri}s.
+ * <p>
+ * Each {@code href} is
+ * <ol>
+ * <li>stripped of leading and trailing whitespace, validated and resolved against the base {@link Uri} (like {@link org.dmfs.rfc3986.uris.Resolved}),</li>
+ * <li>normalized (like {@link org.dmfs.rfc3986.uris.Normalized}) and</li>
+ * <li>deduplicated.</li>
+ * </ol>
+ * Invalid values and values that don't result in an absolute {@link Uri} are dropped. The result contains the first occurrence of each {@link Uri}, in the
+ * order of the input.
+ * <p>
+ * The input is split into batches, which are processed in parallel in a {@link ForkJoinPool}. The base is taken apart only once (see
+ * {@link BaseResolver}). An instance can be used for any number of inputs and by multiple threads at the same time. It counts the processed values and the
+ * time spent in each stage, see {@link #statistics()}.
+ */
+public final class LinkExtractor
+{
+    private final static int DEFAULT_BATCH_SIZE = 256;
+
+    private final BaseResolver mResolver;
+    private final ForkJoinPool mPool;
+    private final int mBatchSize;
+
+    private final LongAdder mHrefs = new LongAdder();
+    private final LongAdder mInvalid = new LongAdder();
+    private final LongAdder mRelative = new LongAdder();
+    private final LongAdder mDuplicates = new LongAdder();
+    private final LongAdder mEmitted = new LongAdder();
+    private final LongAdder mResolveNanos = new LongAdder();
+    private final LongAdder mNormalizeNanos = new LongAdder();
+    private final LongAdder mDedupeNanos = new LongAdder();
+
+
+    /**
+     * A {@link LinkExtractor} that uses the common {@link ForkJoinPool}.
+     */
+    public LinkExtractor(Uri base)
+    {
+        this(base, ForkJoinPool.commonPool(), DEFAULT_BATCH_SIZE);
+    }
+
+
+    /**
+     * A {@link LinkExtractor} that processes batches of the given size in the given {@link ForkJoinPool}.
+     */
+    public LinkExtractor(Uri base, ForkJoinPool pool, int batchSize)
+    {
+        if (batchSize < 1)
+        {
+            throw new IllegalArgumentException(String.format("Batch size must be positive, but was %d", batchSize));
+        }
+        mResolver = new BaseResolver(base);
+        mPool = pool;
+        mBatchSize = batchSize;
+    }
+
+
+    /**
+     * Returns the unique absolute {@link Uri}s of the given {@code href} values.
+     */
+    public List<Uri> links(Iterable<? extends CharSequence> hrefs)
+    {
+        final List<ForkJoinTask<Map<String, Uri>>> tasks = new ArrayList<>();
+        List<CharSequence> batch = new ArrayList<>(mBatchSize);
+        for (CharSequence href : hrefs)
+        {
+            batch.add(href);
+            if (batch.size() == mBatchSize)
+            {
+                tasks.add(mPool.submit(task(batch)));
+                batch = new ArrayList<>(mBatchSize);
+            }
+        }
+        if (!batch.isEmpty())
+        {
+            tasks.add(mPool.submit(task(batch)));
+        }
+
+        final List<Uri> result = new ArrayList<>();
+        final Set<String> seen = new HashSet<>();
+        for (ForkJoinTask<Map<String, Uri>> task : tasks)
+        {
+            // join in order of submission, so the result has the order of the input
+            final Map<String, Uri> batchResult = task.join();
+            final long start = System.nanoTime();
+            for (Map.Entry<String, Uri> entry : batchResult.entrySet())
+            {
+                if (seen.add(entry.getKey()))
+                {
+                    result.add(entry.getValue());
+                }
+                else
+                {
+                    mDuplicates.increment();
+                }
+            }
+            mDedupeNanos.add(System.nanoTime() - start);
+        }
+        mEmitted.add(result.size());
+        return result;
+    }
+
+
+    /**
+     * Returns the number of {@code href} values processed so far.
+     */
+    public long hrefs()
+    {
+        return mHrefs.sum();
+    }
+
+
+    /**
+     * Returns the number of {@code href} values that have been dropped because they were invalid.
+     */
+    public long invalid()
+    {
+        return mInvalid.sum();
+    }
+
+
+    /**
+     * Returns the number of {@code href} values that have been dropped because they didn't resolve to an absolute {@link Uri}.
+     */
+    public long relative()
+    {
+        return mRelative.sum();
+    }
+
+
+    /**
+     * Returns the number of {@code href} values that have been dropped because they were duplicates.
+     */
+    public long duplicates()
+    {
+        return mDuplicates.sum();
+    }
+
+
+    /**
+     * Returns the number of {@link Uri}s returned so far.
+     */
+    public long emitted()
+    {
+        return mEmitted.sum();
+    }
+
+
+    /**
+     * Returns a summary of the number of values each stage has processed, the time spent in each stage (summed over all threads) and the resulting throughput.
+     */
+    public String statistics()
+    {
+        final long hrefs = mHrefs.sum();
+        final long resolved = hrefs - mInvalid.sum();
+        final long normalized = resolved - mRelative.sum();
+        return String.format("resolve: %s, normalize: %s, dedupe: %s, emitted: %d",
+            stage(hrefs, mResolveNanos.sum()), stage(resolved, mNormalizeNanos.sum()), stage(normalized, mDedupeNanos.sum()), mEmitted.sum());
+    }
+
+
+    private static String stage(long count, long nanos)
+    {
+        return String.format("%d in %.3f ms (%.0f/s)", count, nanos / 1e6, nanos == 0 ? 0.0 : count * 1e9 / nanos);
+    }
+
+
+    /**
+     * Returns a task that processes the given batch and returns the resulting {@link Uri}s by their text, without duplicates and in the order of the input.
+     */
+    private ForkJoinTask<Map<String, Uri>> task(List<CharSequence> batch)
+    {
+        return ForkJoinTask.adapt(() ->
+        {
+            final Map<String, Uri> result = new LinkedHashMap<>(batch.size() * 2);
+            long resolveNanos = 0;
+            long normalizeNanos = 0;
+            long dedupeNanos = 0;
+            for (CharSequence href : batch)
+            {
+                long start = System.nanoTime();
+                final String resolved = resolved(href);
+                long end = System.nanoTime();
+                resolveNanos += end - start;
+                if (resolved == null)
+                {
+                    continue;
+                }
+
+                start = end;
+                final String normalized = normalized(resolved);
+                end = System.nanoTime();
+                normalizeNanos += end - start;
+                if (normalized == null)
+                {
+                    continue;
+                }
+
+                start = end;
+                if (!result.containsKey(normalized))
+                {
+                    result.put(normalized, new CompactUri(new Precoded(normalized)));
+                }
+                else
+                {
+                    mDuplicates.increment();
+                }
+                dedupeNanos += System.nanoTime() - start;
+            }
+            mHrefs.add(batch.size());
+            mResolveNanos.add(resolveNanos);
+            mNormalizeNanos.add(normalizeNanos);
+            mDedupeNanos.add(dedupeNanos);
+            return result;
+        });
+    }
+
+
+    /**
+     * Returns the given href, stripped of whitespace and resolved against the base, or {@code null} if it's invalid.
+     */
+    private String resolved(CharSequence href)
+    {
+        int start = 0;
+        int end = href.length();
+        while (start < end && href.charAt(start) <= ' ')
+        {
+            ++start;
+        }
+        while (end > start && href.charAt(end - 1) <= ' ')
+        {
+            --end;
+        }
+        try
+        {
+            return mResolver.resolved(href.subSequence(start, end));
+        }
+        catch (IllegalArgumentException e)
+        {
+            mInvalid.increment();
+            return null;
+        }
+    }
+
+
+    /**
+     * Returns the normalized version of the given resolved URI or {@code null} if it's not absolute or can't be normalized.
+     */
+    private String normalized(String resolved)
+    {
+        final int colon = resolved.indexOf(':');
+        final int slash = resolved.indexOf('/');
+        final int question = resolved.indexOf('?');
+        final int hash = resolved.indexOf('#');
+        if (colon < 0 || slash >= 0 && slash < colon || question >= 0 && question < colon || hash >= 0 && hash < colon)
+        {
+            // no scheme
+            mRelative.increment();
+            return null;
+        }
+        // the path, the query and the fragment are normalized, the scheme and the authority are left alone, just like uris.Normalized does
+        int tailStart = colon + 1;
+        if (resolved.startsWith("//", tailStart))
+        {
+            tailStart += 2;
+            while (tailStart < resolved.length() && "/?#".indexOf(resolved.charAt(tailStart)) < 0)
+            {
+                ++tailStart;
+            }
+        }
+        try
+        {
+            final String tail = new Normalized(new Precoded(resolved.substring(tailStart))).toString();
+            return tailStart == 0 ? tail : resolved.substring(0, tailStart).concat(tail);
+        }
+        catch (IllegalArgumentException e)
+        {
+            mInvalid.increment();
+            return null;
+        }
+    }
+}
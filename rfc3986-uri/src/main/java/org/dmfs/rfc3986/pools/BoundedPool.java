@@ -0,0 +1,139 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.pools;
+
+import org.dmfs.rfc3986.UriEncoded;
+import org.dmfs.rfc3986.encoding.Precoded;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+
+/**
+ * A size-limited {@link ComponentPool} that can be shared among threads.
+ * <p>
+ * Each distinct component is stored as a {@link Precoded} copy of its text, so a pooled component doesn't retain the URI it has been parsed from. The pool is
+ * split into a number of independently locked stripes (like the cache of {@link org.dmfs.rfc3986.parsers.CachingUriParser}), each of which drops its least
+ * recently used component when it's full, so frequently used components stay in the pool. Components that have been returned before stay valid, they're just
+ * no longer shared with later callers.
+ * <p>
+ * Pooling pays off for components that occur over and over again, like hosts, schemes, parameter names and common path segments. Pooling unique components
+ * (like session ids) only adds overhead, so the capacity should be chosen to hold the frequent components of a data set.
+ */
+public final class BoundedPool implements ComponentPool
+{
+    private final static int MAX_STRIPES = 16;
+
+    private final Stripe[] mStripes;
+
+
+    /**
+     * A {@link BoundedPool} that holds at most the given number of components.
+     */
+    public BoundedPool(int capacity)
+    {
+        if (capacity < 1)
+        {
+            throw new IllegalArgumentException(String.format("Capacity must be positive, but was %d", capacity));
+        }
+        // a power of two, so each stripe gets at least one slot and the stripes don't exceed the capacity in total
+        final int stripes = Integer.highestOneBit(Math.min(MAX_STRIPES, capacity));
+        mStripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; ++i)
+        {
+            mStripes[i] = new Stripe(capacity / stripes);
+        }
+    }
+
+
+    @Override
+    public UriEncoded pooled(CharSequence encoded)
+    {
+        final String key = encoded.toString();
+        final int hash = key.hashCode();
+        final Stripe stripe = mStripes[(hash ^ (hash >>> 16)) & (mStripes.length - 1)];
+        synchronized (stripe)
+        {
+            UriEncoded result = stripe.get(key);
+            if (result == null)
+            {
+                result = new Precoded(key);
+                stripe.put(key, result);
+            }
+            return result;
+        }
+    }
+
+
+    /**
+     * Returns the number of components in this pool.
+     */
+    public int size()
+    {
+        int result = 0;
+        for (Stripe stripe : mStripes)
+        {
+            synchronized (stripe)
+            {
+                result += stripe.size();
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * A stripe of the pool. An access ordered {@link LinkedHashMap} that removes its least recently used entry when it exceeds its capacity. Not
+     * thread-safe, callers synchronize on the stripe.
+     */
+    private final static class Stripe
+    {
+        private final LinkedHashMap<String, UriEncoded> mEntries = new LinkedHashMap<>(16, 0.75f, true);
+        private final int mCapacity;
+
+
+        private Stripe(int capacity)
+        {
+            mCapacity = capacity;
+        }
+
+
+        UriEncoded get(String key)
+        {
+            return mEntries.get(key);
+        }
+
+
+        void put(String key, UriEncoded value)
+        {
+            mEntries.put(key, value);
+            if (mEntries.size() > mCapacity)
+            {
+                // the first entry is the least recently used one
+                final Iterator<String> keys = mEntries.keySet().iterator();
+                keys.next();
+                keys.remove();
+            }
+        }
+
+
+        int size()
+        {
+            return mEntries.size();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.pools;
+
+import org.dmfs.rfc3986.UriEncoded;
+
+
+/**
+ * A pool of canonical URI components.
+ * <p>
+ * Many URIs share the same components, like hosts, path segments and parameter names. A {@link ComponentPool} returns a single, compact instance for equal
+ * components, so the parsed URIs don't retain a separate copy (or a view on the entire URI) for each of them.
+ * <p>
+ * Note, components are pooled by their encoded text, not by their normalized value, so {@code "a"} and {@code "%61"} are different components.
+ */
+public interface ComponentPool
+{
+    /**
+     * Returns a {@link UriEncoded} with the same text as the given encoded {@link CharSequence}.
+     *
+     * @param encoded
+     *         A properly encoded {@link CharSequence}.
+     *
+     * @return A {@link UriEncoded} with the same text, possibly an instance shared with other callers.
+     */
+    UriEncoded pooled(CharSequence encoded);
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.pools;
+
+import org.dmfs.rfc3986.UriEncoded;
+import org.dmfs.rfc3986.encoding.Precoded;
+
+
+/**
+ * A {@link ComponentPool} that doesn't pool anything. It returns the given components as they are.
+ */
+public final class Unpooled implements ComponentPool
+{
+    public final static Unpooled INSTANCE = new Unpooled();
+
+
+    private Unpooled()
+    {
+    }
+
+
+    @Override
+    public UriEncoded pooled(CharSequence encoded)
+    {
+        return encoded instanceof UriEncoded ? (UriEncoded) encoded : new Precoded(encoded);
+    }
+}
@@ -34,7 +34,8 @@ import static org.dmfs.rfc3986.validation.CharSets.QUERY_CHAR;
 public final class OptionalLazyQuery implements Optional<Query>, Parsed
 {
     private final UriEncoded mUriEncoded;
-    private Optional<Query> mDelegate;
+    // publishes mEnd
+    private volatile Optional<Query> mDelegate;
     private int mEnd;
 
 
@@ -66,11 +67,13 @@ public final class OptionalLazyQuery implements Optional<Query>, Parsed
 
     private Optional<Query> query()
     {
-        if (mDelegate == null)
+        Optional<Query> result = mDelegate;
+        if (result == null)
         {
-            mDelegate = parsedQuery();
+            result = parsedQuery();
+            mDelegate = result;
         }
-        return mDelegate;
+        return result;
     }
 
 
@@ -85,11 +88,7 @@ public final class OptionalLazyQuery implements Optional<Query>, Parsed
             return absent();
         }
 
-        int i = 1;
-        while (i < count && QUERY_CHAR.contains(encoded.charAt(i)))
-        {
-            ++i;
-        }
+        final int i = QUERY_CHAR.endOfRun(encoded, 1, count);
 
         if (i < count && encoded.charAt(i) != '#')
         {
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.resolvers;
+
+import org.dmfs.jems2.Optional;
+import org.dmfs.rfc3986.Authority;
+import org.dmfs.rfc3986.Fragment;
+import org.dmfs.rfc3986.Query;
+import org.dmfs.rfc3986.Scheme;
+import org.dmfs.rfc3986.Uri;
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.paths.EncodedPath;
+import org.dmfs.rfc3986.paths.utils.PathAppender;
+import org.dmfs.rfc3986.paths.utils.SegmentStack;
+import org.dmfs.rfc3986.uris.CompactUri;
+import org.dmfs.rfc3986.utils.UriScanner;
+
+import static org.dmfs.rfc3986.utils.UriScanner.*;
+
+
+/**
+ * Resolves many references against the same base {@link Uri}, following <a href="https://tools.ietf.org/html/rfc3986#section-5.2">RFC 3986, section
+ * 5.2</a>.
+ * <p>
+ * In contrast to {@link org.dmfs.rfc3986.uris.Resolved}, which processes the base {@link Uri} again for each reference, this takes the base apart once, when
+ * it's created, and resolves each reference string right into a {@link String}. That makes it the better choice for resolving all the links of a document.
+ * <p>
+ * Dot-segments are removed the same way as by {@link org.dmfs.rfc3986.paths.Resolved}. In deviation from the latter, a relative path reference is merged
+ * with the path {@code "/"} if the base has an authority but an empty path, as required by section 5.2.3.
+ * <p>
+ * Instances are immutable and can be shared among threads.
+ */
+public final class BaseResolver
+{
+    private final String mScheme;
+    private final String mAuthority;
+    private final String mPath;
+    private final String mQuery;
+    private final String mFragment;
+    // the directory to merge relative path references with, null if the base path is relative
+    private final String mDirectory;
+    private final SegmentStack mRelativeBasePath;
+
+
+    /**
+     * Creates a {@link BaseResolver} for the given base {@link Uri}.
+     *
+     * @param base
+     *         The base {@link Uri}, usually an absolute {@link Uri}.
+     */
+    public BaseResolver(Uri base)
+    {
+        Optional<? extends Scheme> scheme = base.scheme();
+        mScheme = scheme.isPresent() ? scheme.value().toString() : null;
+        Optional<? extends Authority> authority = base.authority();
+        mAuthority = authority.isPresent() ? new org.dmfs.rfc3986.authorities.Text(authority.value()).toString() : null;
+        Optional<? extends Query> query = base.query();
+        mQuery = query.isPresent() ? query.value().toString() : null;
+        Optional<? extends Fragment> fragment = base.fragment();
+        mFragment = fragment.isPresent() ? fragment.value().toString() : null;
+
+        SegmentStack path = new SegmentStack(base.path().iterator(), false);
+        mPath = path.toString();
+        if (path.isAbsolute() || mAuthority != null && path.isEmpty())
+        {
+            StringBuilder directory = new StringBuilder(mPath.length() + 1);
+            directory.append('/');
+            PathAppender.INSTANCE.append(directory, 0, mPath, 0, mPath.length());
+            directory.setLength(directory.lastIndexOf("/") + 1);
+            mDirectory = directory.toString();
+            mRelativeBasePath = null;
+        }
+        else
+        {
+            mDirectory = null;
+            mRelativeBasePath = path;
+        }
+    }
+
+
+    /**
+     * Creates a {@link BaseResolver} for the given encoded base URI.
+     *
+     * @throws IllegalArgumentException
+     *         if the given {@link CharSequence} is not a valid URI reference.
+     */
+    public BaseResolver(CharSequence base)
+    {
+        this(new CompactUri(new Precoded(base)));
+    }
+
+
+    /**
+     * Returns the given encoded reference, resolved against the base.
+     *
+     * @param reference
+     *         An encoded URI reference.
+     *
+     * @return The encoded target URI.
+     *
+     * @throws IllegalArgumentException
+     *         if the given {@link CharSequence} is not a valid URI reference.
+     */
+    public String resolved(CharSequence reference)
+    {
+        final int[] table = UriScanner.INSTANCE.table(reference);
+        final int schemeEnd = table[SCHEME_END];
+        final int pathStart = table[PATH_START];
+        final int pathEnd = table[PATH_END];
+        final int queryEnd = table[QUERY_END];
+        final int fragmentStart = table[FRAGMENT_START];
+        final int length = reference.length();
+
+        StringBuilder result = new StringBuilder(length + (mDirectory == null ? 32 : mDirectory.length() + 32));
+        if (schemeEnd >= 0 || table[HOST_START] >= 0)
+        {
+            // the reference has a scheme or an authority, take everything from it (except for the scheme, if it doesn't have one)
+            if (schemeEnd < 0 && mScheme != null)
+            {
+                result.append(mScheme).append(':');
+            }
+            result.append(reference, 0, pathStart);
+            appendPath(result, reference, pathStart, pathEnd);
+            result.append(reference, pathEnd, length);
+            return result.toString();
+        }
+
+        if (mScheme != null)
+        {
+            result.append(mScheme).append(':');
+        }
+        if (mAuthority != null)
+        {
+            result.append("//").append(mAuthority);
+        }
+        if (pathStart == pathEnd)
+        {
+            // no path, take path and, unless the reference has one, query from the base
+            result.append(mPath);
+            if (queryEnd < 0 && mQuery != null)
+            {
+                result.append('?').append(mQuery);
+            }
+            result.append(reference, pathEnd, length);
+        }
+        else if (reference.charAt(pathStart) == '/')
+        {
+            appendPath(result, reference, pathStart, pathEnd);
+            result.append(reference, pathEnd, length);
+        }
+        else if (mDirectory != null)
+        {
+            final int resultPathStart = result.length();
+            result.append(mDirectory);
+            PathAppender.INSTANCE.append(result, resultPathStart, reference, pathStart, pathEnd);
+            result.append(reference, pathEnd, length);
+        }
+        else
+        {
+            // the base path is relative, this is a rare case, so we don't optimize it
+            result.append(
+                new SegmentStack(
+                    new org.dmfs.jems2.iterator.Concat<>(
+                        mRelativeBasePath.directoryIterator(),
+                        new EncodedPath(new Precoded(reference.subSequence(pathStart, pathEnd))).iterator()),
+                    false));
+            result.append(reference, pathEnd, length);
+        }
+        return result.toString();
+    }
+
+
+    /**
+     * Returns the given encoded reference, resolved against the base, as a {@link Uri}.
+     *
+     * @param reference
+     *         An encoded URI reference.
+     *
+     * @throws IllegalArgumentException
+     *         if the given {@link CharSequence} is not a valid URI reference.
+     */
+    public Uri resolvedUri(CharSequence reference)
+    {
+        return new CompactUri(new Precoded(resolved(reference)));
+    }
+
+
+    /**
+     * Returns the final target of a chain of redirects, starting at the base. Each location is resolved against the result of the previous one.
+     * <p>
+     * As specified in <a href="https://tools.ietf.org/html/rfc7231#section-7.1.2">RFC 7231, section 7.1.2</a>, a location without a fragment inherits the
+     * fragment of the previous URI (including the base).
+     *
+     * @param locations
+     *         The encoded values of the {@code Location} headers of the redirects, in the order they have been received.
+     *
+     * @return The encoded URI of the final target.
+     *
+     * @throws IllegalArgumentException
+     *         if any of the locations is not a valid URI reference.
+     */
+    public String redirected(Iterable<? extends CharSequence> locations)
+    {
+        BaseResolver resolver = this;
+        String target = resolved("");
+        String fragment = mFragment;
+        for (CharSequence location : locations)
+        {
+            target = resolver.resolved(location);
+            final int hash = target.indexOf('#');
+            if (hash >= 0)
+            {
+                fragment = target.substring(hash + 1);
+                target = target.substring(0, hash);
+            }
+            resolver = new BaseResolver(target);
+        }
+        return fragment == null ? target : target + '#' + fragment;
+    }
+
+
+    private static void appendPath(StringBuilder result, CharSequence reference, int pathStart, int pathEnd)
+    {
+        if (pathStart < pathEnd && reference.charAt(pathStart) == '/')
+        {
+            final int resultPathStart = result.length();
+            result.append('/');
+            PathAppender.INSTANCE.append(result, resultPathStart, reference, pathStart, pathEnd);
+        }
+        else
+        {
+            // relative or empty paths are normalized like paths.Normalized would do
+            result.append(new SegmentStack(new EncodedPath(new Precoded(reference.subSequence(pathStart, pathEnd))).iterator(), false));
+        }
+    }
+
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.routing;
+
+import org.dmfs.rfc3986.UriEncoded;
+import org.dmfs.rfc3986.encoding.Precoded;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+
+/**
+ * The result of a {@link PathRouter} match, i.e. the value of the matching route and the path segments captured by its variables.
+ * <p>
+ * A {@link PathMatch} is meant to be reused for many matches, so matching a path doesn't allocate any memory once the internal arrays have grown to the
+ * number of segments of the longest path. Each match overrides the result of the previous one. Instances must not be shared among threads.
+ * <p>
+ * The captured variables are given as positions within the {@link CharSequence} they have been taken from (see {@link #source(int)}). That's the path
+ * itself when matching a {@link CharSequence} or the respective segment when matching a {@link org.dmfs.rfc3986.Path}. {@link #variable(int)} and
+ * {@link #variable(String)} return a {@link UriEncoded} view of a variable, which is created on demand.
+ */
+public final class PathMatch<V>
+{
+    private CharSequence[] mSources = new CharSequence[8];
+    private int[] mStarts = new int[8];
+    private int[] mEnds = new int[8];
+    private int mSegmentCount;
+
+    // the indexes of the captured segments
+    private int[] mCaptured = new int[8];
+    private int mCapturedCount;
+
+    private String[] mNames;
+    private V mValue;
+
+
+    /**
+     * Returns the value of the matching route.
+     *
+     * @throws NoSuchElementException
+     *         if the last match failed.
+     */
+    public V value()
+    {
+        if (mValue == null)
+        {
+            throw new NoSuchElementException("No route matched.");
+        }
+        return mValue;
+    }
+
+
+    /**
+     * Returns the number of variables of the matching route.
+     */
+    public int variableCount()
+    {
+        return mValue == null ? 0 : mCapturedCount;
+    }
+
+
+    /**
+     * Returns the name of the variable with the given index.
+     */
+    public String name(int index)
+    {
+        return mNames[checkedIndex(index)];
+    }
+
+
+    /**
+     * Returns the {@link CharSequence} that contains the variable with the given index.
+     */
+    public CharSequence source(int index)
+    {
+        return mSources[mCaptured[checkedIndex(index)]];
+    }
+
+
+    /**
+     * Returns the position of the first char of the variable with the given index within its {@link #source(int)}.
+     */
+    public int start(int index)
+    {
+        return mStarts[mCaptured[checkedIndex(index)]];
+    }
+
+
+    /**
+     * Returns the position after the last char of the variable with the given index within its {@link #source(int)}.
+     */
+    public int end(int index)
+    {
+        return mEnds[mCaptured[checkedIndex(index)]];
+    }
+
+
+    /**
+     * Returns the encoded value of the variable with the given index.
+     */
+    public UriEncoded variable(int index)
+    {
+        final int segment = mCaptured[checkedIndex(index)];
+        return new Precoded(mSources[segment].subSequence(mStarts[segment], mEnds[segment]));
+    }
+
+
+    /**
+     * Returns the encoded value of the variable with the given name.
+     *
+     * @throws NoSuchElementException
+     *         if the matching route has no such variable.
+     */
+    public UriEncoded variable(String name)
+    {
+        for (int i = 0, count = variableCount(); i < count; ++i)
+        {
+            if (mNames[i].equals(name))
+            {
+                return variable(i);
+            }
+        }
+        throw new NoSuchElementException(String.format("No variable named %s", name));
+    }
+
+
+    private int checkedIndex(int index)
+    {
+        if (index < 0 || index >= variableCount())
+        {
+            throw new IndexOutOfBoundsException(String.format("Variable %d doesn't exist, the route has %d variables", index, variableCount()));
+        }
+        return index;
+    }
+
+
+    /**
+     * Forgets the previous match.
+     */
+    void reset()
+    {
+        mSegmentCount = 0;
+        mCapturedCount = 0;
+        mNames = null;
+        mValue = null;
+    }
+
+
+    void addSegment(CharSequence source, int start, int end)
+    {
+        if (mSegmentCount == mSources.length)
+        {
+            mSources = Arrays.copyOf(mSources, mSegmentCount * 2);
+            mStarts = Arrays.copyOf(mStarts, mSegmentCount * 2);
+            mEnds = Arrays.copyOf(mEnds, mSegmentCount * 2);
+        }
+        mSources[mSegmentCount] = source;
+        mStarts[mSegmentCount] = start;
+        mEnds[mSegmentCount] = end;
+        mSegmentCount += 1;
+    }
+
+
+    int segmentCount()
+    {
+        return mSegmentCount;
+    }
+
+
+    CharSequence segmentSource(int segment)
+    {
+        return mSources[segment];
+    }
+
+
+    int segmentStart(int segment)
+    {
+        return mStarts[segment];
+    }
+
+
+    int segmentEnd(int segment)
+    {
+        return mEnds[segment];
+    }
+
+
+    /**
+     * Captures the given segment and returns the number of captured segments before, which can be passed to {@link #release(int)} to undo this.
+     */
+    int capture(int segment)
+    {
+        if (mCapturedCount == mCaptured.length)
+        {
+            mCaptured = Arrays.copyOf(mCaptured, mCapturedCount * 2);
+        }
+        mCaptured[mCapturedCount] = segment;
+        return mCapturedCount++;
+    }
+
+
+    void release(int capturedCount)
+    {
+        mCapturedCount = capturedCount;
+    }
+
+
+    void matched(V value, String[] names)
+    {
+        mValue = value;
+        mNames = names;
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.routing;
+
+import org.dmfs.rfc3986.Path;
+import org.dmfs.rfc3986.UriEncoded;
+import org.dmfs.rfc3986.utils.Split;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+
+/**
+ * A router that finds the route of a path among many route patterns, like {@code /users/{id}/orders/{orderId}}.
+ * <p>
+ * A route pattern is an encoded path. A segment in curly braces is a variable, which matches any non-empty segment, all other segments must match exactly
+ * (without decoding). A pattern matches a path with the same number of segments only, so {@code /users/{id}} matches {@code /users/123}, but neither
+ * {@code /users/123/orders} nor {@code /users/} nor {@code users/123}.
+ * <p>
+ * The routes are compiled into a trie of segments, so the cost of a match depends on the number of segments of the path, not on the number of routes.
+ * Static segments take precedence over variables, i.e. given the routes {@code /users/{id}} and {@code /users/me}, the path {@code /users/me} matches the
+ * latter. If a static segment leads into a dead end, the variable is tried instead.
+ * <p>
+ * Matching doesn't allocate any memory (once the given {@link PathMatch} has grown to the longest path), the captured variables are returned as positions
+ * within the matched path. Matching a {@link Path} iterates its segments, which may allocate them, depending on the {@link Path} implementation.
+ * <p>
+ * This is not thread-safe. A router that's no longer modified can be shared among threads for matching, as long as it has been published safely. Each thread
+ * needs its own {@link PathMatch}.
+ */
+public final class PathRouter<V>
+{
+    private final Node<V> mRoot = new Node<>();
+
+
+    /**
+     * Adds a route with the given pattern, replacing any route with the same pattern (ignoring the variable names).
+     *
+     * @param pattern
+     *         An encoded path with optional variables in curly braces.
+     * @param value
+     *         The value to return when a path matches the route, must not be {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         if {@code value} is {@code null}.
+     */
+    public void add(CharSequence pattern, V value)
+    {
+        if (value == null)
+        {
+            // null marks nodes without a route, so it can't be a value itself
+            throw new IllegalArgumentException("Can't route to null values.");
+        }
+        Node<V> node = mRoot;
+        List<String> names = new ArrayList<>();
+        if (pattern.length() > 0)
+        {
+            for (Iterator<CharSequence> segments = new Split(pattern, '/'); segments.hasNext(); )
+            {
+                final CharSequence segment = segments.next();
+                final int length = segment.length();
+                if (length > 2 && segment.charAt(0) == '{' && segment.charAt(length - 1) == '}')
+                {
+                    names.add(segment.subSequence(1, length - 1).toString());
+                    if (node.mVariable == null)
+                    {
+                        node.mVariable = new Node<>();
+                    }
+                    node = node.mVariable;
+                }
+                else
+                {
+                    if (node.mStatic == null)
+                    {
+                        node.mStatic = new SegmentMap<>(false);
+                    }
+                    Node<V> child = node.mStatic.get(segment);
+                    if (child == null)
+                    {
+                        child = new Node<>();
+                        node.mStatic.put(segment, child);
+                    }
+                    node = child;
+                }
+            }
+        }
+        node.mValue = value;
+        node.mNames = names.toArray(new String[0]);
+    }
+
+
+    /**
+     * Matches the given encoded path against the routes and stores the result in the given {@link PathMatch}.
+     *
+     * @param path
+     *         An encoded path, e.g. a {@link UriEncoded} or the {@link org.dmfs.rfc3986.paths.Text} of a {@link Path}.
+     * @param match
+     *         The {@link PathMatch} to store the result in.
+     *
+     * @return {@code true} if a route matched, {@code false} otherwise.
+     */
+    public boolean match(CharSequence path, PathMatch<V> match)
+    {
+        match.reset();
+        final int count = path.length();
+        if (count > 0)
+        {
+            int start = 0;
+            for (int i = 0; i < count; ++i)
+            {
+                if (path.charAt(i) == '/')
+                {
+                    match.addSegment(path, start, i);
+                    start = i + 1;
+                }
+            }
+            match.addSegment(path, start, count);
+        }
+        return match(mRoot, 0, match);
+    }
+
+
+    /**
+     * Matches the segments of the given {@link Path} against the routes and stores the result in the given {@link PathMatch}.
+     *
+     * @param path
+     *         A {@link Path}.
+     * @param match
+     *         The {@link PathMatch} to store the result in.
+     *
+     * @return {@code true} if a route matched, {@code false} otherwise.
+     */
+    public boolean match(Path path, PathMatch<V> match)
+    {
+        match.reset();
+        for (UriEncoded segment : path)
+        {
+            match.addSegment(segment, 0, segment.length());
+        }
+        return match(mRoot, 0, match);
+    }
+
+
+    private boolean match(Node<V> node, int segment, PathMatch<V> match)
+    {
+        if (segment == match.segmentCount())
+        {
+            if (node.mValue == null)
+            {
+                return false;
+            }
+            match.matched(node.mValue, node.mNames);
+            return true;
+        }
+
+        final int start = match.segmentStart(segment);
+        final int end = match.segmentEnd(segment);
+        if (node.mStatic != null)
+        {
+            final Node<V> child = node.mStatic.get(match.segmentSource(segment), start, end);
+            if (child != null && match(child, segment + 1, match))
+            {
+                return true;
+            }
+        }
+        if (node.mVariable != null && end > start)
+        {
+            final int captured = match.capture(segment);
+            if (match(node.mVariable, segment + 1, match))
+            {
+                return true;
+            }
+            match.release(captured);
+        }
+        return false;
+    }
+
+
+    /**
+     * A node of the trie.
+     */
+    private final static class Node<V>
+    {
+        private SegmentMap<Node<V>> mStatic;
+        private Node<V> mVariable;
+        private V mValue;
+        private String[] mNames;
+    }
+}
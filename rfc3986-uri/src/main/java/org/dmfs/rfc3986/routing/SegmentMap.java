@@ -0,0 +1,161 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.routing;
+
+/**
+ * A small open addressing hash map with {@link CharSequence} keys, used for the children of trie nodes.
+ * <p>
+ * Lookups compare the chars of the given key with the stored keys, so they work with any {@link CharSequence} (like a slice of a URI) without converting it
+ * to a {@link String}. Keys can be compared either exactly or ignoring the case of ASCII letters.
+ * <p>
+ * This is not thread-safe.
+ */
+final class SegmentMap<T>
+{
+    private final boolean mIgnoreCase;
+    private String[] mKeys = new String[2];
+    private Object[] mValues = new Object[2];
+    private int mSize;
+
+
+    SegmentMap(boolean ignoreCase)
+    {
+        mIgnoreCase = ignoreCase;
+    }
+
+
+    /**
+     * Returns the value of the given key or {@code null} if there is no such key.
+     */
+    T get(CharSequence key)
+    {
+        return get(key, 0, key.length());
+    }
+
+
+    /**
+     * Returns the value of the key between the given positions of the given {@link CharSequence} or {@code null} if there is no such key.
+     */
+    @SuppressWarnings("unchecked")
+    T get(CharSequence chars, int start, int end)
+    {
+        if (mSize == 0)
+        {
+            return null;
+        }
+        final String[] keys = mKeys;
+        final int mask = keys.length - 1;
+        int i = hash(chars, start, end) & mask;
+        String candidate;
+        while ((candidate = keys[i]) != null)
+        {
+            if (matches(candidate, chars, start, end))
+            {
+                return (T) mValues[i];
+            }
+            i = i + 1 & mask;
+        }
+        return null;
+    }
+
+
+    /**
+     * Stores the given value under the given key, replacing any previous value.
+     */
+    void put(CharSequence key, T value)
+    {
+        if (mSize * 2 >= mKeys.length)
+        {
+            grow();
+        }
+        final int mask = mKeys.length - 1;
+        int i = hash(key, 0, key.length()) & mask;
+        String candidate;
+        while ((candidate = mKeys[i]) != null)
+        {
+            if (matches(candidate, key, 0, key.length()))
+            {
+                mValues[i] = value;
+                return;
+            }
+            i = i + 1 & mask;
+        }
+        mKeys[i] = key.toString();
+        mValues[i] = value;
+        mSize += 1;
+    }
+
+
+    private void grow()
+    {
+        final String[] keys = mKeys;
+        final Object[] values = mValues;
+        mKeys = new String[keys.length * 2];
+        mValues = new Object[keys.length * 2];
+        final int mask = mKeys.length - 1;
+        for (int j = 0; j < keys.length; ++j)
+        {
+            if (keys[j] != null)
+            {
+                int i = hash(keys[j], 0, keys[j].length()) & mask;
+                while (mKeys[i] != null)
+                {
+                    i = i + 1 & mask;
+                }
+                mKeys[i] = keys[j];
+                mValues[i] = values[j];
+            }
+        }
+    }
+
+
+    private int hash(CharSequence chars, int start, int end)
+    {
+        int h = 0;
+        for (int i = start; i < end; ++i)
+        {
+            h = 31 * h + folded(chars.charAt(i));
+        }
+        // spread the bits, similar keys (like numbers) have similar hash codes, which would result in long probe sequences otherwise
+        h *= 0x9E3779B9;
+        return h ^ h >>> 16;
+    }
+
+
+    private boolean matches(String candidate, CharSequence chars, int start, int end)
+    {
+        final int count = candidate.length();
+        if (count != end - start)
+        {
+            return false;
+        }
+        for (int i = 0; i < count; ++i)
+        {
+            if (folded(candidate.charAt(i)) != folded(chars.charAt(start + i)))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    private char folded(char c)
+    {
+        return mIgnoreCase && c >= 'A' && c <= 'Z' ? (char) (c + 32) : c;
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.routing;
+
+import org.dmfs.jems2.Optional;
+import org.dmfs.jems2.optional.Present;
+import org.dmfs.rfc3986.Authority;
+import org.dmfs.rfc3986.Scheme;
+import org.dmfs.rfc3986.Uri;
+import org.dmfs.rfc3986.UriEncoded;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.dmfs.jems2.optional.Absent.absent;
+
+
+/**
+ * An index of values by URI prefix.
+ * <p>
+ * A prefix consists of the scheme, the host and the path segments of a {@link Uri}. A prefix matches all URIs with the same scheme and host, whose path
+ * starts with the same segments, e.g. {@code http://example.com/api} matches {@code http://example.com/api}, {@code http://example.com/api/users?q=1} and
+ * {@code HTTP://EXAMPLE.COM/api/}, but not {@code http://example.com/apis} or {@code https://example.com/api}.
+ * <p>
+ * Some details:
+ * <ul>
+ * <li>Schemes and hosts are compared ignoring case, path segments are compared as they are, without decoding.</li>
+ * <li>User info, port, query and fragment are not taken into account.</li>
+ * <li>Empty path segments are ignored, so {@code http://example.com}, {@code http://example.com/} and {@code http://example.com//} are the same prefix.</li>
+ * <li>A prefix without a scheme or host only matches URIs without a scheme or host, e.g. the relative reference {@code /api} matches {@code /api/users}.</li>
+ * </ul>
+ * <p>
+ * The index is a trie, so the cost of a lookup depends on the number of segments of the URI, not on the number of prefixes. Lookups don't create any
+ * {@link String}s.
+ * <p>
+ * This is not thread-safe. An index that's no longer modified can be shared among threads for lookups, as long as it has been published safely.
+ */
+public final class UriPrefixIndex<V>
+{
+    private final Node<V> mRoot = new Node<>(true);
+    private int mSize;
+
+
+    /**
+     * Stores the given value under the prefix of the given {@link Uri}, replacing any value that has been stored under the same prefix before.
+     *
+     * @param prefix
+     *         The {@link Uri} to take the prefix from.
+     * @param value
+     *         The value to store, must not be {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         if {@code value} is {@code null}.
+     */
+    public void put(Uri prefix, V value)
+    {
+        if (value == null)
+        {
+            // null marks nodes without a value, so it can't be a value itself
+            throw new IllegalArgumentException("Can't store null values.");
+        }
+        Node<V> node = mRoot.putChild(prefix.scheme(), true);
+        Optional<? extends Authority> authority = prefix.authority();
+        node = node.putChild(authority.isPresent() ? new Present<>(authority.value().host()) : absent(), false);
+        for (UriEncoded segment : prefix.path())
+        {
+            if (segment.length() > 0)
+            {
+                node = node.putChild(new Present<>(segment), false);
+            }
+        }
+        if (node.mValue == null)
+        {
+            mSize += 1;
+        }
+        node.mValue = value;
+    }
+
+
+    /**
+     * Returns the value of the longest prefix that matches the given {@link Uri}, if any.
+     */
+    public Optional<V> longestPrefix(Uri uri)
+    {
+        V result = null;
+        Node<V> node = hostNode(uri);
+        if (node != null)
+        {
+            result = node.mValue;
+            for (UriEncoded segment : uri.path())
+            {
+                if (segment.length() > 0)
+                {
+                    node = node.child(segment);
+                    if (node == null)
+                    {
+                        break;
+                    }
+                    if (node.mValue != null)
+                    {
+                        result = node.mValue;
+                    }
+                }
+            }
+        }
+        return result == null ? absent() : new Present<>(result);
+    }
+
+
+    /**
+     * Returns the values of all prefixes that match the given {@link Uri}, ordered from the shortest to the longest prefix.
+     */
+    public List<V> allPrefixes(Uri uri)
+    {
+        List<V> result = new ArrayList<>(4);
+        Node<V> node = hostNode(uri);
+        if (node != null)
+        {
+            if (node.mValue != null)
+            {
+                result.add(node.mValue);
+            }
+            for (UriEncoded segment : uri.path())
+            {
+                if (segment.length() > 0)
+                {
+                    node = node.child(segment);
+                    if (node == null)
+                    {
+                        break;
+                    }
+                    if (node.mValue != null)
+                    {
+                        result.add(node.mValue);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Returns the number of prefixes in this index.
+     */
+    public int size()
+    {
+        return mSize;
+    }
+
+
+    /**
+     * Returns the node of the scheme and host of the given {@link Uri} or {@code null} if there is none.
+     */
+    private Node<V> hostNode(Uri uri)
+    {
+        Optional<? extends Scheme> scheme = uri.scheme();
+        Node<V> node = scheme.isPresent() ? mRoot.child(scheme.value()) : mRoot.mAbsent;
+        if (node == null)
+        {
+            return null;
+        }
+        Optional<? extends Authority> authority = uri.authority();
+        return authority.isPresent() ? node.child(authority.value().host()) : node.mAbsent;
+    }
+
+
+    /**
+     * A node of the trie. The children of the scheme and host levels may be absent, which is represented by a separate child.
+     */
+    private final static class Node<V>
+    {
+        private final boolean mIgnoreCase;
+        private SegmentMap<Node<V>> mChildren;
+        private Node<V> mAbsent;
+        private V mValue;
+
+
+        private Node(boolean ignoreCase)
+        {
+            mIgnoreCase = ignoreCase;
+        }
+
+
+        private Node<V> child(CharSequence key)
+        {
+            return mChildren == null ? null : mChildren.get(key);
+        }
+
+
+        /**
+         * Returns the child with the given key, creating it if necessary. The children of the new child compare their keys ignoring case if
+         * {@code ignoreCase} is true.
+         */
+        private Node<V> putChild(Optional<? extends CharSequence> key, boolean ignoreCase)
+        {
+            if (!key.isPresent())
+            {
+                if (mAbsent == null)
+                {
+                    mAbsent = new Node<>(ignoreCase);
+                }
+                return mAbsent;
+            }
+            if (mChildren == null)
+            {
+                mChildren = new SegmentMap<>(mIgnoreCase);
+            }
+            Node<V> result = mChildren.get(key.value());
+            if (result == null)
+            {
+                result = new Node<>(ignoreCase);
+                mChildren.put(key.value(), result);
+            }
+            return result;
+        }
+    }
+}
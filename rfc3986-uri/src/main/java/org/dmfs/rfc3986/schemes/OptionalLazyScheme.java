@@ -20,6 +20,8 @@ import org.dmfs.jems2.Optional;
 import org.dmfs.jems2.optional.Present;
 import org.dmfs.rfc3986.Scheme;
 import org.dmfs.rfc3986.UriEncoded;
+import org.dmfs.rfc3986.pools.ComponentPool;
+import org.dmfs.rfc3986.pools.Unpooled;
 import org.dmfs.rfc3986.utils.Parsed;
 
 import java.util.NoSuchElementException;
@@ -34,17 +36,38 @@ import static org.dmfs.rfc3986.validation.CharSets.SCHEME_CHAR;
  * <p>
  * Note that the presence of a {@link Scheme} in the result doesn't guarantee a valid URI. It only guarantees, if the input data represents a valid URI, this is
  * the Scheme of it.
+ * <p>
+ * If a {@link ComponentPool} is given (even {@link Unpooled#INSTANCE}), the common schemes {@code ftp}, {@code http}, {@code https} and {@code mailto} are
+ * returned as the respective {@link Schemes} constants, other schemes are taken from the pool. Without a pool, the scheme is always a view on the given
+ * URI.
  */
 public final class OptionalLazyScheme implements Optional<Scheme>, Parsed
 {
     private final UriEncoded mUriEncoded;
-    private Optional<Scheme> mOptionalScheme;
+    private final ComponentPool mPool;
+    private final boolean mKnownSchemes;
+    // publishes mEnd
+    private volatile Optional<Scheme> mOptionalScheme;
     private int mEnd;
 
 
     public OptionalLazyScheme(UriEncoded uriEncoded)
+    {
+        this(uriEncoded, Unpooled.INSTANCE, false);
+    }
+
+
+    public OptionalLazyScheme(UriEncoded uriEncoded, ComponentPool pool)
+    {
+        this(uriEncoded, pool, true);
+    }
+
+
+    private OptionalLazyScheme(UriEncoded uriEncoded, ComponentPool pool, boolean knownSchemes)
     {
         mUriEncoded = uriEncoded;
+        mPool = pool;
+        mKnownSchemes = knownSchemes;
     }
 
 
@@ -63,11 +86,13 @@ public final class OptionalLazyScheme implements Optional<Scheme>, Parsed
 
     private Optional<Scheme> scheme()
     {
-        if (mOptionalScheme == null)
+        Optional<Scheme> result = mOptionalScheme;
+        if (result == null)
         {
-            mOptionalScheme = parsedScheme();
+            result = parsedScheme();
+            mOptionalScheme = result;
         }
-        return mOptionalScheme;
+        return result;
     }
 
 
@@ -81,11 +106,7 @@ public final class OptionalLazyScheme implements Optional<Scheme>, Parsed
             return absent();
         }
 
-        int i = 1;
-        while (i < count && SCHEME_CHAR.contains(uriEncoded.charAt(i)))
-        {
-            ++i;
-        }
+        final int i = SCHEME_CHAR.endOfRun(uriEncoded, 1, count);
 
         if (i < 2 || i == count || uriEncoded.charAt(i) != ':')
         {
@@ -93,7 +114,56 @@ public final class OptionalLazyScheme implements Optional<Scheme>, Parsed
             return absent();
         }
         mEnd = i + 1 /* account for the colon which is not part of the actual scheme */;
-        return new Present<Scheme>(new ParsedScheme(uriEncoded.subSequence(0, i)));
+        return new Present<>(mKnownSchemes ? knownScheme(uriEncoded, i) : new ParsedScheme(uriEncoded.subSequence(0, i)));
+    }
+
+
+    /**
+     * Returns the scheme of the given length, using the {@link Schemes} constants for the common schemes.
+     */
+    private Scheme knownScheme(UriEncoded uriEncoded, int length)
+    {
+        switch (length)
+        {
+            case 3:
+                if (matches(uriEncoded, "ftp"))
+                {
+                    return Schemes.FTP;
+                }
+                break;
+            case 4:
+                if (matches(uriEncoded, "http"))
+                {
+                    return Schemes.HTTP;
+                }
+                break;
+            case 5:
+                if (matches(uriEncoded, "https"))
+                {
+                    return Schemes.HTTPS;
+                }
+                break;
+            case 6:
+                if (matches(uriEncoded, "mailto"))
+                {
+                    return Schemes.MAILTO;
+                }
+                break;
+        }
+        return new ParsedScheme(mPool.pooled(uriEncoded.subSequence(0, length)));
+    }
+
+
+    private static boolean matches(CharSequence chars, String scheme)
+    {
+        for (int i = 0, count = scheme.length(); i < count; ++i)
+        {
+            if (chars.charAt(i) != scheme.charAt(i))
+            {
+                return false;
+            }
+        }
+        return true;
     }
 
 
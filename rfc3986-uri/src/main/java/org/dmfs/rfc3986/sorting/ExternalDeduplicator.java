@@ -0,0 +1,561 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.sorting;
+
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.keys.UriFingerprinter;
+import org.dmfs.rfc3986.uris.LazyUri;
+import org.dmfs.rfc3986.uris.Normalized;
+import org.dmfs.rfc3986.uris.Text;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Removes duplicates from collections of URIs that don't fit into memory.
+ * <p>
+ * Each URI is normalized with {@link Normalized} and converted to text with {@link Text}, so two URIs are duplicates if and only if their normalized texts
+ * are equal, just like with the online normalization. The URIs are read in runs of a fixed number of URIs. Each run is sorted in a {@link ForkJoinPool} and
+ * spilled to a temporary file, while the next run is being read. Finally all runs are merged and each distinct normalized URI is written once.
+ * <p>
+ * The runs are sorted by the {@link UriFingerprinter fingerprint} of the normalized text (with the text itself breaking ties), which is much faster to compare
+ * than the text. The output is in that order, i.e. it's not sorted alphabetically. That's the only order offered. In particular, the keys of
+ * {@link org.dmfs.rfc3986.keys.SurtKeyGenerator} are not used, because they drop the scheme and, by default, {@code www} labels and the order of query
+ * parameters, so they would merge URIs that are distinct after normalization. To get a SURT ordered result, sort the output by its SURT keys.
+ * <p>
+ * At most {@code maxMergeWidth} runs are merged at once. If there are more runs, they are merged in groups into new runs first, until a single merge
+ * pass remains. So memory use is bounded by the run size times the number of runs in flight (the parallelism of the pool plus one) while spilling and by
+ * {@code maxMergeWidth} read buffers (and open files) while merging, regardless of the size of the input.
+ * <p>
+ * The counters ({@link #read()}, {@link #unique()} etc.) are updated while the deduplication is running, so they can be polled by another thread to report
+ * progress.
+ */
+public final class ExternalDeduplicator
+{
+    private final static int DEFAULT_RUN_SIZE = 1 << 20;
+    private final static int DEFAULT_MAX_MERGE_WIDTH = 64;
+    private final static int BUFFER_SIZE = 1 << 16;
+
+    private final static Comparator<Entry> ORDER = (left, right) ->
+    {
+        final int result = Long.compare(left.mFingerprint, right.mFingerprint);
+        return result != 0 ? result : left.mText.compareTo(right.mText);
+    };
+
+    private final Path mDirectory;
+    private final int mRunSize;
+    private final int mMaxMergeWidth;
+    private final ForkJoinPool mPool;
+
+    private final LongAdder mRead = new LongAdder();
+    private final LongAdder mInvalid = new LongAdder();
+    private final LongAdder mRuns = new LongAdder();
+    private final LongAdder mSpilledBytes = new LongAdder();
+    private final LongAdder mIntermediateMerges = new LongAdder();
+    private final LongAdder mUnique = new LongAdder();
+    private final LongAdder mSortNanos = new LongAdder();
+    private final LongAdder mMergeNanos = new LongAdder();
+
+
+    /**
+     * An {@link ExternalDeduplicator} that spills to the default temporary directory and uses the common {@link ForkJoinPool}.
+     */
+    public ExternalDeduplicator()
+    {
+        this(Paths.get(System.getProperty("java.io.tmpdir")), DEFAULT_RUN_SIZE, ForkJoinPool.commonPool());
+    }
+
+
+    /**
+     * An {@link ExternalDeduplicator} that spills to the given directory.
+     *
+     * @param directory
+     *         The directory to create the temporary files in.
+     * @param runSize
+     *         The maximum number of URIs per run.
+     * @param pool
+     *         The {@link ForkJoinPool} to sort and spill the runs in.
+     */
+    public ExternalDeduplicator(Path directory, int runSize, ForkJoinPool pool)
+    {
+        this(directory, runSize, DEFAULT_MAX_MERGE_WIDTH, pool);
+    }
+
+
+    /**
+     * An {@link ExternalDeduplicator} that spills to the given directory and merges at most the given number of runs at once.
+     *
+     * @param directory
+     *         The directory to create the temporary files in.
+     * @param runSize
+     *         The maximum number of URIs per run.
+     * @param maxMergeWidth
+     *         The maximum number of runs to merge at once, at least 2.
+     * @param pool
+     *         The {@link ForkJoinPool} to sort and spill the runs in.
+     */
+    public ExternalDeduplicator(Path directory, int runSize, int maxMergeWidth, ForkJoinPool pool)
+    {
+        if (runSize < 1 || maxMergeWidth < 2)
+        {
+            throw new IllegalArgumentException(String.format("Invalid run size %d or merge width %d", runSize, maxMergeWidth));
+        }
+        mDirectory = directory;
+        mRunSize = runSize;
+        mMaxMergeWidth = maxMergeWidth;
+        mPool = pool;
+    }
+
+
+    /**
+     * Writes the distinct normalized URIs of the given encoded URIs to the given {@link Writer}, one per line. Invalid URIs, i.e. URIs that can't be
+     * parsed, normalized or fingerprinted, are skipped.
+     *
+     * @return The number of distinct URIs written.
+     */
+    public long deduplicate(Iterable<? extends CharSequence> uris, Writer out) throws IOException
+    {
+        final List<Path> runs = new ArrayList<>();
+        try
+        {
+            spill(uris, runs);
+            final long start = System.nanoTime();
+            while (runs.size() > mMaxMergeWidth)
+            {
+                // merge the oldest runs into a new one, which goes to the end of the list (and is deleted with the others if anything goes wrong)
+                final List<Path> group = new ArrayList<>(runs.subList(0, mMaxMergeWidth));
+                final Path merged = Files.createTempFile(mDirectory, "uris", ".run");
+                runs.add(merged);
+                try (DataOutputStream runOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(merged), BUFFER_SIZE)))
+                {
+                    merge(group, entry -> entry.writeTo(runOut));
+                }
+                for (Path run : group)
+                {
+                    Files.delete(run);
+                }
+                runs.subList(0, mMaxMergeWidth).clear();
+                mIntermediateMerges.increment();
+            }
+            final long[] result = new long[1];
+            merge(runs, entry ->
+            {
+                out.write(entry.mText);
+                out.write('\n');
+                ++result[0];
+                mUnique.increment();
+            });
+            out.flush();
+            mMergeNanos.add(System.nanoTime() - start);
+            return result[0];
+        }
+        finally
+        {
+            for (Path run : runs)
+            {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+
+    /**
+     * Returns the number of URIs read so far.
+     */
+    public long read()
+    {
+        return mRead.sum();
+    }
+
+
+    /**
+     * Returns the number of URIs that have been skipped because they were invalid.
+     */
+    public long invalid()
+    {
+        return mInvalid.sum();
+    }
+
+
+    /**
+     * Returns the number of runs spilled so far.
+     */
+    public long runs()
+    {
+        return mRuns.sum();
+    }
+
+
+    /**
+     * Returns the number of bytes spilled to disk so far.
+     */
+    public long spilledBytes()
+    {
+        return mSpilledBytes.sum();
+    }
+
+
+    /**
+     * Returns the number of intermediate merges so far, i.e. merges of {@code maxMergeWidth} runs into a new run.
+     */
+    public long intermediateMerges()
+    {
+        return mIntermediateMerges.sum();
+    }
+
+
+    /**
+     * Returns the number of distinct URIs written so far.
+     */
+    public long unique()
+    {
+        return mUnique.sum();
+    }
+
+
+    /**
+     * Returns a summary of the counters, the time spent sorting and spilling (summed over all threads) and merging, and the resulting throughput.
+     */
+    public String statistics()
+    {
+        final long read = mRead.sum();
+        final long sortNanos = mSortNanos.sum();
+        final long mergeNanos = mMergeNanos.sum();
+        return String.format(
+            "read: %d, invalid: %d, runs: %d (%d bytes), intermediate merges: %d, unique: %d, sort: %.3f ms (%.0f/s), merge: %.3f ms (%.0f/s)",
+            read, mInvalid.sum(), mRuns.sum(), mSpilledBytes.sum(), mIntermediateMerges.sum(), mUnique.sum(),
+            sortNanos / 1e6, sortNanos == 0 ? 0.0 : read * 1e9 / sortNanos,
+            mergeNanos / 1e6, mergeNanos == 0 ? 0.0 : read * 1e9 / mergeNanos);
+    }
+
+
+    /**
+     * Reads the given URIs in runs and spills each of them, sorted and without duplicates. The files are added to the given list, even if something goes
+     * wrong, so the caller can delete them.
+     */
+    private void spill(Iterable<? extends CharSequence> uris, List<Path> runs) throws IOException
+    {
+        final Deque<ForkJoinTask<Path>> inFlight = new ArrayDeque<>();
+        try
+        {
+            List<CharSequence> run = new ArrayList<>(Math.min(mRunSize, BUFFER_SIZE));
+            for (CharSequence uri : uris)
+            {
+                run.add(uri);
+                if (run.size() == mRunSize)
+                {
+                    submit(run, inFlight, runs);
+                    run = new ArrayList<>(Math.min(mRunSize, BUFFER_SIZE));
+                }
+            }
+            if (!run.isEmpty())
+            {
+                submit(run, inFlight, runs);
+            }
+        }
+        catch (IOException | RuntimeException | Error e)
+        {
+            // wait for all other runs anyway, so no file is left behind
+            joinAll(inFlight, runs, e);
+            throw e;
+        }
+        joinAll(inFlight, runs, null);
+    }
+
+
+    private void submit(List<CharSequence> run, Deque<ForkJoinTask<Path>> inFlight, List<Path> runs) throws IOException
+    {
+        // bound the number of runs in memory, if a task fails, spill joins the others
+        while (inFlight.size() > mPool.getParallelism())
+        {
+            runs.add(join(inFlight.removeFirst()));
+        }
+        inFlight.addLast(mPool.submit(ForkJoinTask.adapt(() -> sorted(run))));
+    }
+
+
+    /**
+     * Joins all the given tasks, even if some of them fail, and adds their files to the given list. If {@code error} is {@code null}, the first failure is
+     * rethrown, otherwise all failures are added to {@code error} as suppressed exceptions.
+     */
+    private static void joinAll(Deque<ForkJoinTask<Path>> inFlight, List<Path> runs, Throwable error) throws IOException
+    {
+        Throwable first = error;
+        while (!inFlight.isEmpty())
+        {
+            try
+            {
+                runs.add(join(inFlight.removeFirst()));
+            }
+            catch (IOException | RuntimeException | Error e)
+            {
+                if (first == null)
+                {
+                    first = e;
+                }
+                else if (first != e)
+                {
+                    first.addSuppressed(e);
+                }
+            }
+        }
+        if (error == null && first != null)
+        {
+            if (first instanceof IOException)
+            {
+                throw (IOException) first;
+            }
+            if (first instanceof RuntimeException)
+            {
+                throw (RuntimeException) first;
+            }
+            throw (Error) first;
+        }
+    }
+
+
+    private static Path join(ForkJoinTask<Path> task) throws IOException
+    {
+        try
+        {
+            return task.join();
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+    }
+
+
+    /**
+     * Normalizes, sorts and spills the given run.
+     */
+    private Path sorted(List<CharSequence> run)
+    {
+        final long start = System.nanoTime();
+        final Entry[] entries = new Entry[run.size()];
+        int count = 0;
+        for (CharSequence uri : run)
+        {
+            try
+            {
+                final String text = new Text(new Normalized(new LazyUri(new Precoded(uri)))).toString();
+                entries[count++] = new Entry(UriFingerprinter.INSTANCE.fingerprint(text), text);
+            }
+            catch (RuntimeException e)
+            {
+                // one bad record must not abort the whole job, whatever the parser throws
+                mInvalid.increment();
+            }
+        }
+        mRead.add(run.size());
+        Arrays.sort(entries, 0, count, ORDER);
+
+        try
+        {
+            final Path file = Files.createTempFile(mDirectory, "uris", ".run");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE)))
+            {
+                Entry previous = null;
+                for (int i = 0; i < count; ++i)
+                {
+                    final Entry entry = entries[i];
+                    if (previous == null || ORDER.compare(previous, entry) != 0)
+                    {
+                        entry.writeTo(out);
+                        previous = entry;
+                    }
+                }
+                mSpilledBytes.add(out.size());
+            }
+            catch (IOException | RuntimeException | Error e)
+            {
+                // the caller never sees this file, so delete it right away
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            mRuns.increment();
+            return file;
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        finally
+        {
+            mSortNanos.add(System.nanoTime() - start);
+        }
+    }
+
+
+    /**
+     * Merges the given runs and passes each distinct entry to the given {@link EntryConsumer}.
+     */
+    private static void merge(List<Path> runs, EntryConsumer consumer) throws IOException
+    {
+        final PriorityQueue<RunReader> queue = new PriorityQueue<>(Math.max(1, runs.size()), (left, right) -> ORDER.compare(left.mHead, right.mHead));
+        // the reader that's neither in the queue nor closed
+        RunReader reader = null;
+        try
+        {
+            for (Path run : runs)
+            {
+                reader = new RunReader(run);
+                if (reader.advance())
+                {
+                    queue.add(reader);
+                }
+                else
+                {
+                    reader.close();
+                }
+                reader = null;
+            }
+
+            Entry previous = null;
+            while (!queue.isEmpty())
+            {
+                reader = queue.poll();
+                final Entry entry = reader.mHead;
+                if (previous == null || ORDER.compare(previous, entry) != 0)
+                {
+                    consumer.accept(entry);
+                    previous = entry;
+                }
+                if (reader.advance())
+                {
+                    queue.add(reader);
+                }
+                else
+                {
+                    reader.close();
+                }
+                reader = null;
+            }
+        }
+        finally
+        {
+            if (reader != null)
+            {
+                reader.close();
+            }
+            for (RunReader queued : queue)
+            {
+                queued.close();
+            }
+        }
+    }
+
+
+    /**
+     * Receives the entries of a merge.
+     */
+    private interface EntryConsumer
+    {
+        void accept(Entry entry) throws IOException;
+    }
+
+
+    /**
+     * A normalized URI and its fingerprint.
+     */
+    private final static class Entry
+    {
+        private final long mFingerprint;
+        private final String mText;
+
+
+        private Entry(long fingerprint, String text)
+        {
+            mFingerprint = fingerprint;
+            mText = text;
+        }
+
+
+        void writeTo(DataOutputStream out) throws IOException
+        {
+            final byte[] bytes = mText.getBytes(StandardCharsets.UTF_8);
+            out.writeLong(mFingerprint);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+
+    /**
+     * Reads the entries of a run one by one.
+     */
+    private final static class RunReader
+    {
+        private final DataInputStream mIn;
+        private Entry mHead;
+
+
+        private RunReader(Path run) throws IOException
+        {
+            mIn = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), BUFFER_SIZE));
+        }
+
+
+        /**
+         * Reads the next entry into {@link #mHead}, returns {@code false} at the end of the run.
+         */
+        boolean advance() throws IOException
+        {
+            final long fingerprint;
+            try
+            {
+                fingerprint = mIn.readLong();
+            }
+            catch (EOFException e)
+            {
+                return false;
+            }
+            final byte[] bytes = new byte[mIn.readInt()];
+            mIn.readFully(bytes);
+            mHead = new Entry(fingerprint, new String(bytes, StandardCharsets.UTF_8));
+            return true;
+        }
+
+
+        void close() throws IOException
+        {
+            mIn.close();
+        }
+    }
+}
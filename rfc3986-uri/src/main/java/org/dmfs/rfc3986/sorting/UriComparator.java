@@ -0,0 +1,150 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.sorting;
+
+import org.dmfs.jems2.Optional;
+import org.dmfs.rfc3986.Authority;
+import org.dmfs.rfc3986.Uri;
+import org.dmfs.rfc3986.UriEncoded;
+
+import java.util.Comparator;
+import java.util.Iterator;
+
+
+/**
+ * A {@link Comparator} that orders {@link Uri}s component by component, without serializing them.
+ * <p>
+ * The components are compared in the order scheme, host, port, user info, path, query and fragment. An absent component comes before any present one,
+ * present components are compared char by char on their encoded form, a shorter value comes before any longer value it's a prefix of. Ports are compared by
+ * their numeric value and paths segment by segment. Components are accessed only when all previous components are equal, so lazy {@link Uri}s that differ in
+ * the scheme or host don't parse their paths.
+ * <p>
+ * Note, the {@link Uri}s are not normalized, decorate them with {@link org.dmfs.rfc3986.uris.Normalized} if that's required. {@link
+ * UriRadixSort#sort(Uri[])} sorts in the same order.
+ */
+public final class UriComparator implements Comparator<Uri>
+{
+    public final static UriComparator INSTANCE = new UriComparator();
+
+
+    private UriComparator()
+    {
+    }
+
+
+    @Override
+    public int compare(Uri left, Uri right)
+    {
+        int result = compare(left.scheme(), right.scheme());
+        if (result != 0)
+        {
+            return result;
+        }
+
+        final Optional<? extends Authority> leftAuthority = left.authority();
+        final Optional<? extends Authority> rightAuthority = right.authority();
+        if (leftAuthority.isPresent() != rightAuthority.isPresent())
+        {
+            return leftAuthority.isPresent() ? 1 : -1;
+        }
+        if (leftAuthority.isPresent())
+        {
+            result = compare(leftAuthority.value(), rightAuthority.value());
+            if (result != 0)
+            {
+                return result;
+            }
+        }
+
+        result = compare(left.path().iterator(), right.path().iterator());
+        if (result != 0)
+        {
+            return result;
+        }
+        result = compare(left.query(), right.query());
+        if (result != 0)
+        {
+            return result;
+        }
+        return compare(left.fragment(), right.fragment());
+    }
+
+
+    private static int compare(Authority left, Authority right)
+    {
+        int result = compare(left.host(), right.host());
+        if (result != 0)
+        {
+            return result;
+        }
+        final Optional<Integer> leftPort = left.port();
+        final Optional<Integer> rightPort = right.port();
+        if (leftPort.isPresent() != rightPort.isPresent())
+        {
+            return leftPort.isPresent() ? 1 : -1;
+        }
+        if (leftPort.isPresent())
+        {
+            result = Integer.compare(leftPort.value(), rightPort.value());
+            if (result != 0)
+            {
+                return result;
+            }
+        }
+        return compare(left.userInfo(), right.userInfo());
+    }
+
+
+    private static int compare(Iterator<UriEncoded> left, Iterator<UriEncoded> right)
+    {
+        while (left.hasNext() && right.hasNext())
+        {
+            final int result = compare(left.next(), right.next());
+            if (result != 0)
+            {
+                return result;
+            }
+        }
+        return left.hasNext() ? 1 : right.hasNext() ? -1 : 0;
+    }
+
+
+    private static int compare(Optional<? extends CharSequence> left, Optional<? extends CharSequence> right)
+    {
+        if (left.isPresent() != right.isPresent())
+        {
+            return left.isPresent() ? 1 : -1;
+        }
+        return left.isPresent() ? compare(left.value(), right.value()) : 0;
+    }
+
+
+    private static int compare(CharSequence left, CharSequence right)
+    {
+        final int leftLength = left.length();
+        final int rightLength = right.length();
+        for (int i = 0, length = Math.min(leftLength, rightLength); i < length; ++i)
+        {
+            final int result = left.charAt(i) - right.charAt(i);
+            if (result != 0)
+            {
+                return result;
+            }
+        }
+        return leftLength - rightLength;
+    }
+}
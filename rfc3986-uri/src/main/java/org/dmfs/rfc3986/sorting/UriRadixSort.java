@@ -0,0 +1,345 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.sorting;
+
+import org.dmfs.jems2.Optional;
+import org.dmfs.rfc3986.Authority;
+import org.dmfs.rfc3986.Uri;
+import org.dmfs.rfc3986.UriEncoded;
+
+import java.util.Arrays;
+
+
+/**
+ * An MSD radix sort for large arrays of URIs.
+ * <p>
+ * This is a three-way radix quicksort, which partitions by the character at the current position and only moves on to the next position within the
+ * partition of equal characters. Common prefixes, like {@code https://www.}, are compared once per partition instead of once per comparison and no bucket
+ * arrays are needed for the large alphabet of {@code char}s. Small partitions are finished with an insertion sort.
+ * <p>
+ * {@link #sort(UriEncoded[])} sorts encoded URIs in the order of their {@link String} values. {@link #sort(Uri[])} sorts {@link Uri}s in the order of
+ * {@link UriComparator}. It reads the components of each {@link Uri} once and refers to them, but doesn't copy their characters.
+ */
+public final class UriRadixSort
+{
+    public final static UriRadixSort INSTANCE = new UriRadixSort();
+
+    private final static int INSERTION_SORT_THRESHOLD = 12;
+
+    private final static Digits<UriEncoded> CHARS = (uri, depth) -> depth < uri.length() ? uri.charAt(depth) : -1;
+    private final static Digits<Cursor> SYMBOLS = Cursor::digit;
+
+
+    private UriRadixSort()
+    {
+    }
+
+
+    /**
+     * Sorts the given encoded URIs in the order of their {@link String} values.
+     */
+    public void sort(UriEncoded[] uris)
+    {
+        sort(uris, 0, uris.length, 0, CHARS);
+    }
+
+
+    /**
+     * Sorts the given {@link Uri}s in the order of {@link UriComparator}.
+     */
+    public void sort(Uri[] uris)
+    {
+        final Cursor[] cursors = new Cursor[uris.length];
+        for (int i = 0; i < uris.length; ++i)
+        {
+            cursors[i] = new Cursor(uris[i]);
+        }
+        sort(cursors, 0, cursors.length, 0, SYMBOLS);
+        for (int i = 0; i < uris.length; ++i)
+        {
+            uris[i] = cursors[i].mUri;
+        }
+    }
+
+
+    /**
+     * Sorts the elements between {@code start} and {@code end}, which are known to be equal up to the given depth.
+     * <p>
+     * Partitions are kept on an explicit stack of {@code (start, end, depth)} triples rather than the call stack, since the depth grows with the length of
+     * common prefixes, which may be thousands of chars long.
+     */
+    private static <T> void sort(T[] elements, int start, int end, int depth, Digits<T> digits)
+    {
+        int[] stack = new int[3 * 32];
+        int size = 0;
+        stack[size++] = start;
+        stack[size++] = end;
+        stack[size++] = depth;
+        while (size > 0)
+        {
+            final int d = stack[--size];
+            final int e = stack[--size];
+            final int s = stack[--size];
+            if (e - s <= INSERTION_SORT_THRESHOLD)
+            {
+                insertionSort(elements, s, e, d, digits);
+                continue;
+            }
+            swap(elements, s, medianOfThree(elements, s, s + (e - s) / 2, e - 1, d, digits));
+            final int pivot = digits.digit(elements[s], d);
+            int lower = s;
+            int upper = e - 1;
+            int i = s + 1;
+            // invariant: [s, lower) < pivot, [lower, i) == pivot, (upper, e) > pivot
+            while (i <= upper)
+            {
+                final int digit = digits.digit(elements[i], d);
+                if (digit < pivot)
+                {
+                    swap(elements, lower++, i++);
+                }
+                else if (digit > pivot)
+                {
+                    swap(elements, i, upper--);
+                }
+                else
+                {
+                    ++i;
+                }
+            }
+            if (stack.length < size + 9)
+            {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            if (s < lower - 1)
+            {
+                stack[size++] = s;
+                stack[size++] = lower;
+                stack[size++] = d;
+            }
+            if (upper + 1 < e - 1)
+            {
+                stack[size++] = upper + 1;
+                stack[size++] = e;
+                stack[size++] = d;
+            }
+            if (pivot >= 0 && lower < upper)
+            {
+                // elements that end at this depth are equal, all others continue with the next position
+                stack[size++] = lower;
+                stack[size++] = upper + 1;
+                stack[size++] = d + 1;
+            }
+        }
+    }
+
+
+    private static <T> void insertionSort(T[] elements, int start, int end, int depth, Digits<T> digits)
+    {
+        for (int i = start + 1; i < end; ++i)
+        {
+            for (int j = i; j > start && compare(elements[j - 1], elements[j], depth, digits) > 0; --j)
+            {
+                swap(elements, j - 1, j);
+            }
+        }
+    }
+
+
+    private static <T> int compare(T left, T right, int depth, Digits<T> digits)
+    {
+        for (int d = depth; ; ++d)
+        {
+            final int leftDigit = digits.digit(left, d);
+            final int rightDigit = digits.digit(right, d);
+            if (leftDigit != rightDigit)
+            {
+                return leftDigit < rightDigit ? -1 : 1;
+            }
+            if (leftDigit < 0)
+            {
+                return 0;
+            }
+        }
+    }
+
+
+    private static <T> int medianOfThree(T[] elements, int a, int b, int c, int depth, Digits<T> digits)
+    {
+        final int da = digits.digit(elements[a], depth);
+        final int db = digits.digit(elements[b], depth);
+        final int dc = digits.digit(elements[c], depth);
+        if (da < db)
+        {
+            return db < dc ? b : da < dc ? c : a;
+        }
+        return da < dc ? a : db < dc ? c : b;
+    }
+
+
+    private static void swap(Object[] elements, int i, int j)
+    {
+        final Object element = elements[i];
+        elements[i] = elements[j];
+        elements[j] = element;
+    }
+
+
+    /**
+     * The digits of the sort keys of the elements, {@code -1} past the end of a key.
+     */
+    private interface Digits<T>
+    {
+        int digit(T element, int depth);
+    }
+
+
+    /**
+     * A {@link Uri} and a cursor on its sort key.
+     * <p>
+     * The key is a sequence of symbols, that's ordered like {@link UriComparator} orders the {@link Uri}s. Each component is either {@link #ABSENT} or
+     * {@link #PRESENT} followed by its chars and {@link #END}. Each path segment starts with a {@link #SEGMENT} and the port is a single symbol. The key is
+     * stored as a list of pieces, each of which is either a symbol or a run of chars of a component, so the chars are not copied.
+     */
+    private final static class Cursor
+    {
+        private final static int ABSENT = 0;
+        private final static int PRESENT = 1;
+        private final static int END = 2;
+        private final static int SEGMENT = 3;
+        // chars and ports are shifted above the symbols
+        private final static int OFFSET = 4;
+
+        private final Uri mUri;
+        private int[] mSymbols = new int[16];
+        private CharSequence[] mRuns = new CharSequence[16];
+        private int mCount;
+
+        private int mPiece;
+        private int mPieceStart;
+
+
+        private Cursor(Uri uri)
+        {
+            mUri = uri;
+            add(uri.scheme());
+            final Optional<? extends Authority> authority = uri.authority();
+            if (authority.isPresent())
+            {
+                add(authority.value().host());
+                final Optional<Integer> port = authority.value().port();
+                if (port.isPresent())
+                {
+                    addSymbol(PRESENT);
+                    addSymbol(port.value() + OFFSET);
+                    addSymbol(END);
+                }
+                else
+                {
+                    addSymbol(ABSENT);
+                }
+                add(authority.value().userInfo());
+            }
+            else
+            {
+                addSymbol(ABSENT);
+                addSymbol(ABSENT);
+                addSymbol(ABSENT);
+            }
+            addSymbol(PRESENT);
+            for (UriEncoded segment : uri.path())
+            {
+                addSymbol(SEGMENT);
+                addRun(segment);
+            }
+            addSymbol(END);
+            add(uri.query());
+            add(uri.fragment());
+        }
+
+
+        int digit(int depth)
+        {
+            if (depth < mPieceStart)
+            {
+                // comparisons restart at a lower depth, rewind
+                mPiece = 0;
+                mPieceStart = 0;
+            }
+            while (mPiece < mCount)
+            {
+                final CharSequence run = mRuns[mPiece];
+                final int length = run == null ? 1 : run.length();
+                if (depth < mPieceStart + length)
+                {
+                    return run == null ? mSymbols[mPiece] : run.charAt(depth - mPieceStart) + OFFSET;
+                }
+                mPieceStart += length;
+                ++mPiece;
+            }
+            return -1;
+        }
+
+
+        private void add(Optional<? extends CharSequence> component)
+        {
+            if (component.isPresent())
+            {
+                add(component.value());
+            }
+            else
+            {
+                addSymbol(ABSENT);
+            }
+        }
+
+
+        private void add(CharSequence component)
+        {
+            addSymbol(PRESENT);
+            addRun(component);
+            addSymbol(END);
+        }
+
+
+        private void addSymbol(int symbol)
+        {
+            grow();
+            mSymbols[mCount++] = symbol;
+        }
+
+
+        private void addRun(CharSequence run)
+        {
+            if (run.length() > 0)
+            {
+                grow();
+                mRuns[mCount++] = run;
+            }
+        }
+
+
+        private void grow()
+        {
+            if (mCount == mSymbols.length)
+            {
+                mSymbols = Arrays.copyOf(mSymbols, mCount * 2);
+                mRuns = Arrays.copyOf(mRuns, mCount * 2);
+            }
+        }
+    }
+}
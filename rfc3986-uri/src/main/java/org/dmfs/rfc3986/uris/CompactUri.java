@@ -0,0 +1,250 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.uris;
+
+import org.dmfs.jems2.Optional;
+import org.dmfs.jems2.optional.Present;
+import org.dmfs.rfc3986.*;
+import org.dmfs.rfc3986.authorities.StructuredAuthority;
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.fragments.SimpleFragment;
+import org.dmfs.rfc3986.paths.EmptyPath;
+import org.dmfs.rfc3986.paths.EncodedPath;
+import org.dmfs.rfc3986.queries.SimpleQuery;
+import org.dmfs.rfc3986.utils.UriScanner;
+
+import static org.dmfs.jems2.optional.Absent.absent;
+import static org.dmfs.rfc3986.utils.UriScanner.*;
+
+
+/**
+ * An eagerly parsed and validated {@link Uri} with a small memory footprint.
+ * <p>
+ * A {@link CompactUri} holds nothing but the {@link String} of the URI and the boundaries of its components, packed into two {@code long}s. That makes it
+ * about as small as an object with a single reference can get, which is meant for use cases that hold millions of URIs in memory, like deduplication or link
+ * analysis.
+ * <p>
+ * The components are not cached. Each call to a component accessor returns a new view on the {@link String}, so callers that read the same components
+ * over and over again should keep the result or use an {@link IndexedUri}.
+ * <p>
+ * Note, the constructor throws an {@link IllegalArgumentException} if the given {@link UriEncoded} {@link CharSequence} is not a valid URI reference or
+ * longer than {@link #MAX_LENGTH} characters.
+ */
+public final class CompactUri implements Uri
+{
+    /**
+     * The maximum length of a {@link CompactUri}.
+     */
+    public final static int MAX_LENGTH = (1 << 21) - 2;
+
+    // each long holds three boundaries of 21 bits, a boundary is stored as position + 1, so 0 means absent
+    private final static int BITS = 21;
+    private final static long MASK = (1L << BITS) - 1;
+
+    private final String mUri;
+    // scheme end, user info end, host end
+    private final long mAuthorityBounds;
+    // path start, path end, query end
+    private final long mPathBounds;
+
+
+    /**
+     * Creates a {@link CompactUri} from the given {@link UriEncoded} {@link CharSequence}.
+     *
+     * @param uri
+     *         The properly {@link UriEncoded} uri.
+     */
+    public CompactUri(UriEncoded uri)
+    {
+        if (uri.length() > MAX_LENGTH)
+        {
+            throw new IllegalArgumentException(String.format("URI of length %d exceeds the maximum length of %d", uri.length(), MAX_LENGTH));
+        }
+        final int[] table = UriScanner.INSTANCE.table(uri);
+        mUri = uri.toString();
+        mAuthorityBounds = packed(table[SCHEME_END], table[USER_INFO_END], table[HOST_END]);
+        mPathBounds = packed(table[PATH_START], table[PATH_END], table[QUERY_END]);
+    }
+
+
+    @Override
+    public Optional<? extends Scheme> scheme()
+    {
+        final int schemeEnd = bound(mAuthorityBounds, 0);
+        if (schemeEnd < 0)
+        {
+            return absent();
+        }
+        return new Present<>(new CompactScheme(mUri.substring(0, schemeEnd)));
+    }
+
+
+    @Override
+    public Optional<? extends Authority> authority()
+    {
+        final long bounds = mAuthorityBounds;
+        final int hostEnd = bound(bounds, 2);
+        if (hostEnd < 0)
+        {
+            return absent();
+        }
+        final int authorityStart = bound(bounds, 0) + 3 /* skip ":" and "//", also works without a scheme */;
+        final int userInfoEnd = bound(bounds, 1);
+        final int hostStart = userInfoEnd < 0 ? authorityStart : userInfoEnd + 1;
+        return new Present<>(
+            new StructuredAuthority(
+                userInfoEnd < 0 ? absent() : new Present<>(encoded(authorityStart, userInfoEnd)),
+                encoded(hostStart, hostEnd),
+                port(hostEnd, bound(mPathBounds, 0))));
+    }
+
+
+    @Override
+    public Path path()
+    {
+        final long bounds = mPathBounds;
+        final int pathStart = bound(bounds, 0);
+        final int pathEnd = bound(bounds, 1);
+        return pathStart == pathEnd ? EmptyPath.INSTANCE : new EncodedPath(encoded(pathStart, pathEnd));
+    }
+
+
+    @Override
+    public Optional<? extends Query> query()
+    {
+        final long bounds = mPathBounds;
+        final int queryEnd = bound(bounds, 2);
+        if (queryEnd < 0)
+        {
+            return absent();
+        }
+        return new Present<>(new SimpleQuery(encoded(bound(bounds, 1) + 1 /* skip the "?" */, queryEnd)));
+    }
+
+
+    @Override
+    public Optional<? extends Fragment> fragment()
+    {
+        final long bounds = mPathBounds;
+        final int queryEnd = bound(bounds, 2);
+        // the fragment starts right after the "#", which follows the query or, if there is no query, the path
+        final int fragmentStart = (queryEnd < 0 ? bound(bounds, 1) : queryEnd) + 1;
+        if (fragmentStart > mUri.length())
+        {
+            return absent();
+        }
+        return new Present<>(new SimpleFragment(encoded(fragmentStart, mUri.length())));
+    }
+
+
+    @Override
+    public boolean isHierarchical()
+    {
+        final int pathStart = bound(mPathBounds, 0);
+        return bound(mAuthorityBounds, 0) < 0
+            || bound(mAuthorityBounds, 2) >= 0
+            || pathStart < bound(mPathBounds, 1) && mUri.charAt(pathStart) == '/';
+    }
+
+
+    @Override
+    public boolean isAbsolute()
+    {
+        return bound(mAuthorityBounds, 0) >= 0;
+    }
+
+
+    private UriEncoded encoded(int start, int end)
+    {
+        return new Precoded(mUri).subSequence(start, end);
+    }
+
+
+    /**
+     * Returns the port, which is located between the host and the path.
+     */
+    private Optional<Integer> port(int hostEnd, int pathStart)
+    {
+        if (pathStart <= hostEnd)
+        {
+            // no port (an empty port is treated as absent by the scanner, in which case the ":" is part of the path)
+            return absent();
+        }
+        int port = 0;
+        for (int i = hostEnd + 1 /* skip the ":" */; i < pathStart; ++i)
+        {
+            port = port * 10 + mUri.charAt(i) - '0';
+        }
+        return new Present<>(port);
+    }
+
+
+    private static long packed(int first, int second, int third)
+    {
+        return (first + 1L) | (second + 1L) << BITS | (third + 1L) << 2 * BITS;
+    }
+
+
+    private static int bound(long bounds, int index)
+    {
+        return (int) (bounds >>> index * BITS & MASK) - 1;
+    }
+
+
+    /**
+     * A private class to hold the actual scheme. It doesn't perform any validation, so we don't make it public and use it with validated {@link CharSequence}s
+     * only.
+     */
+    private final static class CompactScheme implements Scheme
+    {
+        private final String mScheme;
+
+
+        private CompactScheme(String scheme)
+        {
+            mScheme = scheme;
+        }
+
+
+        @Override
+        public int length()
+        {
+            return mScheme.length();
+        }
+
+
+        @Override
+        public char charAt(int i)
+        {
+            return mScheme.charAt(i);
+        }
+
+
+        @Override
+        public CharSequence subSequence(int i, int i1)
+        {
+            return mScheme.subSequence(i, i1);
+        }
+
+
+        @Override
+        public String toString()
+        {
+            return mScheme;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.uris;
+
+import org.dmfs.jems2.Optional;
+import org.dmfs.jems2.optional.Present;
+import org.dmfs.rfc3986.*;
+import org.dmfs.rfc3986.authorities.StructuredAuthority;
+import org.dmfs.rfc3986.fragments.SimpleFragment;
+import org.dmfs.rfc3986.paths.EmptyPath;
+import org.dmfs.rfc3986.paths.EncodedPath;
+import org.dmfs.rfc3986.queries.SimpleQuery;
+import org.dmfs.rfc3986.utils.UriScanner;
+
+import static org.dmfs.jems2.optional.Absent.absent;
+import static org.dmfs.rfc3986.utils.UriScanner.*;
+
+
+/**
+ * An eagerly parsed and validated {@link Uri}.
+ * <p>
+ * In contrast to {@link LazyUri} this scans the entire URI once, when it's created, and records the boundaries of all components in a table (see
+ * {@link UriScanner}). All component accessors are simple views into that table. This is the better choice if most of the components are going to be read
+ * anyway.
+ * <p>
+ * Note, the constructor throws an {@link IllegalArgumentException} if the given {@link UriEncoded} {@link CharSequence} is not a valid URI reference.
+ */
+public final class IndexedUri implements Uri
+{
+    private final UriEncoded mUriEncoded;
+    private final int[] mTable;
+    private final int mOffset;
+
+
+    /**
+     * Creates an {@link IndexedUri} from the given {@link UriEncoded} {@link CharSequence}.
+     *
+     * @param uri
+     *         The properly {@link UriEncoded} uri.
+     */
+    public IndexedUri(UriEncoded uri)
+    {
+        this(uri, UriScanner.INSTANCE.table(uri), 0);
+    }
+
+
+    /**
+     * Creates an {@link IndexedUri} from the given {@link UriEncoded} {@link CharSequence} and a table of component boundaries, that has been created by
+     * {@link UriScanner} for this very {@link CharSequence}.
+     * <p>
+     * The table is not validated, nor copied. It must not be modified afterwards.
+     *
+     * @param uri
+     *         The properly {@link UriEncoded} uri.
+     * @param table
+     *         The boundary table.
+     * @param offset
+     *         The position of the first slot of this uri in {@code table}.
+     */
+    public IndexedUri(UriEncoded uri, int[] table, int offset)
+    {
+        mUriEncoded = uri;
+        mTable = table;
+        mOffset = offset;
+    }
+
+
+    @Override
+    public Optional<? extends Scheme> scheme()
+    {
+        final int schemeEnd = mTable[mOffset + SCHEME_END];
+        if (schemeEnd < 0)
+        {
+            return absent();
+        }
+        return new Present<>(new IndexedScheme(mUriEncoded.subSequence(0, schemeEnd)));
+    }
+
+
+    @Override
+    public Optional<? extends Authority> authority()
+    {
+        final int[] table = mTable;
+        final int offset = mOffset;
+        final int hostStart = table[offset + HOST_START];
+        if (hostStart < 0)
+        {
+            return absent();
+        }
+        final int userInfoEnd = table[offset + USER_INFO_END];
+        final int port = table[offset + PORT];
+        return new Present<>(
+            new StructuredAuthority(
+                userInfoEnd < 0 ? absent() : new Present<>(mUriEncoded.subSequence(table[offset + SCHEME_END] + 3 /* skip ":" and "//" */, userInfoEnd)),
+                mUriEncoded.subSequence(hostStart, table[offset + HOST_END]),
+                port < 0 ? absent() : new Present<>(port)));
+    }
+
+
+    @Override
+    public Path path()
+    {
+        final int pathStart = mTable[mOffset + PATH_START];
+        final int pathEnd = mTable[mOffset + PATH_END];
+        return pathStart == pathEnd ? EmptyPath.INSTANCE : new EncodedPath(mUriEncoded.subSequence(pathStart, pathEnd));
+    }
+
+
+    @Override
+    public Optional<? extends Query> query()
+    {
+        final int queryEnd = mTable[mOffset + QUERY_END];
+        if (queryEnd < 0)
+        {
+            return absent();
+        }
+        return new Present<>(new SimpleQuery(mUriEncoded.subSequence(mTable[mOffset + PATH_END] + 1 /* skip the "?" */, queryEnd)));
+    }
+
+
+    @Override
+    public Optional<? extends Fragment> fragment()
+    {
+        final int fragmentStart = mTable[mOffset + FRAGMENT_START];
+        if (fragmentStart < 0)
+        {
+            return absent();
+        }
+        return new Present<>(new SimpleFragment(mUriEncoded.subSequence(fragmentStart, mUriEncoded.length())));
+    }
+
+
+    @Override
+    public boolean isHierarchical()
+    {
+        final int pathStart = mTable[mOffset + PATH_START];
+        return mTable[mOffset + SCHEME_END] < 0
+            || mTable[mOffset + HOST_START] >= 0
+            || pathStart < mTable[mOffset + PATH_END] && mUriEncoded.charAt(pathStart) == '/';
+    }
+
+
+    @Override
+    public boolean isAbsolute()
+    {
+        return mTable[mOffset + SCHEME_END] >= 0;
+    }
+
+
+    /**
+     * A private class to hold the actual scheme. It doesn't perform any validation, so we don't make it public and use it with validated {@link CharSequence}s
+     * only.
+     */
+    private final static class IndexedScheme implements Scheme
+    {
+        private final CharSequence mScheme;
+
+
+        private IndexedScheme(CharSequence scheme)
+        {
+            mScheme = scheme;
+        }
+
+
+        @Override
+        public int length()
+        {
+            return mScheme.length();
+        }
+
+
+        @Override
+        public char charAt(int i)
+        {
+            return mScheme.charAt(i);
+        }
+
+
+        @Override
+        public CharSequence subSequence(int i, int i1)
+        {
+            return mScheme.subSequence(i, i1);
+        }
+
+
+        @Override
+        public String toString()
+        {
+            return mScheme.toString();
+        }
+    }
+}
@@ -24,6 +24,8 @@ import org.dmfs.rfc3986.UriEncoded;
 import org.dmfs.rfc3986.authorities.OptionalLazyAuthority;
 import org.dmfs.rfc3986.fragments.OptionalLazyFragment;
 import org.dmfs.rfc3986.paths.LazyPath;
+import org.dmfs.rfc3986.pools.ComponentPool;
+import org.dmfs.rfc3986.pools.Unpooled;
 import org.dmfs.rfc3986.queries.OptionalLazyQuery;
 import org.dmfs.rfc3986.schemes.OptionalLazyScheme;
 
@@ -32,10 +34,14 @@ import org.dmfs.rfc3986.schemes.OptionalLazyScheme;
  * A lazily parsed and validated {@link Uri}.
  * <p>
  * To validate the entire URI you need to call {@link #fragment()}, otherwise the URI is only parsed and validated as far as necessary.
+ * <p>
+ * Instances can be shared among threads without further synchronization. Each component is cached with the racy single-check idiom, so concurrent threads
+ * may parse a component more than once, but they never see a partially initialized component.
  */
 public final class LazyUri implements Uri
 {
     private final UriEncoded mUriEncoded;
+    private final ComponentPool mPool;
     private final OptionalLazyScheme mOptionalScheme;
     private OptionalLazyAuthority mAuthority;
     private LazyPath mPath;
@@ -49,9 +55,29 @@ public final class LazyUri implements Uri
      * @param uri The properly {@link UriEncoded} uri.
      */
     public LazyUri(UriEncoded uri)
+    {
+        this(uri, Unpooled.INSTANCE, new OptionalLazyScheme(uri));
+    }
+
+
+    /**
+     * Create a lazy {@link Uri} from the given {@link UriEncoded} {@link CharSequence}, taking the scheme, the host and the path segments from the given
+     * {@link ComponentPool}. Common schemes are returned as {@link org.dmfs.rfc3986.schemes.Schemes} constants, see {@link OptionalLazyScheme}.
+     *
+     * @param uri The properly {@link UriEncoded} uri.
+     * @param pool The {@link ComponentPool} to take the components from.
+     */
+    public LazyUri(UriEncoded uri, ComponentPool pool)
+    {
+        this(uri, pool, new OptionalLazyScheme(uri, pool));
+    }
+
+
+    private LazyUri(UriEncoded uri, ComponentPool pool, OptionalLazyScheme scheme)
     {
         mUriEncoded = uri;
-        mOptionalScheme = new OptionalLazyScheme(uri);
+        mPool = pool;
+        mOptionalScheme = scheme;
     }
 
 
@@ -65,47 +91,55 @@ public final class LazyUri implements Uri
     @Override
     public OptionalLazyAuthority authority()
     {
-        if (mAuthority == null)
+        OptionalLazyAuthority result = mAuthority;
+        if (result == null)
         {
-            mAuthority = new OptionalLazyAuthority(mUriEncoded.subSequence(mOptionalScheme.parsedLength(), mUriEncoded.length()));
+            result = new OptionalLazyAuthority(mUriEncoded.subSequence(mOptionalScheme.parsedLength(), mUriEncoded.length()), mPool);
+            mAuthority = result;
         }
-        return mAuthority;
+        return result;
     }
 
 
     @Override
     public LazyPath path()
     {
-        if (mPath == null)
+        LazyPath result = mPath;
+        if (result == null)
         {
-            mPath = new LazyPath(mUriEncoded.subSequence(mOptionalScheme.parsedLength() + authority().parsedLength(), mUriEncoded.length()));
+            result = new LazyPath(mUriEncoded.subSequence(mOptionalScheme.parsedLength() + authority().parsedLength(), mUriEncoded.length()), mPool);
+            mPath = result;
         }
-        return mPath;
+        return result;
     }
 
 
     @Override
     public OptionalLazyQuery query()
     {
-        if (mQuery == null)
+        OptionalLazyQuery result = mQuery;
+        if (result == null)
         {
-            mQuery = new OptionalLazyQuery(
+            result = new OptionalLazyQuery(
                 mUriEncoded.subSequence(mOptionalScheme.parsedLength() + authority().parsedLength() + path().parsedLength(), mUriEncoded.length()));
+            mQuery = result;
         }
-        return mQuery;
+        return result;
     }
 
 
     @Override
     public Optional<? extends Fragment> fragment()
     {
-        if (mFragment == null)
+        Optional<Fragment> result = mFragment;
+        if (result == null)
         {
-            mFragment = new OptionalLazyFragment(
+            result = new OptionalLazyFragment(
                 mUriEncoded.subSequence(mOptionalScheme.parsedLength() + authority().parsedLength() + path().parsedLength() + query().parsedLength(),
                     mUriEncoded.length()));
+            mFragment = result;
         }
-        return mFragment;
+        return result;
     }
 
 
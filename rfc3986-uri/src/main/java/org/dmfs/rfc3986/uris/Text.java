@@ -62,7 +62,8 @@ public final class Text implements CharSequence
     @Override
     public String toString()
     {
-        if (mString == null)
+        String result = mString;
+        if (result == null)
         {
             StringBuilder stringBuilder = new StringBuilder(128);
             if (mUri.scheme().isPresent())
@@ -93,8 +94,9 @@ public final class Text implements CharSequence
                 stringBuilder.append('#');
                 stringBuilder.append(optFragment.value());
             }
-            mString = stringBuilder.toString();
+            result = stringBuilder.toString();
+            mString = result;
         }
-        return mString;
+        return result;
     }
 }
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.utils;
+
+import org.dmfs.jems2.iterator.BaseIterator;
+import org.dmfs.rfc3986.UriEncoded;
+import org.dmfs.rfc3986.encoding.AsciiPrecoded;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+
+/**
+ * The non-empty lines of a file of encoded US-ASCII values (like one URI per line), read from memory mapped windows of the file.
+ * <p>
+ * Each line is returned as an {@link AsciiPrecoded} view on the mapped region, no line is copied to the Java heap. Line terminators ({@code "\n"} and
+ * {@code "\r\n"}) are not part of the lines. Empty lines are skipped.
+ * <p>
+ * The file is mapped window by window, so it may be larger than the heap and even larger than the 2 GB limit of a single mapping. However, each line must fit
+ * into a single window.
+ * <p>
+ * A {@link MappedLines} may cover only a region of a file, in which case it contains all lines that start within that region. Lines that start before the
+ * region but reach into it are not included, lines that start within the region but exceed its end are included. That means, adjacent regions (see
+ * {@link MappedPartitions}) return every line of a file exactly once.
+ * <p>
+ * Example:
+ * <pre>
+ * for (Iterator&lt;Uri&gt; uris = new Mapped&lt;&gt;(LazyUri::new, new MappedLines(channel).iterator()); uris.hasNext(); )
+ * {
+ *     ...
+ * }
+ * </pre>
+ */
+public final class MappedLines implements Iterable<UriEncoded>
+{
+    /**
+     * The default window size, 32 MiB.
+     */
+    public final static int DEFAULT_WINDOW_SIZE = 32 * 1024 * 1024;
+
+    private final FileChannel mChannel;
+    private final long mStart;
+    private final long mEnd;
+    private final int mWindowSize;
+
+
+    /**
+     * All lines of the given file.
+     */
+    public MappedLines(FileChannel channel)
+    {
+        this(channel, 0, Long.MAX_VALUE);
+    }
+
+
+    /**
+     * The lines of the given file that start within the given region.
+     *
+     * @param channel
+     *         The {@link FileChannel} of the file.
+     * @param start
+     *         The start of the region.
+     * @param end
+     *         The end of the region (exclusive). The end of the file is used if this is larger than the file.
+     */
+    public MappedLines(FileChannel channel, long start, long end)
+    {
+        this(channel, start, end, DEFAULT_WINDOW_SIZE);
+    }
+
+
+    /**
+     * The lines of the given file that start within the given region, mapped in windows of the given size.
+     *
+     * @param channel
+     *         The {@link FileChannel} of the file.
+     * @param start
+     *         The start of the region.
+     * @param end
+     *         The end of the region (exclusive). The end of the file is used if this is larger than the file.
+     * @param windowSize
+     *         The size of the mapped windows. This limits the length of a line.
+     */
+    public MappedLines(FileChannel channel, long start, long end, int windowSize)
+    {
+        if (windowSize < 2)
+        {
+            throw new IllegalArgumentException(String.format("Window size %d is too small", windowSize));
+        }
+        mChannel = channel;
+        mStart = start;
+        mEnd = end;
+        mWindowSize = windowSize;
+    }
+
+
+    @Override
+    public Iterator<UriEncoded> iterator()
+    {
+        try
+        {
+            final long size = mChannel.size();
+            return new LineIterator(mChannel, Math.min(mStart, size), Math.min(mEnd, size), size, mWindowSize);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /**
+     * An {@link Iterator} that returns the lines of a file region.
+     */
+    private final static class LineIterator extends BaseIterator<UriEncoded>
+    {
+        private final FileChannel mChannel;
+        private final long mEnd;
+        private final long mFileSize;
+        private final int mWindowSize;
+
+        private MappedByteBuffer mWindow;
+        private long mWindowStart;
+        // the position of the next line relative to the current window
+        private int mPos;
+        private UriEncoded mNext;
+
+
+        private LineIterator(FileChannel channel, long start, long end, long fileSize, int windowSize) throws IOException
+        {
+            mChannel = channel;
+            mEnd = end;
+            mFileSize = fileSize;
+            mWindowSize = windowSize;
+            if (start > 0 && start < end)
+            {
+                // check if a line starts right at the start of the region, otherwise that line belongs to the previous region
+                map(start - 1);
+                if (mWindow.get(0) != '\n')
+                {
+                    skipLine();
+                }
+                else
+                {
+                    mPos = 1;
+                }
+            }
+            else
+            {
+                map(start);
+            }
+        }
+
+
+        @Override
+        public boolean hasNext()
+        {
+            while (mNext == null && mWindowStart + mPos < mEnd)
+            {
+                mNext = line();
+            }
+            return mNext != null;
+        }
+
+
+        @Override
+        public UriEncoded next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException("No more lines to iterate.");
+            }
+            UriEncoded result = mNext;
+            mNext = null;
+            return result;
+        }
+
+
+        /**
+         * Returns the line at the current position and moves to the start of the next line. Returns {@code null} if the line is empty.
+         */
+        private UriEncoded line()
+        {
+            int lineEnd = lineEnd();
+            int start = mPos;
+            mPos = lineEnd + 1;
+            if (lineEnd > start && mWindow.get(lineEnd - 1) == '\r')
+            {
+                lineEnd -= 1;
+            }
+            return lineEnd == start ? null : new AsciiPrecoded(mWindow, start, lineEnd);
+        }
+
+
+        /**
+         * Moves to the start of the next line.
+         */
+        private void skipLine()
+        {
+            mPos = lineEnd() + 1;
+        }
+
+
+        /**
+         * Returns the position of the line feed that terminates the line at the current position (or the position of the end of the file if the line is not
+         * terminated), relative to the window. Maps a new window if necessary.
+         */
+        private int lineEnd()
+        {
+            while (true)
+            {
+                final MappedByteBuffer window = mWindow;
+                final int limit = window.limit();
+                int i = mPos;
+                while (i < limit && window.get(i) != '\n')
+                {
+                    ++i;
+                }
+                if (i < limit || mWindowStart + limit == mFileSize)
+                {
+                    return i;
+                }
+                if (mPos == 0)
+                {
+                    throw new IllegalStateException(String.format("Line at position %d exceeds window size %d", mWindowStart, mWindowSize));
+                }
+                // the line is not complete, map a new window starting with this line
+                try
+                {
+                    map(mWindowStart + mPos);
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+
+        private void map(long position) throws IOException
+        {
+            mWindow = mChannel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(mWindowSize, mFileSize - position));
+            mWindowStart = position;
+            mPos = 0;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.utils;
+
+import org.dmfs.jems2.iterator.BaseIterator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+
+/**
+ * Splits a file into a number of adjacent regions of roughly equal size and returns the {@link MappedLines} of each region. Each line of the file is contained
+ * in exactly one of them.
+ * <p>
+ * The partitions are independent of each other, so they can be processed in parallel, e.g. one per core:
+ * <pre>
+ * for (MappedLines partition : new MappedPartitions(channel, Runtime.getRuntime().availableProcessors()))
+ * {
+ *     executor.submit(() -&gt; process(partition));
+ * }
+ * </pre>
+ */
+public final class MappedPartitions implements Iterable<MappedLines>
+{
+    private final FileChannel mChannel;
+    private final int mCount;
+    private final int mWindowSize;
+
+
+    public MappedPartitions(FileChannel channel, int count)
+    {
+        this(channel, count, MappedLines.DEFAULT_WINDOW_SIZE);
+    }
+
+
+    public MappedPartitions(FileChannel channel, int count, int windowSize)
+    {
+        if (count < 1)
+        {
+            throw new IllegalArgumentException(String.format("Partition count must be positive, but was %d", count));
+        }
+        mChannel = channel;
+        mCount = count;
+        mWindowSize = windowSize;
+    }
+
+
+    @Override
+    public Iterator<MappedLines> iterator()
+    {
+        final long size;
+        try
+        {
+            size = mChannel.size();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+
+        return new BaseIterator<MappedLines>()
+        {
+            private int mNext;
+
+
+            @Override
+            public boolean hasNext()
+            {
+                return mNext < mCount;
+            }
+
+
+            @Override
+            public MappedLines next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException("No more partitions to iterate.");
+                }
+                long start = size * mNext / mCount;
+                mNext += 1;
+                return new MappedLines(mChannel, start, size * mNext / mCount, mWindowSize);
+            }
+        };
+    }
+}
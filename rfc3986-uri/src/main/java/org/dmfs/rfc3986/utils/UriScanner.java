@@ -0,0 +1,204 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.utils;
+
+import static org.dmfs.rfc3986.validation.CharSets.*;
+
+
+/**
+ * A scanner that parses and validates an encoded URI reference in a single pass and records the boundaries of all of its components in a table of
+ * {@link #SLOTS} ints.
+ * <p>
+ * All positions are relative to the beginning of the scanned {@link CharSequence}. Absent components are marked with {@code -1}. The table layout is:
+ * <pre>
+ * SCHEME_END       position of the ":" that terminates the scheme, the scheme starts at 0
+ * USER_INFO_END    position of the "@" that terminates the user info, the user info starts right after the "//"
+ * HOST_START       start of the host, {@code -1} if there is no authority
+ * HOST_END         end of the host (exclusive)
+ * PORT             the port number
+ * PATH_START       start of the path, this is also the end of the authority
+ * PATH_END         end of the path (exclusive), that's the position of the "?" or "#" if there is a query or fragment
+ * QUERY_END        end of the query (exclusive), the query starts at PATH_END + 1
+ * FRAGMENT_START   start of the fragment (right after the "#"), the fragment ends with the input
+ * </pre>
+ * <p>
+ * The scanner follows the same rules as the lazy parsers like {@link org.dmfs.rfc3986.uris.LazyUri}, but in contrast to these it validates the entire input.
+ */
+public final class UriScanner
+{
+    public final static UriScanner INSTANCE = new UriScanner();
+
+    public final static int SCHEME_END = 0;
+    public final static int USER_INFO_END = 1;
+    public final static int HOST_START = 2;
+    public final static int HOST_END = 3;
+    public final static int PORT = 4;
+    public final static int PATH_START = 5;
+    public final static int PATH_END = 6;
+    public final static int QUERY_END = 7;
+    public final static int FRAGMENT_START = 8;
+
+    /**
+     * The number of ints in a table.
+     */
+    public final static int SLOTS = 9;
+
+
+    /**
+     * Returns a new table with the boundaries of the components of the given URI reference.
+     *
+     * @param uri
+     *         An encoded URI reference.
+     *
+     * @return An array of {@link #SLOTS} ints.
+     *
+     * @throws IllegalArgumentException
+     *         if the given {@link CharSequence} is not a valid URI reference.
+     */
+    public int[] table(CharSequence uri)
+    {
+        int[] table = new int[SLOTS];
+        scan(uri, table, 0);
+        return table;
+    }
+
+
+    /**
+     * Scans the given URI reference and stores the boundaries of its components in the given table, starting at {@code offset}.
+     *
+     * @param uri
+     *         An encoded URI reference.
+     * @param table
+     *         The table to write to, must have room for {@link #SLOTS} ints at {@code offset}.
+     * @param offset
+     *         The position of the first slot in {@code table}.
+     *
+     * @throws IllegalArgumentException
+     *         if the given {@link CharSequence} is not a valid URI reference.
+     */
+    public void scan(CharSequence uri, int[] table, int offset)
+    {
+        final int count = uri.length();
+
+        int schemeEnd = -1;
+        if (count >= 2 && ALPHA.contains(uri.charAt(0)))
+        {
+            final int i = SCHEME_CHAR.endOfRun(uri, 1, count);
+            // just like OptionalLazyScheme we require at least two scheme characters
+            if (i >= 2 && i < count && uri.charAt(i) == ':')
+            {
+                schemeEnd = i;
+            }
+        }
+
+        int pos = schemeEnd + 1;
+        int userInfoEnd = -1;
+        int hostStart = -1;
+        int hostEnd = -1;
+        int port = -1;
+        if (pos + 1 < count && uri.charAt(pos) == '/' && uri.charAt(pos + 1) == '/')
+        {
+            final int authorityStart = pos + 2;
+            int i = USER_INFO_CHAR.endOfRun(uri, authorityStart, count);
+            if (i < count && uri.charAt(i) == '@')
+            {
+                userInfoEnd = i;
+                hostStart = i + 1;
+            }
+            else
+            {
+                hostStart = authorityStart;
+            }
+
+            i = hostStart;
+            if (i < count && uri.charAt(i) == '[')
+            {
+                while (i < count && uri.charAt(i) != ']')
+                {
+                    // TODO validate format of IPv6 or Future IP address
+                    ++i;
+                }
+                if (i == count)
+                {
+                    throw new IllegalArgumentException(String.format("missing ']' in %s", uri.toString()));
+                }
+                // the brackets are part of the host
+                ++i;
+            }
+            else
+            {
+                i = REG_NAME_CHAR.endOfRun(uri, i, count);
+            }
+            if (i < count && !HOST_TERMINATOR_CHARS.contains(uri.charAt(i)))
+            {
+                throw new IllegalArgumentException(String.format("Authority of %s contains illegal char %c at position %d", uri.toString(), uri.charAt(i), i));
+            }
+            hostEnd = i;
+
+            if (i + 1 < count && uri.charAt(i) == ':')
+            {
+                port = 0;
+                ++i;
+                while (i < count && DIGIT.contains(uri.charAt(i)))
+                {
+                    port = port * 10 + uri.charAt(i) - '0';
+                    ++i;
+                }
+                if (i < count && uri.charAt(i) != '/' && uri.charAt(i) != '?' && uri.charAt(i) != '#')
+                {
+                    // port not followed by a valid character
+                    throw new IllegalArgumentException(
+                        String.format("Authority of %s contains illegal char %c at position %d", uri.toString(), uri.charAt(i), i));
+                }
+            }
+            pos = i;
+        }
+
+        final int pathStart = pos;
+        pos = PATH_CHAR.endOfRun(uri, pos, count);
+        final int pathEnd = pos;
+
+        int queryEnd = -1;
+        if (pos < count && uri.charAt(pos) == '?')
+        {
+            pos = QUERY_CHAR.endOfRun(uri, pos + 1, count);
+            queryEnd = pos;
+        }
+
+        int fragmentStart = -1;
+        if (pos < count && uri.charAt(pos) == '#')
+        {
+            fragmentStart = pos + 1;
+            pos = FRAGMENT_CHAR.endOfRun(uri, fragmentStart, count);
+        }
+
+        if (pos != count)
+        {
+            throw new IllegalArgumentException(String.format("%s contains illegal char %c at position %d", uri.toString(), uri.charAt(pos), pos));
+        }
+
+        table[offset + SCHEME_END] = schemeEnd;
+        table[offset + USER_INFO_END] = userInfoEnd;
+        table[offset + HOST_START] = hostStart;
+        table[offset + HOST_END] = hostEnd;
+        table[offset + PORT] = port;
+        table[offset + PATH_START] = pathStart;
+        table[offset + PATH_END] = pathEnd;
+        table[offset + QUERY_END] = queryEnd;
+        table[offset + FRAGMENT_START] = fragmentStart;
+    }
+}
@@ -23,12 +23,18 @@ public final class BitMapCharSet implements CharSet
 {
     private final int[] mBitmap;
     private final int mLength;
+    // the bitmap of the characters 0 to 63
+    private final long mLow;
+    // the bitmap of the characters 64 to 127
+    private final long mHigh;
 
 
     public BitMapCharSet(int... bitmap)
     {
         mBitmap = bitmap.clone();
         mLength = bitmap.length * 32;
+        mLow = word(bitmap, 0);
+        mHigh = word(bitmap, 2);
     }
 
 
@@ -37,4 +43,31 @@ public final class BitMapCharSet implements CharSet
     {
         return (c < mLength) && (mBitmap[c >>> 5] & (1 << (c & 0x1F))) != 0;
     }
+
+
+    @Override
+    public int endOfRun(CharSequence chars, int start, int end)
+    {
+        // keep the ASCII part of the bitmap in two locals, so the loop doesn't need to access the array for the vast majority of the characters
+        final long low = mLow;
+        final long high = mHigh;
+        int i = start;
+        while (i < end)
+        {
+            final char c = chars.charAt(i);
+            // note that a long shift only takes the lower 6 bits of c into account
+            if (c < 128 ? ((c < 64 ? low : high) & (1L << c)) == 0 : !contains(c))
+            {
+                return i;
+            }
+            ++i;
+        }
+        return end;
+    }
+
+
+    private static long word(int[] bitmap, int index)
+    {
+        return (index < bitmap.length ? bitmap[index] & 0xffffffffL : 0) | (index + 1 < bitmap.length ? (long) bitmap[index + 1] << 32 : 0);
+    }
 }
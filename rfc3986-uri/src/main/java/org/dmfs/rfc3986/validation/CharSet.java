@@ -30,4 +30,30 @@ public interface CharSet
      * @return {@code true} if the given character is contained in the set, {@code false} otherwise.
      */
     boolean contains(char c);
+
+
+    /**
+     * Returns the position of the first character in the given range of a {@link CharSequence} that's not contained in this CharSet, or {@code end} if all
+     * characters in the range are contained.
+     * <p>
+     * Implementations are encouraged to override this with a faster bulk scan.
+     *
+     * @param chars
+     *         The {@link CharSequence} to scan.
+     * @param start
+     *         The position of the first character to test.
+     * @param end
+     *         The position after the last character to test.
+     *
+     * @return The position of the first character that's not contained in this set or {@code end}.
+     */
+    default int endOfRun(CharSequence chars, int start, int end)
+    {
+        int i = start;
+        while (i < end && contains(chars.charAt(i)))
+        {
+            ++i;
+        }
+        return i;
+    }
 }
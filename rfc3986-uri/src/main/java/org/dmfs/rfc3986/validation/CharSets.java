@@ -99,6 +99,19 @@ public final class CharSets
     // segments may contain any PCHAR
     public final static CharSet SEGMENT_CHAR = PCHAR;
 
+    /**
+     * {@link BitMapCharSet} for the characters of a path, i.e. all {@link #PCHAR}s and {@code "/"}.
+     */
+    public final static CharSet PATH_CHAR = new BitMapCharSet(0, 0x2FFFFFF2, 0x87FFFFFF, 0x47FFFFFE);
+
+    /**
+     * {@link BitMapCharSet} for user info characters as per <a href="https://tools.ietf.org/html/rfc3986#appendix-A">RFC 3986, Appendix A</a>.
+     * <pre>
+     * userinfo      = *( unreserved / pct-encoded / sub-delims / ":" )
+     * </pre>
+     */
+    public final static CharSet USER_INFO_CHAR = new BitMapCharSet(0, 0x2FFF7FF2, 0x87FFFFFE, 0x47FFFFFE);
+
     /**
      * {@link BitMapCharSet} for query characters  as per <a href="https://tools.ietf.org/html/rfc3986#appendix-A">RFC 3986, Appendix A</a>.
      * <pre>
@@ -74,12 +74,10 @@ public final class Validated implements CharSequence
             CharSequence delegate = mDelegate;
             CharSet charSet = mCharSet;
             final int count = delegate.length();
-            for (int i = 0; i < count; ++i)
+            final int i = charSet.endOfRun(delegate, 0, count);
+            if (i < count)
             {
-                if (!charSet.contains(delegate.charAt(i)))
-                {
-                    throw new IllegalArgumentException(String.format("Illegal char '%c' at position %d in '%s'", delegate.charAt(i), i, delegate.toString()));
-                }
+                throw new IllegalArgumentException(String.format("Illegal char '%c' at position %d in '%s'", delegate.charAt(i), i, delegate.toString()));
             }
             mValidated = true;
         }
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.arenas;
+
+import org.dmfs.rfc3986.Uri;
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.uris.LazyUri;
+import org.dmfs.rfc3986.uris.Resolved;
+import org.dmfs.rfc3986.uris.Text;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.saynotobugs.confidence.Assertion.assertThat;
+import static org.saynotobugs.confidence.core.quality.Grammar.is;
+import static org.saynotobugs.confidence.core.quality.Object.throwing;
+
+
+/**
+ */
+public class UriArenaTest
+{
+    @Test
+    public void testAppend() throws Exception
+    {
+        UriArena arena = new UriArena(256);
+        List<Long> handles = new ArrayList<>();
+        for (int i = 0; i < 100; ++i)
+        {
+            handles.add(arena.append(uri(i)));
+        }
+        assertEquals(100, arena.count());
+        for (int i = 0; i < 100; ++i)
+        {
+            assertEquals(uri(i), arena.encoded(handles.get(i)).toString());
+            assertEquals(uri(i), new Text(arena.uri(handles.get(i))).toString());
+        }
+    }
+
+
+    @Test
+    public void testComponents() throws Exception
+    {
+        UriArena arena = new UriArena();
+        Uri uri = arena.uri(arena.append("https://user@example.com:8443/a/b?q=1#f"));
+        assertEquals("https", uri.scheme().value().toString());
+        assertEquals("user", uri.authority().value().userInfo().value().toString());
+        assertEquals("example.com", uri.authority().value().host().toString());
+        assertEquals(8443, (int) uri.authority().value().port().value());
+        assertEquals("/a/b", new org.dmfs.rfc3986.paths.Text(uri.path()).toString());
+        assertEquals("q=1", uri.query().value().toString());
+        assertEquals("f", uri.fragment().value().toString());
+
+        Uri relative = arena.uri(arena.append("../c"));
+        assertFalse(relative.isAbsolute());
+        assertTrue(relative.isHierarchical());
+        assertEquals("https://user@example.com:8443/c", new Text(new Resolved(uri, relative)).toString());
+    }
+
+
+    @Test
+    public void testInvalid() throws Exception
+    {
+        UriArena arena = new UriArena(64);
+        assertThat(() -> arena.append("http://exa mple.com"), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> arena.append("http://example.com/ä"), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> arena.append("http://example.com/a/very/long/path/that/does/not/fit"), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> new UriArena(8), is(throwing(IllegalArgumentException.class)));
+        assertEquals(0, arena.count());
+        assertEquals("", arena.encoded(arena.append("")).toString());
+    }
+
+
+    @Test
+    public void testSameAsLazyUri() throws Exception
+    {
+        UriArena arena = new UriArena();
+        for (int i = 0; i < 10; ++i)
+        {
+            Uri lazy = new LazyUri(new Precoded(uri(i)));
+            Uri uri = arena.uri(arena.append(uri(i)));
+            assertEquals(new Text(lazy).toString(), new Text(uri).toString());
+            assertEquals(lazy.authority().value().host().toString(), uri.authority().value().host().toString());
+        }
+    }
+
+
+    private static String uri(int i)
+    {
+        return String.format("http://host%d.example.com/path/%d?q=%d#f", i % 7, i, i * i);
+    }
+}
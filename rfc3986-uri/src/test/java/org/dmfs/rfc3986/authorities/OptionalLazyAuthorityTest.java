@@ -62,6 +62,9 @@ public class OptionalLazyAuthorityTest
         assertEquals("test", new OptionalLazyAuthority(new Precoded("//test:123/path")).value().host().toString());
         assertEquals("example.com", new OptionalLazyAuthority(new Precoded("//test@example.com/path")).value().host().toString());
         assertEquals("example.com", new OptionalLazyAuthority(new Precoded("//test@example.com:123/path")).value().host().toString());
+        assertEquals("[::1]", new OptionalLazyAuthority(new Precoded("//[::1]")).value().host().toString());
+        assertEquals("[::1]", new OptionalLazyAuthority(new Precoded("//test@[::1]:123/path")).value().host().toString());
+        assertEquals("[v1.fe]", new OptionalLazyAuthority(new Precoded("//[v1.fe]/path")).value().host().toString());
 
         // check user info
 
@@ -90,6 +93,8 @@ public class OptionalLazyAuthorityTest
         assertFalse(new OptionalLazyAuthority(new Precoded("//")).value().port().isPresent());
         assertFalse(new OptionalLazyAuthority(new Precoded("//test")).value().port().isPresent());
         assertEquals(123, (int) new OptionalLazyAuthority(new Precoded("//test:123")).value().port().value());
+        assertEquals(123, (int) new OptionalLazyAuthority(new Precoded("//[::1]:123/path")).value().port().value());
+        assertFalse(new OptionalLazyAuthority(new Precoded("//[::1]/path")).value().port().isPresent());
         assertFalse(new OptionalLazyAuthority(new Precoded("//test@example.com")).value().port().isPresent());
         assertFalse(new OptionalLazyAuthority(new Precoded("//test@example.com")).value().port().isPresent());
         assertFalse(new OptionalLazyAuthority(new Precoded("//te:st@example.com")).value().port().isPresent());
@@ -38,6 +38,11 @@ public class TextTest
         assertEquals(5, new Text(new StructuredAuthority(new Precoded("user"), new Precoded(""))).length());
         assertEquals(4, new Text(new StructuredAuthority(new Precoded(""), 123)).length());
         assertEquals(9, new Text(new StructuredAuthority(new Precoded("user"), new Precoded(""), 123)).length());
+        // the length of the normalized text, not the length of the delegate
+        assertEquals(4, new Text(new StructuredAuthority(new Precoded("h%41"), 8)).length());
+        assertEquals("hA:8", new Text(new StructuredAuthority(new Precoded("h%41"), 8)).toString());
+        assertEquals(7, new Text(new StructuredAuthority(new Precoded("%75ser"), new Precoded("h%41"))).length());
+        assertEquals("user@hA", new Text(new StructuredAuthority(new Precoded("%75ser"), new Precoded("h%41"))).toString());
     }
 
     @Test
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.batches;
+
+import org.dmfs.rfc3986.Uri;
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.uris.LazyUri;
+import org.dmfs.rfc3986.uris.Text;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.saynotobugs.confidence.Assertion.assertThat;
+import static org.saynotobugs.confidence.core.quality.Grammar.is;
+import static org.saynotobugs.confidence.core.quality.Object.throwing;
+
+
+/**
+ */
+public class UriBatchTest
+{
+    private final static List<String> URIS = Arrays.asList(
+        "http://example.com/a?q=1#f",
+        "https://user@example.org:8080/b",
+        "HTTP://example.com",
+        "mailto:me@example.com",
+        "../relative/path",
+        "//example.org/x",
+        "");
+
+
+    @Test
+    public void testSize() throws Exception
+    {
+        assertEquals(7, new UriBatch(URIS).size());
+        assertEquals(0, new UriBatch().size());
+    }
+
+
+    @Test
+    public void testUri() throws Exception
+    {
+        UriBatch batch = new UriBatch(URIS);
+        for (int i = 0; i < URIS.size(); ++i)
+        {
+            assertEquals(URIS.get(i), new Text(batch.uri(i)).toString());
+        }
+        assertEquals("example.com", batch.uri(0).authority().value().host().toString());
+        assertEquals("q=1", batch.uri(0).query().value().toString());
+        assertEquals("f", batch.uri(0).fragment().value().toString());
+        assertEquals("user", batch.uri(1).authority().value().userInfo().value().toString());
+        assertTrue(batch.uri(2).isAbsolute());
+        assertFalse(batch.uri(3).isHierarchical());
+        assertFalse(batch.uri(4).isAbsolute());
+        assertFalse(batch.uri(6).authority().isPresent());
+    }
+
+
+    @Test
+    public void testUriEncoded() throws Exception
+    {
+        Precoded precoded = new Precoded("http://example.com/a%20b");
+        UriBatch batch = new UriBatch(precoded, new StringBuilder("//example.org/c"));
+        assertEquals("http://example.com/a%20b", new Text(batch.uri(0)).toString());
+        assertEquals("/a%20b", new org.dmfs.rfc3986.paths.Text(batch.uri(0).path()).toString());
+        assertEquals("//example.org/c", new Text(batch.uri(1)).toString());
+        assertEquals("example.org", batch.uri(1).authority().value().host().toString());
+    }
+
+
+    @Test
+    public void testIterator() throws Exception
+    {
+        List<String> result = new ArrayList<>();
+        for (Uri uri : new UriBatch(URIS))
+        {
+            result.add(new Text(uri).toString());
+        }
+        assertEquals(URIS, result);
+    }
+
+
+    @Test
+    public void testSameAsLazyUri() throws Exception
+    {
+        UriBatch batch = new UriBatch(URIS);
+        for (int i = 0; i < URIS.size(); ++i)
+        {
+            Uri lazy = new LazyUri(new Precoded(URIS.get(i)));
+            Uri uri = batch.uri(i);
+            assertEquals(lazy.scheme().isPresent(), uri.scheme().isPresent());
+            assertEquals(lazy.authority().isPresent(), uri.authority().isPresent());
+            assertEquals(new org.dmfs.rfc3986.paths.Text(lazy.path()).toString(), new org.dmfs.rfc3986.paths.Text(uri.path()).toString());
+            assertEquals(lazy.isHierarchical(), uri.isHierarchical());
+        }
+    }
+
+
+    @Test
+    public void testSchemes() throws Exception
+    {
+        UriBatch batch = new UriBatch(URIS);
+        assertEquals(4, batch.schemeCount());
+        assertEquals(0, batch.schemeCode(0));
+        assertEquals(1, batch.schemeCode(1));
+        assertEquals(2, batch.schemeCode(2));
+        assertEquals(3, batch.schemeCode(3));
+        assertEquals(-1, batch.schemeCode(4));
+        assertEquals(-1, batch.schemeCode(5));
+        assertEquals("http", batch.scheme(batch.schemeCode(0)));
+        assertEquals("HTTP", batch.scheme(batch.schemeCode(2)));
+        assertEquals("mailto", batch.scheme(batch.schemeCode(3)));
+    }
+
+
+    @Test
+    public void testHosts() throws Exception
+    {
+        UriBatch batch = new UriBatch(URIS);
+        assertEquals(2, batch.hostCount());
+        assertEquals(batch.hostCode(0), batch.hostCode(2));
+        assertEquals(batch.hostCode(1), batch.hostCode(5));
+        assertEquals("example.com", batch.host(batch.hostCode(0)));
+        assertEquals("example.org", batch.host(batch.hostCode(1)));
+        assertEquals(-1, batch.hostCode(3));
+        assertEquals(-1, batch.hostCode(6));
+    }
+
+
+    @Test
+    public void testPorts() throws Exception
+    {
+        UriBatch batch = new UriBatch(URIS);
+        assertEquals(-1, batch.port(0));
+        assertEquals(8080, batch.port(1));
+    }
+
+
+    @Test
+    public void testInvalid() throws Exception
+    {
+        assertThat(() -> new UriBatch("http://example.com", "http://exa mple.com"), is(throwing(IllegalArgumentException.class)));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.encoding;
+
+import org.dmfs.rfc3986.Uri;
+import org.dmfs.rfc3986.UriEncoded;
+import org.dmfs.rfc3986.uris.LazyUri;
+import org.dmfs.rfc3986.uris.Text;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+/**
+ */
+public class AsciiPrecodedTest
+{
+    @Test
+    public void testToString() throws Exception
+    {
+        assertEquals("", new AsciiPrecoded(new byte[0]).toString());
+        assertEquals("abc%20", new AsciiPrecoded(bytes("abc%20")).toString());
+        assertEquals("c%2", new AsciiPrecoded(bytes("abc%20"), 2, 3).toString());
+        assertEquals("abc%20", new AsciiPrecoded(direct("abc%20")).toString());
+    }
+
+
+    @Test
+    public void subSequence() throws Exception
+    {
+        assertEquals(new Precoded("123"), new AsciiPrecoded(bytes("abc123xyz")).subSequence(3, 6));
+        assertEquals("123", new AsciiPrecoded(bytes("abc123xyz")).subSequence(3, 6).toString());
+        assertEquals("23", new AsciiPrecoded(direct("abc123xyz")).subSequence(3, 6).subSequence(1, 3).toString());
+        assertEquals('3', new AsciiPrecoded(direct("abc123xyz")).subSequence(3, 6).charAt(2));
+    }
+
+
+    @Test
+    public void remaining() throws Exception
+    {
+        ByteBuffer buffer = direct("GET /index.html HTTP/1.1");
+        buffer.position(4);
+        buffer.limit(15);
+        assertEquals("/index.html", new AsciiPrecoded(buffer).toString());
+        assertEquals(4, buffer.position());
+    }
+
+
+    @Test
+    public void normalized() throws Exception
+    {
+        assertEquals("", new AsciiPrecoded(new byte[0]).normalized().toString());
+        assertEquals(".-_~%2F%C3%9C+ab0", new AsciiPrecoded(bytes(".-_~%2f%c3%9C+%61%62%30")).normalized().toString());
+        assertEquals(".-_~%2F%C3%9C+ab0", new AsciiPrecoded(direct(".-_~%2f%c3%9C+%61%62%30")).normalized().toString());
+    }
+
+
+    @Test
+    public void decoded() throws Exception
+    {
+        assertEquals("", new AsciiPrecoded(new byte[0]).decoded());
+        assertEquals("abc", new AsciiPrecoded(bytes("abc")).decoded());
+        assertEquals("%/\"&=ÜÖÄa€ +", new AsciiPrecoded(bytes("%25%2F%22%26%3D%C3%9C%C3%96%C3%84a%E2%82%AC%20+")).decoded());
+        assertEquals("%/\"&=ÜÖÄa€ +", new AsciiPrecoded(direct("%25%2F%22%26%3D%C3%9C%C3%96%C3%84a%E2%82%AC%20+")).decoded());
+        assertEquals("Ü", new AsciiPrecoded(bytes("%DC")).decoded("ISO-8859-1"));
+    }
+
+
+    @Test
+    public void lazyUri() throws Exception
+    {
+        Uri uri = new LazyUri(new AsciiPrecoded(direct("http://example.com/a%20b?q=1#frag")));
+        assertEquals("example.com", uri.authority().value().host().toString());
+        assertEquals("q=1", uri.query().value().toString());
+        assertEquals("frag", uri.fragment().value().toString());
+        Iterator<UriEncoded> segments = uri.path().iterator();
+        assertEquals("", segments.next().decoded().toString());
+        assertEquals("a b", segments.next().decoded().toString());
+        assertEquals("http://example.com/a%20b?q=1#frag", new Text(uri).toString());
+    }
+
+
+    private static byte[] bytes(String string)
+    {
+        return string.getBytes(StandardCharsets.US_ASCII);
+    }
+
+
+    private static ByteBuffer direct(String string)
+    {
+        byte[] bytes = bytes(string);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+        buffer.flip();
+        return buffer;
+    }
+}
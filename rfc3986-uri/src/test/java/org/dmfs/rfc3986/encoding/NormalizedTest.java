@@ -19,6 +19,10 @@ package org.dmfs.rfc3986.encoding;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.saynotobugs.confidence.Assertion.assertThat;
+import static org.saynotobugs.confidence.core.quality.Grammar.is;
+import static org.saynotobugs.confidence.core.quality.Object.throwing;
 
 
 /**
@@ -50,4 +54,23 @@ public class NormalizedTest
                         "%80%9C%E2%80%9D%C2%B5%E2%80%A6%C2%B7%C3%A2%C3%B4%C3%AA%c3%A0%C3%A8%C3%b2%C3%b9%c3%a2%20+%61%62%30")).toString());
     }
 
-}
\ No newline at end of file
+
+    @Test
+    public void testAlreadyNormalized() throws Exception
+    {
+        String normalized = "abc%2F%C3%A4+-._~";
+        assertSame(normalized, new Normalized(new Precoded(normalized)).toString());
+        assertEquals("%2F%C3%A4", new Normalized(new Precoded(normalized).subSequence(3, 12)).toString());
+        assertEquals("abc%2F%C3%A4", new Normalized(new Precoded("abc%2f%c3%A4")).toString());
+        assertEquals("abc%2F%C3%A4", new Normalized(new Precoded("%61bc%2F%C3%a4")).toString());
+    }
+
+
+    @Test
+    public void testInvalid() throws Exception
+    {
+        assertThat(() -> new Normalized(new Precoded("abc%2")).toString(), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> new Normalized(new Precoded("abc%2x")).toString(), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> new Normalized(new Precoded("abc%2xä")).toString(), is(throwing(IllegalArgumentException.class)));
+    }
+}
@@ -18,7 +18,13 @@ package org.dmfs.rfc3986.encoding;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.saynotobugs.confidence.Assertion.assertThat;
+import static org.saynotobugs.confidence.core.quality.Grammar.is;
+import static org.saynotobugs.confidence.core.quality.Object.throwing;
 
 
 /**
@@ -74,4 +80,25 @@ public class PrecodedTest
                         "%80%9C%E2%80%9D%C2%B5%E2%80%A6%C2%B7%C3%A2%C3%B4%C3%AA%C3%A0%C3%A8%C3%B2%C3%B9%C3%A2%20+").decoded());
     }
 
-}
\ No newline at end of file
+
+    @Test
+    public void testDecodeTo() throws Exception
+    {
+        StringBuilder builder = new StringBuilder("x");
+        new Precoded("a%20b%E2%82%AC+").decodeTo(builder);
+        new Precoded("/c/d%2F").subSequence(3, 7).decodeTo(builder);
+        assertEquals("xa b€+d/", builder.toString());
+
+        char[] chars = new char[10];
+        assertEquals(5, new Precoded("a%20b%E2%82%AC+").decodeTo(chars, 2));
+        assertEquals("a b€+", new String(chars, 2, 5));
+        assertEquals(0, new Precoded("").decodeTo(chars, 10));
+        assertThat(() -> new Precoded("abc").decodeTo(new char[2], 0), is(throwing(BufferOverflowException.class)));
+
+        CharBuffer buffer = CharBuffer.allocate(10);
+        buffer.put('x');
+        new Precoded("%F0%9F%98%80").decodeTo(buffer);
+        buffer.flip();
+        assertEquals("x\uD83D\uDE00", buffer.toString());
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.rfc3986.encoding.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.saynotobugs.confidence.Assertion.assertThat;
+import static org.saynotobugs.confidence.core.quality.Grammar.is;
+import static org.saynotobugs.confidence.core.quality.Object.throwing;
+
+
+/**
+ */
+public class HexDigitsTest
+{
+    @Test
+    public void testValue()
+    {
+        String digits = "0123456789abcdef";
+        for (int i = 0; i < 16; ++i)
+        {
+            assertEquals(i, HexDigits.value(digits.charAt(i)));
+            assertEquals(i, HexDigits.value(Character.toUpperCase(digits.charAt(i))));
+        }
+    }
+
+
+    @Test
+    public void testOctet()
+    {
+        assertEquals(0, HexDigits.octet('0', '0'));
+        assertEquals(0x2f, HexDigits.octet('2', 'f'));
+        assertEquals(0x2f, HexDigits.octet('2', 'F'));
+        assertEquals(0xc3, HexDigits.octet('C', '3'));
+        assertEquals(0xff, HexDigits.octet('f', 'F'));
+    }
+
+
+    @Test
+    public void testInvalid()
+    {
+        assertThat(() -> HexDigits.value('g'), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> HexDigits.value('/'), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> HexDigits.value(':'), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> HexDigits.value('١'), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> HexDigits.octet('1', 'x'), is(throwing(IllegalArgumentException.class)));
+    }
+}
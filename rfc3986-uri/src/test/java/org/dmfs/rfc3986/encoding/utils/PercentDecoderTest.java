@@ -0,0 +1,153 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.encoding.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.saynotobugs.confidence.Assertion.assertThat;
+import static org.saynotobugs.confidence.core.quality.Grammar.is;
+import static org.saynotobugs.confidence.core.quality.Object.throwing;
+
+
+/**
+ */
+public class PercentDecoderTest
+{
+    @Test
+    public void testPlain() throws Exception
+    {
+        assertEquals("", PercentDecoder.PLAIN.decoded("", 0, 0, StandardCharsets.UTF_8));
+        assertEquals("", PercentDecoder.PLAIN.decoded("abc", 1, 1, StandardCharsets.UTF_8));
+        assertEquals("abc", PercentDecoder.PLAIN.decoded("abc", 0, 3, StandardCharsets.UTF_8));
+        assertEquals("b+c", PercentDecoder.PLAIN.decoded("ab+cd", 1, 4, StandardCharsets.UTF_8));
+        assertEquals("a b", PercentDecoder.PLAIN.decoded("a%20b", 0, 5, StandardCharsets.UTF_8));
+        assertEquals("ab/", PercentDecoder.PLAIN.decoded("xab%2fx", 1, 6, StandardCharsets.UTF_8));
+        assertEquals("Über", PercentDecoder.PLAIN.decoded("%C3%9Cber", 0, 9, StandardCharsets.UTF_8));
+        assertEquals("Über", PercentDecoder.PLAIN.decoded("%DCber", 0, 6, StandardCharsets.ISO_8859_1));
+        assertEquals("€", PercentDecoder.PLAIN.decoded("%E2%82%AC", 0, 9, "UTF-8"));
+    }
+
+
+    @Test
+    public void testForm() throws Exception
+    {
+        assertEquals("", PercentDecoder.FORM.decoded("", 0, 0, StandardCharsets.UTF_8));
+        assertEquals("abc", PercentDecoder.FORM.decoded("abc", 0, 3, StandardCharsets.UTF_8));
+        assertEquals("b c", PercentDecoder.FORM.decoded("ab+cd", 1, 4, StandardCharsets.UTF_8));
+        assertEquals("a b+", PercentDecoder.FORM.decoded("a+b%2B", 0, 6, StandardCharsets.UTF_8));
+    }
+
+
+    @Test
+    public void testNonAscii() throws Exception
+    {
+        // unescaped non-ASCII characters are not valid, they are taken as single bytes
+        assertEquals("ü", PercentDecoder.PLAIN.decoded("ü", 0, 1, StandardCharsets.ISO_8859_1));
+        assertEquals("�", PercentDecoder.PLAIN.decoded("ü", 0, 1, StandardCharsets.UTF_8));
+    }
+
+
+    @Test
+    public void testOtherCharsets() throws Exception
+    {
+        assertEquals("ab", PercentDecoder.PLAIN.decoded("%00a%00b", 0, 8, StandardCharsets.UTF_16BE));
+        assertEquals("慢", PercentDecoder.PLAIN.decoded("ab", 0, 2, StandardCharsets.UTF_16BE));
+    }
+
+
+    @Test
+    public void testInvalid() throws Exception
+    {
+        assertThat(() -> PercentDecoder.PLAIN.decoded("a%2", 0, 3, StandardCharsets.UTF_8), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> PercentDecoder.PLAIN.decoded("a%2g", 0, 4, StandardCharsets.UTF_8), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> PercentDecoder.PLAIN.decoded("a%äa", 0, 4, StandardCharsets.UTF_8), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> PercentDecoder.PLAIN.decoded("a", 0, 1, "no-such-charset"), is(throwing(UnsupportedEncodingException.class)));
+    }
+
+
+    @Test
+    public void testDecodeTo() throws Exception
+    {
+        assertEquals("", decodedTo(PercentDecoder.PLAIN, ""));
+        assertEquals("a+b c", decodedTo(PercentDecoder.PLAIN, "a+b%20c"));
+        assertEquals("a b c", decodedTo(PercentDecoder.FORM, "a+b%20c"));
+        assertEquals("%/\"&=ÜÖÄa€", decodedTo(PercentDecoder.PLAIN, "%25%2F%22%26%3D%C3%9C%C3%96%C3%84a%E2%82%AC"));
+        assertEquals("\uD83D\uDE00", decodedTo(PercentDecoder.PLAIN, "%F0%9F%98%80"));
+        assertThat(() -> decodedTo(PercentDecoder.PLAIN, "a%2"), is(throwing(IllegalArgumentException.class)));
+    }
+
+
+    @Test
+    public void testDecodeToMalformed() throws Exception
+    {
+        // all sequences of one and two bytes and a selection of longer sequences must decode to the same as the non-streaming decoder
+        for (int i = 0; i < 256; ++i)
+        {
+            assertDecodeToEquals(String.format("%%%02X", i));
+            assertDecodeToEquals(String.format("%%%02Xa", i));
+            for (int j = 0; j < 256; ++j)
+            {
+                assertDecodeToEquals(String.format("%%%02X%%%02X", i, j));
+            }
+        }
+        int[] interesting = { 0x00, 0x41, 0x7F, 0x80, 0x8F, 0x90, 0x9F, 0xA0, 0xBF, 0xC0, 0xC1, 0xC2, 0xDF, 0xE0, 0xE1, 0xEC, 0xED, 0xEE, 0xEF, 0xF0, 0xF1,
+            0xF3, 0xF4, 0xF5, 0xFF };
+        for (int a : interesting)
+        {
+            for (int b : interesting)
+            {
+                for (int c : interesting)
+                {
+                    assertDecodeToEquals(String.format("%%%02X%%%02X%%%02X", a, b, c));
+                    for (int d : interesting)
+                    {
+                        assertDecodeToEquals(String.format("%%%02X%%%02X%%%02X%%%02X", a, b, c, d));
+                    }
+                }
+            }
+        }
+        assertDecodeToEquals("ü");
+        assertDecodeToEquals("%C3ü");
+    }
+
+
+    private static void assertDecodeToEquals(String encoded)
+    {
+        assertEquals(PercentDecoder.PLAIN.decoded(encoded, 0, encoded.length(), StandardCharsets.UTF_8).toString(),
+            decodedTo(PercentDecoder.PLAIN, encoded), encoded);
+    }
+
+
+    private static String decodedTo(PercentDecoder decoder, String encoded)
+    {
+        StringBuilder builder = new StringBuilder();
+        try
+        {
+            decoder.decodeTo(encoded, 0, encoded.length(), builder);
+        }
+        catch (IOException e)
+        {
+            throw new AssertionError(e);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.encoding.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.UnsupportedEncodingException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.saynotobugs.confidence.Assertion.assertThat;
+import static org.saynotobugs.confidence.core.quality.Grammar.is;
+import static org.saynotobugs.confidence.core.quality.Object.throwing;
+
+
+/**
+ */
+public class PercentEncoderTest
+{
+    @Test
+    public void testPlain() throws Exception
+    {
+        String unreserved = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ.-_~";
+        assertSame(unreserved, PercentEncoder.PLAIN.encoded(unreserved, "UTF-8"));
+        assertEquals("", PercentEncoder.PLAIN.encoded("", "UTF-8").toString());
+        assertEquals("a%20b%2Bc%2F", PercentEncoder.PLAIN.encoded("a b+c/", "UTF-8").toString());
+        assertEquals("%0D%0A%0A%0D", PercentEncoder.PLAIN.encoded("\r\n\n\r", "UTF-8").toString());
+        assertEquals("%00%7F%C2%80%DF%BF%E0%A0%80%EF%BF%BF", PercentEncoder.PLAIN.encoded("\u0000\u007f\u0080߿ࠀ￿", "UTF-8").toString());
+        assertEquals("%F0%9F%98%80%F4%8F%BF%BF", PercentEncoder.PLAIN.encoded("😀􏿿", "utf-8").toString());
+        assertEquals("%3Fa%3F%3F", PercentEncoder.PLAIN.encoded("\uD83Da\uDE00\uD83D", "UTF-8").toString());
+    }
+
+
+    @Test
+    public void testForm() throws Exception
+    {
+        assertEquals("a+b%2Bc%2F", PercentEncoder.FORM.encoded("a b+c/", "UTF-8").toString());
+        assertEquals("%0D%0A%0D%0A", PercentEncoder.FORM.encoded("\r\n\n\r", "UTF-8").toString());
+        assertEquals("%C3%A4+%E2%82%AC", PercentEncoder.FORM.encoded("ä €", "UTF-8").toString());
+    }
+
+
+    @Test
+    public void testOtherCharsets() throws Exception
+    {
+        assertEquals("%E4+%3F", PercentEncoder.FORM.encoded("ä €", "ISO-8859-1").toString());
+        assertEquals("%00a%00%20", PercentEncoder.PLAIN.encoded("a ", "UTF-16BE").toString());
+        assertThat(() -> PercentEncoder.PLAIN.encoded("a", "no-such-charset"), is(throwing(UnsupportedEncodingException.class)));
+    }
+
+
+    @Test
+    public void testEncodeTo() throws Exception
+    {
+        StringBuilder builder = new StringBuilder("x=");
+        PercentEncoder.FORM.encodeTo("a b", "UTF-8", builder);
+        builder.append('&');
+        PercentEncoder.FORM.encodeTo("abc", "UTF-8", builder);
+        builder.append('&');
+        PercentEncoder.FORM.encodeTo("ä", "ISO-8859-1", builder);
+        assertEquals("x=a+b&abc&%E4", builder.toString());
+    }
+}
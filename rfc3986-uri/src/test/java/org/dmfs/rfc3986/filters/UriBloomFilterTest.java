@@ -0,0 +1,149 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.filters;
+
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.uris.LazyUri;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.saynotobugs.confidence.Assertion.assertThat;
+import static org.saynotobugs.confidence.core.quality.Grammar.is;
+import static org.saynotobugs.confidence.core.quality.Object.throwing;
+
+
+/**
+ */
+public class UriBloomFilterTest
+{
+    @Test
+    public void testAddAndMightContain() throws Exception
+    {
+        UriBloomFilter filter = new UriBloomFilter(1000, 0.01);
+        assertFalse(filter.mightContain(new Precoded("http://example.com/a")));
+        assertTrue(filter.add(new Precoded("http://example.com/a")));
+        assertFalse(filter.add(new Precoded("http://example.com/a")));
+        assertTrue(filter.mightContain(new Precoded("http://example.com/a")));
+        assertEquals(1, filter.count());
+    }
+
+
+    @Test
+    public void testNormalized() throws Exception
+    {
+        UriBloomFilter filter = new UriBloomFilter(1000, 0.01);
+        filter.add(new Precoded("HTTP://Example.COM/x/../%7ea"));
+        assertTrue(filter.mightContain(new Precoded("http://example.com/~a")));
+        assertTrue(filter.mightContain(new LazyUri(new Precoded("http://example.com/b/../~a"))));
+        assertFalse(filter.add(new LazyUri(new Precoded("http://example.com/%7Ea"))));
+    }
+
+
+    @Test
+    public void testCrossOverloads() throws Exception
+    {
+        String[] uris = { "http://[::1]:8080/a", "http://user@[v1.fe]/b/../c", "HTTP://Example.COM/%7ea?q#f", "mailto:me@example.com", "a/./b" };
+        UriBloomFilter byUri = new UriBloomFilter(1000, 0.001);
+        UriBloomFilter byText = new UriBloomFilter(1000, 0.001);
+        for (String uri : uris)
+        {
+            byUri.add(new LazyUri(new Precoded(uri)));
+            byText.add(new Precoded(uri));
+        }
+        for (String uri : uris)
+        {
+            assertTrue(byUri.mightContain(new Precoded(uri)), uri);
+            assertTrue(byText.mightContain(new LazyUri(new Precoded(uri))), uri);
+            assertFalse(byUri.add(new Precoded(uri)), uri);
+            assertFalse(byText.add(new LazyUri(new Precoded(uri))), uri);
+        }
+    }
+
+
+    @Test
+    public void testFalsePositiveRate() throws Exception
+    {
+        UriBloomFilter filter = new UriBloomFilter(100000, 0.01);
+        for (int i = 0; i < 100000; ++i)
+        {
+            filter.add(new Precoded("http://example.com/page/" + i));
+        }
+        for (int i = 0; i < 100000; ++i)
+        {
+            assertTrue(filter.mightContain(new Precoded("http://example.com/page/" + i)));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100000; ++i)
+        {
+            if (filter.mightContain(new Precoded("http://example.org/page/" + i)))
+            {
+                ++falsePositives;
+            }
+        }
+        assertTrue(falsePositives < 1500, "false positives: " + falsePositives);
+        assertTrue(filter.byteSize() < 100000 * 2);
+    }
+
+
+    @Test
+    public void testConcurrent() throws Exception
+    {
+        UriBloomFilter filter = new UriBloomFilter(200000, 0.001);
+        IntStream.range(0, 200000).parallel().forEach(i -> filter.add(new Precoded("http://example.com/" + i)));
+        IntStream.range(0, 200000).parallel().forEach(i -> assertTrue(filter.mightContain(new Precoded("http://example.com/" + i))));
+        assertTrue(filter.count() > 199000);
+    }
+
+
+    @Test
+    public void testSerialization() throws Exception
+    {
+        UriBloomFilter filter = new UriBloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i += 2)
+        {
+            filter.add(new Precoded("http://example.com/" + i));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        filter.writeTo(out);
+
+        UriBloomFilter copy = new UriBloomFilter(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(filter.count(), copy.count());
+        assertEquals(filter.byteSize(), copy.byteSize());
+        for (int i = 0; i < 10000; ++i)
+        {
+            assertEquals(filter.mightContain(new Precoded("http://example.com/" + i)), copy.mightContain(new Precoded("http://example.com/" + i)));
+        }
+    }
+
+
+    @Test
+    public void testInvalid() throws Exception
+    {
+        assertThat(() -> new UriBloomFilter(0, 0.01), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> new UriBloomFilter(1000, 0), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> new UriBloomFilter(1000, 1), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> new UriBloomFilter(new ByteArrayInputStream(new byte[16])), is(throwing(IOException.class)));
+        assertThat(() -> new UriBloomFilter(1000, 0.01).add(new Precoded("http://exa mple.com")), is(throwing(IllegalArgumentException.class)));
+    }
+}
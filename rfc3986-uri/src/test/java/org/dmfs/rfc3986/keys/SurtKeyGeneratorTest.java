@@ -0,0 +1,125 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.keys;
+
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.uris.LazyUri;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+/**
+ */
+public class SurtKeyGeneratorTest
+{
+    @Test
+    public void testKey() throws Exception
+    {
+        SurtKeyGenerator generator = new SurtKeyGenerator();
+        assertEquals("com,example)/a/b?x=1&y=2", generator.key(uri("http://www.example.com:80/a/b?y=2&x=1#f")));
+        assertEquals("com,example)/", generator.key(uri("https://user:pw@Example.COM:443")));
+        assertEquals("com,example)/", generator.key(uri("http://example.com./")));
+        assertEquals("com,example:8080)/a", generator.key(uri("http://example.com:8080/a")));
+        assertEquals("com,example:443)/a", generator.key(uri("http://example.com:443/a")));
+        assertEquals("uk,co,example,sub)/a?", generator.key(uri("http://sub.example.co.uk/a?")));
+        assertEquals("com,www2)/", generator.key(uri("http://www2.com")));
+        assertEquals("org,www)/", generator.key(uri("http://www.org")));
+        assertEquals("192.168.0.1)/x", generator.key(uri("http://192.168.0.1/x")));
+        assertEquals("[::1]:8080)/x", generator.key(uri("http://[::1]:8080/x")));
+        assertEquals("mailto:me@example.com", generator.key(uri("mailto:me@example.com")));
+        assertEquals("a/b?q", generator.key(uri("a/b?q#f")));
+    }
+
+
+    @Test
+    public void testWithoutCanonicalization() throws Exception
+    {
+        SurtKeyGenerator generator = new SurtKeyGenerator(false, false, false);
+        assertEquals("com,example,www:80)/a/b?y=2&x=1", generator.key(uri("http://www.example.com:80/a/b?y=2&x=1#f")));
+        assertEquals("com,example,www)/a", generator.key(uri("http://WWW.example.com/a")));
+    }
+
+
+    @Test
+    public void testAppendTo() throws Exception
+    {
+        StringBuilder result = new StringBuilder("key: ");
+        new SurtKeyGenerator().appendTo(uri("http://example.com/a"), result);
+        assertEquals("key: com,example)/a", result.toString());
+    }
+
+
+    @Test
+    public void testBytes() throws Exception
+    {
+        SurtKeyGenerator generator = new SurtKeyGenerator();
+        assertEquals("com,example)/a?x=1&y=2", new String(generator.bytes(uri("http://example.com/a?y=2&x=1")), StandardCharsets.US_ASCII));
+    }
+
+
+    @Test
+    public void testOrder() throws Exception
+    {
+        SurtKeyGenerator generator = new SurtKeyGenerator();
+        List<String> uris = Arrays.asList(
+            "http://example.com/",
+            "http://example.com/a",
+            "http://a.example.com/",
+            "http://b.example.com/",
+            "http://example.com:8080/",
+            "http://example.net/",
+            "http://example.org/");
+        List<String> keys = new ArrayList<>();
+        List<byte[]> bytes = new ArrayList<>();
+        for (String uri : uris)
+        {
+            keys.add(generator.key(uri(uri)));
+            bytes.add(generator.bytes(uri(uri)));
+        }
+        for (int i = 1; i < keys.size(); ++i)
+        {
+            assertEquals(true, keys.get(i - 1).compareTo(keys.get(i)) < 0, keys.get(i - 1) + " < " + keys.get(i));
+            assertEquals(true, compare(bytes.get(i - 1), bytes.get(i)) < 0);
+        }
+    }
+
+
+    private static int compare(byte[] left, byte[] right)
+    {
+        for (int i = 0; i < Math.min(left.length, right.length); ++i)
+        {
+            int result = (left[i] & 0xff) - (right[i] & 0xff);
+            if (result != 0)
+            {
+                return result;
+            }
+        }
+        return left.length - right.length;
+    }
+
+
+    private static LazyUri uri(String uri)
+    {
+        return new LazyUri(new Precoded(uri));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.keys;
+
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.uris.LazyUri;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.saynotobugs.confidence.Assertion.assertThat;
+import static org.saynotobugs.confidence.core.quality.Grammar.is;
+import static org.saynotobugs.confidence.core.quality.Object.throwing;
+
+
+/**
+ */
+public class UriFingerprinterTest
+{
+    private final static String[] URIS = {
+        "",
+        "a",
+        "/",
+        "//",
+        "./",
+        "../",
+        "%2E%2e/a/",
+        "a/./b/../c/..",
+        "/a/./b/../../../c/",
+        "http://example.com",
+        "http://example.com/",
+        "HTTP://EXAMPLE.COM/%7Ea/%2fb/../c?q=%7e%2f#%41",
+        "http://user:pw@example.com:8080/a//b/",
+        "http://example.com:/a",
+        "http://@example.com?",
+        "http://example.com#",
+        "mailto:me@example.com",
+        "urn:isbn:0451450523",
+        "//example.com/a/../..",
+        "?q#f",
+        "http://[::1]/",
+        "http://[::1]:8080/a",
+        "http://user@[V1.Fe:80]/" };
+
+
+    @Test
+    public void testSameAsUriKey() throws Exception
+    {
+        for (String uri : URIS)
+        {
+            assertEquals(new UriKey(new LazyUri(new Precoded(uri))).fingerprint(), UriFingerprinter.INSTANCE.fingerprint(uri), uri);
+        }
+    }
+
+
+    @Test
+    public void testDistinct() throws Exception
+    {
+        Set<Long> fingerprints = new HashSet<>();
+        for (String uri : URIS)
+        {
+            fingerprints.add(UriFingerprinter.INSTANCE.fingerprint(uri));
+        }
+        assertEquals(URIS.length, fingerprints.size());
+    }
+
+
+    @Test
+    public void testNormalization() throws Exception
+    {
+        assertEquals(UriFingerprinter.INSTANCE.fingerprint("http://example.com/~a/b/c?%2f"),
+            UriFingerprinter.INSTANCE.fingerprint("HTTP://Example.COM/%7ea/./x/../b/%63?%2F"));
+        assertNotEquals(UriFingerprinter.INSTANCE.fingerprint("http://example.com/a"), UriFingerprinter.INSTANCE.fingerprint("http://example.com/A"));
+        assertNotEquals(UriFingerprinter.INSTANCE.fingerprint("http://example.com/a"), UriFingerprinter.INSTANCE.fingerprint("http://example.com/a?"));
+    }
+
+
+    @Test
+    public void testConcurrent() throws Exception
+    {
+        Set<Long> fingerprints = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 100000).parallel()
+            .forEach(i -> fingerprints.add(UriFingerprinter.INSTANCE.fingerprint("http://example.com/" + (i % 1000) + "/./a/../b/" + (i / 1000))));
+        assertEquals(100000, fingerprints.size());
+        for (int i = 0; i < 100000; i += 997)
+        {
+            assertEquals(true, fingerprints.contains(UriFingerprinter.INSTANCE.fingerprint("http://example.com/" + (i % 1000) + "/b/" + (i / 1000))));
+        }
+    }
+
+
+    @Test
+    public void testInvalid() throws Exception
+    {
+        assertThat(() -> UriFingerprinter.INSTANCE.fingerprint("http://exa mple.com"), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> UriFingerprinter.INSTANCE.fingerprint("http://example.com/%zz"), is(throwing(IllegalArgumentException.class)));
+    }
+}
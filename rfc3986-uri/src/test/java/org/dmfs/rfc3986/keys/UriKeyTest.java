@@ -0,0 +1,181 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.keys;
+
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.uris.CompactUri;
+import org.dmfs.rfc3986.uris.IndexedUri;
+import org.dmfs.rfc3986.uris.LazyUri;
+import org.dmfs.rfc3986.uris.Normalized;
+import org.dmfs.rfc3986.uris.Resolved;
+import org.dmfs.rfc3986.uris.Text;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.saynotobugs.confidence.Assertion.assertThat;
+import static org.saynotobugs.confidence.core.quality.Grammar.is;
+import static org.saynotobugs.confidence.core.quality.Object.throwing;
+
+
+/**
+ */
+public class UriKeyTest
+{
+    @Test
+    public void testEqual() throws Exception
+    {
+        assertEqual("http://example.com/a", "http://example.com/a");
+        assertEqual("http://example.com/a", "HTTP://EXAMPLE.com/a");
+        assertEqual("http://example.com/~a", "http://example.com/%7ea");
+        assertEqual("http://example.com/~a", "http://example.com/%7E%61");
+        assertEqual("http://example.com/a%2fb", "http://example.com/a%2Fb");
+        assertEqual("http://example.com/a/b/c", "http://example.com/a/./b/x/../c");
+        assertEqual("http://example.com/a/b/", "http://example.com/a/%2E/b/x/%2e%2E");
+        assertEqual("http://ex%41mple.com/", "http://example.com/");
+        assertEqual("http://example.com:080/", "http://example.com:80/");
+        assertEqual("http://us%65r@example.com/?q=%7e#%66", "http://user@example.com/?q=~#f");
+        assertEqual("mailto:me@example.com", "MAILTO:me@example.com");
+        assertEqual("../a/b?x", "../a/b?x");
+        assertEqual("", "");
+    }
+
+
+    @Test
+    public void testNotEqual() throws Exception
+    {
+        assertNotEqual("http://example.com/a", "https://example.com/a");
+        assertNotEqual("http://example.com/a", "http://example.com/A");
+        assertNotEqual("http://example.com/a", "http://example.com/a/");
+        assertNotEqual("http://example.com/a", "http://example.com:80/a");
+        assertNotEqual("http://example.com:81/a", "http://example.com:80/a");
+        assertNotEqual("http://example.com/a", "http://example.com/a?");
+        assertNotEqual("http://example.com/a", "http://example.com/a#");
+        assertNotEqual("http://example.com/a?", "http://example.com/a#");
+        assertNotEqual("http://example.com/a", "http://@example.com/a");
+        assertNotEqual("http://example.com/a%2Fb", "http://example.com/a/b");
+        assertNotEqual("http://example.com/?q=a", "http://example.com/?q=A");
+        assertNotEqual("http://example.com/", "http:///");
+        assertNotEqual("a/b", "/a/b");
+        assertNotEqual("//example.com/a", "/example.com/a");
+        assertNotEqual("a:b", "ab");
+    }
+
+
+    @Test
+    public void testSameAsNormalizedText() throws Exception
+    {
+        String base = "http://example.com/b/c/d;p?q";
+        String[] references = { "g", "./g", "g/", "/g", "//g", "?y", "g?y", "#s", "g#s", "g?y#s", ";x", "g;x", "", ".", "./", "..", "../", "../g", "../..",
+            "../../", "../../g", "../../../g", "/./g", "/../g", "g.", ".g", "g..", "..g", "./../g", "./g/.", "g/./h", "g/../h", "g;x=1/./y", "g;x=1/../y",
+            "%7Eg", "%7eg", "%2e/g", "%2E%2E/g", "g?%7e", "g#%7E" };
+        Map<String, UriKey> byText = new HashMap<>();
+        for (String reference : references)
+        {
+            LazyUri uri = new LazyUri(new Precoded(reference));
+            String normalized = new Text(new Normalized(new Resolved(new LazyUri(new Precoded(base)), uri))).toString();
+            UriKey key = new UriKey(new Resolved(new LazyUri(new Precoded(base)), uri));
+            UriKey existing = byText.putIfAbsent(normalized, key);
+            if (existing != null)
+            {
+                assertEquals(existing, key);
+                assertEquals(existing.fingerprint(), key.fingerprint());
+            }
+            for (Map.Entry<String, UriKey> entry : byText.entrySet())
+            {
+                assertEquals(entry.getKey().equals(normalized), entry.getValue().equals(key));
+            }
+        }
+    }
+
+
+    @Test
+    public void testHashSet() throws Exception
+    {
+        Set<UriKey> keys = new HashSet<>();
+        for (int i = 0; i < 10000; ++i)
+        {
+            keys.add(key("http://example.com/" + i + "/./x"));
+            keys.add(key("HTTP://EXAMPLE.COM/" + i + "/y/../x"));
+        }
+        assertEquals(10000, keys.size());
+
+        Set<Long> fingerprints = new HashSet<>();
+        for (UriKey key : keys)
+        {
+            fingerprints.add(key.fingerprint());
+        }
+        assertEquals(10000, fingerprints.size());
+    }
+
+
+    @Test
+    public void testSameForAllParsers() throws Exception
+    {
+        String[] uris = { "http://example.com/a/../b?q#f", "http://[::1]/", "http://user@[::1]:8080/a", "http://[v1.fe]/x", "mailto:me@example.com", "a/b" };
+        for (String uri : uris)
+        {
+            UriKey key = key(uri);
+            assertEquals(key, new UriKey(new IndexedUri(new Precoded(uri))), uri);
+            assertEquals(key, new UriKey(new CompactUri(new Precoded(uri))), uri);
+            assertEquals(key.fingerprint(), UriFingerprinter.INSTANCE.fingerprint(uri), uri);
+        }
+    }
+
+
+    @Test
+    public void testUri() throws Exception
+    {
+        LazyUri uri = new LazyUri(new Precoded("http://example.com"));
+        assertSame(uri, new UriKey(uri).uri());
+    }
+
+
+    @Test
+    public void testInvalidEncoding() throws Exception
+    {
+        assertThat(() -> key("http://example.com/%zz"), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> key("http://example.com/?%2"), is(throwing(IllegalArgumentException.class)));
+    }
+
+
+    private static void assertEqual(String uri1, String uri2)
+    {
+        assertEquals(key(uri1), key(uri2));
+        assertEquals(key(uri1).hashCode(), key(uri2).hashCode());
+        assertEquals(key(uri1).fingerprint(), key(uri2).fingerprint());
+    }
+
+
+    private static void assertNotEqual(String uri1, String uri2)
+    {
+        assertNotEquals(key(uri1), key(uri2));
+        assertNotEquals(key(uri1).fingerprint(), key(uri2).fingerprint());
+    }
+
+
+    private static UriKey key(String uri)
+    {
+        return new UriKey(new LazyUri(new Precoded(uri)));
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.dmfs.rfc3986.parameters.adapters;
+
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.parameters.ParameterType;
+import org.dmfs.rfc3986.parameters.parametertypes.BasicParameterType;
+import org.dmfs.rfc3986.parameters.valuetypes.TextValueType;
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.saynotobugs.confidence.Assertion.assertThat;
+import static org.saynotobugs.confidence.core.quality.Grammar.is;
+import static org.saynotobugs.confidence.core.quality.Object.throwing;
+
+
+/**
+ */
+public class OptionalParameterTest
+{
+    private final static ParameterType<CharSequence> KEY = new BasicParameterType<>("key", TextValueType.INSTANCE);
+
+
+    @Test
+    public void testPresent() throws Exception
+    {
+        OptionalParameter<CharSequence> parameter = new OptionalParameter<>(KEY, new XwfueParameterList(new Precoded("a=1&key=v%20w&key=2")));
+        assertTrue(parameter.isPresent());
+        assertEquals("v w", parameter.value().toString());
+        // the value is parsed only once
+        assertSame(parameter.value(), parameter.value());
+    }
+
+
+    @Test
+    public void testAbsent() throws Exception
+    {
+        OptionalParameter<CharSequence> parameter = new OptionalParameter<>(KEY, new XwfueParameterList(new Precoded("a=1&keys=2")));
+        assertFalse(parameter.isPresent());
+        assertThat(parameter::value, is(throwing(NoSuchElementException.class)));
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.parsers;
+
+import org.dmfs.rfc3986.Uri;
+import org.dmfs.rfc3986.uris.Text;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.saynotobugs.confidence.Assertion.assertThat;
+import static org.saynotobugs.confidence.core.quality.Grammar.is;
+import static org.saynotobugs.confidence.core.quality.Object.throwing;
+
+
+/**
+ */
+public class CachingUriParserTest
+{
+    @Test
+    public void testParsed() throws Exception
+    {
+        CachingUriParser parser = new CachingUriParser(100);
+        Uri uri = parser.parsed("http://example.com/a?q=1#f");
+        assertEquals("example.com", uri.authority().value().host().toString());
+        assertEquals("http://example.com/a?q=1#f", new Text(uri).toString());
+        assertSame(uri, parser.parsed("http://example.com/a?q=1#f"));
+        assertSame(uri, parser.parsed(new StringBuilder("http://example.com/a?q=1#f")));
+        assertNotSame(uri, parser.parsed("http://example.com/b"));
+        assertEquals(2, parser.hits());
+        assertEquals(2, parser.misses());
+        assertEquals(0, parser.evictions());
+    }
+
+
+    @Test
+    public void testSharedCache() throws Exception
+    {
+        // with a single local slot, all hits but the most recent one are served by the shared cache
+        CachingUriParser parser = new CachingUriParser(100, 1);
+        Uri a = parser.parsed("http://example.com/a");
+        Uri b = parser.parsed("http://example.com/b");
+        assertSame(a, parser.parsed("http://example.com/a"));
+        assertSame(b, parser.parsed("http://example.com/b"));
+        assertEquals(2, parser.hits());
+        assertEquals(2, parser.misses());
+    }
+
+
+    @Test
+    public void testEviction() throws Exception
+    {
+        CachingUriParser parser = new CachingUriParser(16, 1);
+        for (int i = 0; i < 1000; ++i)
+        {
+            parser.parsed("http://example.com/" + i);
+        }
+        assertEquals(1000, parser.misses());
+        assertEquals(1000 - 16, parser.evictions(), 16);
+    }
+
+
+    @Test
+    public void testInvalid() throws Exception
+    {
+        CachingUriParser parser = new CachingUriParser(100);
+        assertThat(() -> parser.parsed("http://exa mple.com"), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> parser.parsed("http://exa mple.com"), is(throwing(IllegalArgumentException.class)));
+        assertEquals(2, parser.misses());
+        assertEquals(0, parser.hits());
+    }
+
+
+    @Test
+    public void testConcurrentAccess() throws Exception
+    {
+        final CachingUriParser parser = new CachingUriParser(50, 8);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try
+        {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 8; ++t)
+            {
+                results.add(executor.submit((Callable<Integer>) () ->
+                {
+                    int errors = 0;
+                    for (int i = 0; i < 10000; ++i)
+                    {
+                        String uri = "http://example.com/" + (i % 100);
+                        if (!uri.equals(new Text(parser.parsed(uri)).toString()))
+                        {
+                            ++errors;
+                        }
+                    }
+                    return errors;
+                }));
+            }
+            for (Future<Integer> result : results)
+            {
+                assertEquals(0, (int) result.get());
+            }
+            assertEquals(80000, parser.hits() + parser.misses());
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+}
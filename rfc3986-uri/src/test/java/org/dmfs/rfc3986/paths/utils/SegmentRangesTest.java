@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.paths.utils;
+
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.paths.EncodedPath;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+/**
+ */
+public class SegmentRangesTest
+{
+    @Test
+    public void testSameAsSegmentStack() throws Exception
+    {
+        String[] paths = { "", "/", "//", ".", "..", "./", "../", "a", "a/", "/a", "a//b", "a/./b", "a/../b", "../a", "/../a", "a/..", "a/../..", "./a/.",
+            "%2E", "%2e%2E/a", "/a/b/c/./../../g", "mid/content=5/../6", "a/b/../../..", "/a/%2E/b/%2e%2e/c/" };
+        SegmentRanges ranges = new SegmentRanges();
+        for (String path : paths)
+        {
+            String source = "x" + path + "y";
+            ranges.scan(source, 1, source.length() - 1);
+            assertEquals(new SegmentStack(new EncodedPath(new Precoded(path)).iterator(), false).toString(), text(source, ranges), path);
+        }
+    }
+
+
+    private static String text(String source, SegmentRanges ranges)
+    {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < ranges.count(); ++i)
+        {
+            if (i > 0)
+            {
+                result.append('/');
+            }
+            result.append(ranges.start(i) < 0 ? "." : source.substring(ranges.start(i), ranges.end(i)));
+        }
+        return result.toString();
+    }
+}
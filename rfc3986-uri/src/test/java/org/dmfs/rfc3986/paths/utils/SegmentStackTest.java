@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.paths.utils;
+
+import org.dmfs.rfc3986.UriEncoded;
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.paths.EncodedPath;
+import org.dmfs.rfc3986.paths.Text;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ */
+public class SegmentStackTest
+{
+    @Test
+    public void testToString() throws Exception
+    {
+        assertEquals("", stack("").toString());
+        assertEquals("/", stack("/").toString());
+        assertEquals("/a/c", stack("/a/b/../c").toString());
+        assertEquals("/a/c", stack("/a/b/%2E%2e/c").toString());
+        assertEquals("/a/", stack("/a/b/..").toString());
+        assertEquals("/a/", stack("/a/./b/.%2E").toString());
+        assertEquals("/", stack("/../..").toString());
+        assertEquals("../b", stack("../b").toString());
+        assertEquals("./", stack("a/..").toString());
+        assertEquals("/a/.../b", stack("/a/.../b").toString());
+        assertEquals(new Text(stack("/a/b/../c/")).toString(), stack("/a/b/../c/").toString());
+    }
+
+
+    @Test
+    public void testPath() throws Exception
+    {
+        assertTrue(stack("").isEmpty());
+        assertFalse(stack("a").isEmpty());
+        assertTrue(stack("/a/../b").isAbsolute());
+        assertFalse(stack("a/../b").isAbsolute());
+    }
+
+
+    @Test
+    public void testDirectory() throws Exception
+    {
+        assertTrue(stack("").endsWithDirectory());
+        assertTrue(stack("/a/").endsWithDirectory());
+        assertTrue(stack("..").endsWithDirectory());
+        assertFalse(stack("/a/b").endsWithDirectory());
+        assertEquals("/a", text(stack("/a/b").directoryIterator()));
+        assertEquals("/a/b/", text(stack("/a/b/").directoryIterator()));
+    }
+
+
+    private static String text(Iterator<UriEncoded> segments)
+    {
+        StringBuilder result = new StringBuilder();
+        while (segments.hasNext())
+        {
+            result.append(segments.next());
+            if (segments.hasNext())
+            {
+                result.append('/');
+            }
+        }
+        return result.toString();
+    }
+
+
+    private static SegmentStack stack(String path)
+    {
+        return new SegmentStack(new EncodedPath(new Precoded(path)).iterator(), false);
+    }
+}
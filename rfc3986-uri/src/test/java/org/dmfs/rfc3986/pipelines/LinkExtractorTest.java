@@ -0,0 +1,161 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.pipelines;
+
+import org.dmfs.rfc3986.Uri;
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.uris.LazyUri;
+import org.dmfs.rfc3986.uris.Normalized;
+import org.dmfs.rfc3986.uris.Resolved;
+import org.dmfs.rfc3986.uris.Text;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.saynotobugs.confidence.Assertion.assertThat;
+import static org.saynotobugs.confidence.core.quality.Grammar.is;
+import static org.saynotobugs.confidence.core.quality.Object.throwing;
+
+
+/**
+ */
+public class LinkExtractorTest
+{
+    private final static Uri BASE = new LazyUri(new Precoded("http://example.com/b/c/d;p?q"));
+
+    private final static List<String> HREFS = Arrays.asList(
+        "g",
+        "./g",
+        "  g/  ",
+        "../g",
+        "/./g",
+        "../../../g",
+        "?y",
+        "#s",
+        "g?y#s",
+        "",
+        "%7euser/%2E%2e/x",
+        "HTTP://Example.COM/a/../b",
+        "https://example.org/",
+        "mailto:me@example.com",
+        "//example.net/x/./y",
+        "g",
+        "http://exa mple.com",
+        "/a%zz");
+
+
+    @Test
+    public void testSameAsResolvedAndNormalized() throws Exception
+    {
+        for (int batchSize = 1; batchSize <= HREFS.size() + 1; ++batchSize)
+        {
+            assertEquals(expected(HREFS), texts(new LinkExtractor(BASE, ForkJoinPool.commonPool(), batchSize).links(HREFS)));
+        }
+    }
+
+
+    @Test
+    public void testOrderAndDuplicates() throws Exception
+    {
+        LinkExtractor extractor = new LinkExtractor(BASE, ForkJoinPool.commonPool(), 2);
+        assertEquals(
+            Arrays.asList("http://example.com/b/c/g", "http://example.com/x", "http://example.com/b/c/d;p?q"),
+            texts(extractor.links(Arrays.asList("g", "./g", "/x", "/a/../x", "", "x/../g", "/x"))));
+        assertEquals(7, extractor.hrefs());
+        assertEquals(4, extractor.duplicates());
+        assertEquals(3, extractor.emitted());
+    }
+
+
+    @Test
+    public void testStatistics() throws Exception
+    {
+        LinkExtractor extractor = new LinkExtractor(BASE, ForkJoinPool.commonPool(), 4);
+        extractor.links(HREFS);
+        extractor.links(HREFS);
+        assertEquals(2 * HREFS.size(), extractor.hrefs());
+        assertEquals(4, extractor.invalid());
+        assertEquals(0, extractor.relative());
+        assertEquals(2 * expected(HREFS).size(), extractor.emitted());
+        assertEquals(extractor.hrefs() - extractor.invalid() - extractor.relative() - extractor.emitted(), extractor.duplicates());
+        assertTrue(extractor.statistics().startsWith("resolve: 36 in "));
+    }
+
+
+    @Test
+    public void testRelativeBase() throws Exception
+    {
+        LinkExtractor extractor = new LinkExtractor(new LazyUri(new Precoded("/a/b")));
+        assertEquals(Arrays.asList("http://example.com/x"), texts(extractor.links(Arrays.asList("c", "http://example.com/y/../x", "../d"))));
+        assertEquals(2, extractor.relative());
+    }
+
+
+    @Test
+    public void testLarge() throws Exception
+    {
+        List<String> hrefs = new ArrayList<>();
+        for (int i = 0; i < 10000; ++i)
+        {
+            hrefs.add("../p" + (i % 1000) + "/./q?" + (i % 7));
+        }
+        assertEquals(expected(hrefs), texts(new LinkExtractor(BASE).links(hrefs)));
+    }
+
+
+    @Test
+    public void testInvalidBatchSize() throws Exception
+    {
+        assertThat(() -> new LinkExtractor(BASE, ForkJoinPool.commonPool(), 0), is(throwing(IllegalArgumentException.class)));
+    }
+
+
+    private static List<String> expected(List<String> hrefs)
+    {
+        Set<String> result = new LinkedHashSet<>();
+        for (String href : hrefs)
+        {
+            try
+            {
+                result.add(new Text(new Normalized(new Resolved(BASE, new LazyUri(new Precoded(href.trim()))))).toString());
+            }
+            catch (IllegalArgumentException e)
+            {
+                // skip invalid hrefs
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+
+    private static List<String> texts(List<Uri> uris)
+    {
+        List<String> result = new ArrayList<>();
+        for (Uri uri : uris)
+        {
+            result.add(new Text(uri).toString());
+        }
+        return result;
+    }
+}
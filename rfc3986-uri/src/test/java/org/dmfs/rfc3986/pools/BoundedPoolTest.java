@@ -0,0 +1,135 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.pools;
+
+import org.dmfs.rfc3986.Uri;
+import org.dmfs.rfc3986.UriEncoded;
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.parameters.Parameter;
+import org.dmfs.rfc3986.parameters.adapters.XwfueParameterList;
+import org.dmfs.rfc3986.schemes.Schemes;
+import org.dmfs.rfc3986.uris.LazyUri;
+import org.dmfs.rfc3986.uris.Text;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.saynotobugs.confidence.Assertion.assertThat;
+import static org.saynotobugs.confidence.core.quality.Grammar.is;
+import static org.saynotobugs.confidence.core.quality.Object.throwing;
+
+
+/**
+ */
+public class BoundedPoolTest
+{
+    @Test
+    public void testPooled() throws Exception
+    {
+        BoundedPool pool = new BoundedPool(10);
+        UriEncoded a = pool.pooled(new Precoded("http://example.com").subSequence(7, 18));
+        UriEncoded b = pool.pooled("example.com");
+        assertEquals("example.com", a.toString());
+        assertSame(a, b);
+        assertNotSame(a, pool.pooled("example.org"));
+        assertNotSame(a, pool.pooled("EXAMPLE.COM"));
+        assertEquals(3, pool.size());
+    }
+
+
+    @Test
+    public void testCapacity() throws Exception
+    {
+        BoundedPool pool = new BoundedPool(4);
+        for (int i = 0; i < 100; ++i)
+        {
+            assertEquals("segment" + i, pool.pooled("segment" + i).toString());
+            assertTrue(pool.size() <= 4);
+        }
+        assertThat(() -> new BoundedPool(0), is(throwing(IllegalArgumentException.class)));
+    }
+
+
+    @Test
+    public void testConcurrentCapacity() throws Exception
+    {
+        BoundedPool pool = new BoundedPool(50);
+        IntStream.range(0, 100000).parallel().forEach(i -> pool.pooled("segment" + i));
+        assertTrue(pool.size() <= 50);
+    }
+
+
+    @Test
+    public void testHotComponentStaysResident() throws Exception
+    {
+        BoundedPool pool = new BoundedPool(64);
+        UriEncoded hot = pool.pooled("hot");
+        for (int i = 0; i < 100000; ++i)
+        {
+            pool.pooled("cold" + i);
+            assertSame(hot, pool.pooled("hot"));
+        }
+        assertTrue(pool.size() <= 64);
+    }
+
+
+    @Test
+    public void testLazyUri() throws Exception
+    {
+        BoundedPool pool = new BoundedPool(100);
+        Uri uri1 = new LazyUri(new Precoded("http://example.com/api/v1/users?utm_source=x"), pool);
+        Uri uri2 = new LazyUri(new Precoded("http://example.com/api/v1/groups?utm_source=y"), pool);
+        Uri uri3 = new LazyUri(new Precoded("HTTP://example.com/api"), pool);
+        Uri uri4 = new LazyUri(new Precoded("git://example.com/api"), pool);
+
+        assertSame(Schemes.HTTP, uri1.scheme().value());
+        assertSame(Schemes.HTTP, uri2.scheme().value());
+        assertEquals("HTTP", uri3.scheme().value().toString());
+        assertEquals("git", uri4.scheme().value().toString());
+        assertSame(uri1.authority().value().host(), uri2.authority().value().host());
+        assertSame(uri1.authority().value().host(), uri4.authority().value().host());
+
+        Iterator<UriEncoded> segments1 = uri1.path().iterator();
+        Iterator<UriEncoded> segments2 = uri2.path().iterator();
+        assertSame(segments1.next(), segments2.next());
+        assertSame(segments1.next(), segments2.next());
+        assertSame(segments1.next(), segments2.next());
+        assertEquals("users", segments1.next().toString());
+        assertEquals("groups", segments2.next().toString());
+
+        assertEquals("http://example.com/api/v1/users?utm_source=x", new Text(uri1).toString());
+        assertEquals("HTTP://example.com/api", new Text(uri3).toString());
+    }
+
+
+    @Test
+    public void testParameters() throws Exception
+    {
+        BoundedPool pool = new BoundedPool(100);
+        Parameter p1 = new XwfueParameterList(new org.dmfs.jems2.optional.Present<>(new Precoded("utm_source=a&x=1")), pool).iterator().next();
+        Parameter p2 = new XwfueParameterList(new org.dmfs.jems2.optional.Present<>(new Precoded("utm_source=b")), pool).iterator().next();
+        assertEquals("utm_source", p1.name().toString());
+        assertEquals("a", p1.textValue().toString());
+        assertEquals("b", p2.textValue().toString());
+        assertSame(p1.name().toString(), p2.name().toString());
+    }
+}
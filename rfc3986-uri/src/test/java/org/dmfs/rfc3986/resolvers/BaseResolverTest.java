@@ -0,0 +1,145 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.resolvers;
+
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.uris.LazyUri;
+import org.dmfs.rfc3986.uris.Resolved;
+import org.dmfs.rfc3986.uris.Text;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.saynotobugs.confidence.Assertion.assertThat;
+import static org.saynotobugs.confidence.core.quality.Grammar.is;
+import static org.saynotobugs.confidence.core.quality.Object.throwing;
+
+
+/**
+ */
+public class BaseResolverTest
+{
+    private final static String BASE = "http://a/b/c/d;p?q";
+
+    // the examples of RFC 3986, section 5.4, note this library requires schemes to be at least two chars long, so "g:h" has been replaced
+    private final static String[][] EXAMPLES = {
+        { "gg:h", "gg:h" },
+        { "g", "http://a/b/c/g" },
+        { "./g", "http://a/b/c/g" },
+        { "g/", "http://a/b/c/g/" },
+        { "/g", "http://a/g" },
+        { "//g", "http://g" },
+        { "?y", "http://a/b/c/d;p?y" },
+        { "g?y", "http://a/b/c/g?y" },
+        { "#s", "http://a/b/c/d;p?q#s" },
+        { "g#s", "http://a/b/c/g#s" },
+        { "g?y#s", "http://a/b/c/g?y#s" },
+        { ";x", "http://a/b/c/;x" },
+        { "g;x", "http://a/b/c/g;x" },
+        { "g;x?y#s", "http://a/b/c/g;x?y#s" },
+        { "", "http://a/b/c/d;p?q" },
+        { ".", "http://a/b/c/" },
+        { "./", "http://a/b/c/" },
+        { "..", "http://a/b/" },
+        { "../", "http://a/b/" },
+        { "../g", "http://a/b/g" },
+        { "../..", "http://a/" },
+        { "../../", "http://a/" },
+        { "../../g", "http://a/g" },
+        { "../../../g", "http://a/g" },
+        { "../../../../g", "http://a/g" },
+        { "/./g", "http://a/g" },
+        { "/../g", "http://a/g" },
+        { "g.", "http://a/b/c/g." },
+        { ".g", "http://a/b/c/.g" },
+        { "g..", "http://a/b/c/g.." },
+        { "..g", "http://a/b/c/..g" },
+        { "./../g", "http://a/b/g" },
+        { "./g/.", "http://a/b/c/g/" },
+        { "g/./h", "http://a/b/c/g/h" },
+        { "g/../h", "http://a/b/c/h" },
+        { "g;x=1/./y", "http://a/b/c/g;x=1/y" },
+        { "g;x=1/../y", "http://a/b/c/y" },
+        { "g?y/./x", "http://a/b/c/g?y/./x" },
+        { "g?y/../x", "http://a/b/c/g?y/../x" },
+        { "g#s/./x", "http://a/b/c/g#s/./x" },
+        { "g#s/../x", "http://a/b/c/g#s/../x" },
+        { "http:g", "http:g" },
+    };
+
+
+    @Test
+    public void testRfcExamples() throws Exception
+    {
+        BaseResolver resolver = new BaseResolver(BASE);
+        for (String[] example : EXAMPLES)
+        {
+            assertEquals(example[1], resolver.resolved(example[0]), example[0]);
+            assertEquals(example[1], new Text(resolver.resolvedUri(example[0])).toString(), example[0]);
+        }
+    }
+
+
+    @Test
+    public void testSameAsResolved() throws Exception
+    {
+        String[] bases = { BASE, "http://a/b/c/../d/", "https://u@a:8080/b/%2E%2E/c#f", "urn:a:b", "../a/b", "/a/b", "" };
+        String[] references = { "g", "../g", "g/%2e%2E/h", "/a/../b//c", "//x/./y", "?q", "#f", "", "..", "a:b/../c", "./x/../../../y/" };
+        for (String base : bases)
+        {
+            BaseResolver resolver = new BaseResolver(base);
+            for (String reference : references)
+            {
+                assertEquals(new Text(new Resolved(new LazyUri(new Precoded(base)), new LazyUri(new Precoded(reference)))).toString(),
+                    resolver.resolved(reference), base + " " + reference);
+            }
+        }
+    }
+
+
+    @Test
+    public void testEmptyBasePath() throws Exception
+    {
+        // RFC 3986, section 5.2.3, a relative path is merged with "/" if the base has an authority and an empty path
+        assertEquals("http://a/g", new BaseResolver("http://a").resolved("g"));
+        assertEquals("http://a/g", new BaseResolver("http://a?q").resolved("./g"));
+        assertEquals("http://a?y", new BaseResolver("http://a?q").resolved("?y"));
+    }
+
+
+    @Test
+    public void testRedirected() throws Exception
+    {
+        BaseResolver resolver = new BaseResolver("http://a/b/c#frag");
+        assertEquals("http://a/b/c#frag", resolver.redirected(Collections.emptyList()));
+        assertEquals("https://x/y#frag", resolver.redirected(Arrays.asList("https://x/y")));
+        assertEquals("https://x/z/w#frag", resolver.redirected(Arrays.asList("https://x/y", "z/", "w")));
+        assertEquals("http://a/d/e#new", resolver.redirected(Arrays.asList("/d/", "e#new")));
+        assertEquals("http://a/d/f#new", resolver.redirected(Arrays.asList("/d/#new", "f")));
+        assertEquals("http://a/b/x", new BaseResolver("http://a/b/c").redirected(Arrays.asList("x")));
+    }
+
+
+    @Test
+    public void testInvalid() throws Exception
+    {
+        assertThat(() -> new BaseResolver(BASE).resolved("a b"), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> new BaseResolver("http://a b"), is(throwing(IllegalArgumentException.class)));
+    }
+}
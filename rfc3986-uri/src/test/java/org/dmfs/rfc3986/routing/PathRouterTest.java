@@ -0,0 +1,157 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.routing;
+
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.uris.LazyUri;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.saynotobugs.confidence.Assertion.assertThat;
+import static org.saynotobugs.confidence.core.quality.Grammar.is;
+import static org.saynotobugs.confidence.core.quality.Object.throwing;
+
+
+/**
+ */
+public class PathRouterTest
+{
+    @Test
+    public void testStatic() throws Exception
+    {
+        PathRouter<String> router = router();
+        PathMatch<String> match = new PathMatch<>();
+        assertTrue(router.match("/users", match));
+        assertEquals("users", match.value());
+        assertEquals(0, match.variableCount());
+        assertTrue(router.match("/", match));
+        assertEquals("root", match.value());
+        assertTrue(router.match("", match));
+        assertEquals("empty", match.value());
+        assertFalse(router.match("/users/", match));
+        assertFalse(router.match("users", match));
+        assertFalse(router.match("/Users", match));
+        assertFalse(router.match("/unknown", match));
+        assertThat(match::value, is(throwing(java.util.NoSuchElementException.class)));
+    }
+
+
+    @Test
+    public void testVariables() throws Exception
+    {
+        PathRouter<String> router = router();
+        PathMatch<String> match = new PathMatch<>();
+        String path = "/users/12%203/orders/456";
+        assertTrue(router.match(path, match));
+        assertEquals("order", match.value());
+        assertEquals(2, match.variableCount());
+        assertEquals("id", match.name(0));
+        assertEquals("orderId", match.name(1));
+        assertEquals(7, match.start(0));
+        assertEquals(13, match.end(0));
+        assertEquals(21, match.start(1));
+        assertEquals(24, match.end(1));
+        assertEquals(path, match.source(0));
+        assertEquals("12%203", match.variable("id").toString());
+        assertEquals("12 3", match.variable("id").decoded().toString());
+        assertEquals("456", match.variable(1).toString());
+        assertThat(() -> match.variable("foo"), is(throwing(java.util.NoSuchElementException.class)));
+        assertThat(() -> match.name(2), is(throwing(IndexOutOfBoundsException.class)));
+
+        assertFalse(router.match("/users//orders/456", match));
+        assertFalse(router.match("/users/123/orders/", match));
+    }
+
+
+    @Test
+    public void testPrecedence() throws Exception
+    {
+        PathRouter<String> router = router();
+        PathMatch<String> match = new PathMatch<>();
+        assertTrue(router.match("/users/me", match));
+        assertEquals("me", match.value());
+        assertEquals(0, match.variableCount());
+        assertTrue(router.match("/users/123", match));
+        assertEquals("user", match.value());
+        // the static segment "me" leads into a dead end, so the variable is used
+        assertTrue(router.match("/users/me/orders/1", match));
+        assertEquals("order", match.value());
+        assertEquals("me", match.variable("id").toString());
+        assertEquals("1", match.variable("orderId").toString());
+    }
+
+
+    @Test
+    public void testAddNull() throws Exception
+    {
+        PathRouter<String> router = router();
+        assertThat(() -> router.add("/users", null), is(throwing(IllegalArgumentException.class)));
+        PathMatch<String> match = new PathMatch<>();
+        assertTrue(router.match("/users", match));
+        assertEquals("users", match.value());
+    }
+
+
+    @Test
+    public void testPath() throws Exception
+    {
+        PathRouter<String> router = router();
+        PathMatch<String> match = new PathMatch<>();
+        assertTrue(router.match(new LazyUri(new Precoded("http://example.com/users/123/orders/456?q=1")).path(), match));
+        assertEquals("order", match.value());
+        assertEquals("123", match.variable("id").toString());
+        assertEquals("456", match.source(1).subSequence(match.start(1), match.end(1)).toString());
+        assertTrue(router.match(new LazyUri(new Precoded("http://example.com")).path(), match));
+        assertEquals("empty", match.value());
+        assertFalse(router.match(new LazyUri(new Precoded("http://example.com/users/123/x")).path(), match));
+    }
+
+
+    @Test
+    public void testManyRoutes() throws Exception
+    {
+        PathRouter<Integer> router = new PathRouter<>();
+        for (int i = 0; i < 5000; ++i)
+        {
+            router.add(String.format("/api/v%d/{tenant}/resource%d/{id}", i % 10, i), i);
+        }
+        PathMatch<Integer> match = new PathMatch<>();
+        for (int i = 0; i < 5000; ++i)
+        {
+            assertTrue(router.match(String.format("/api/v%d/t%d/resource%d/%d", i % 10, i, i, i * 2), match));
+            assertEquals(i, (int) match.value());
+            assertEquals("t" + i, match.variable("tenant").toString());
+            assertEquals(String.valueOf(i * 2), match.variable("id").toString());
+            assertFalse(router.match(String.format("/api/v%d/t%d/resource%d/%d", (i + 1) % 10, i, i, i * 2), match));
+        }
+    }
+
+
+    private static PathRouter<String> router()
+    {
+        PathRouter<String> router = new PathRouter<>();
+        router.add("", "empty");
+        router.add("/", "root");
+        router.add("/users", "users");
+        router.add("/users/{id}", "user");
+        router.add("/users/me", "me");
+        router.add("/users/{id}/orders/{orderId}", "order");
+        return router;
+    }
+}
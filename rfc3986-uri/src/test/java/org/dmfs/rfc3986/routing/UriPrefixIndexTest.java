@@ -0,0 +1,128 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.routing;
+
+import org.dmfs.rfc3986.Uri;
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.uris.LazyUri;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.saynotobugs.confidence.Assertion.assertThat;
+import static org.saynotobugs.confidence.core.quality.Grammar.is;
+import static org.saynotobugs.confidence.core.quality.Object.throwing;
+
+
+/**
+ */
+public class UriPrefixIndexTest
+{
+    @Test
+    public void testLongestPrefix() throws Exception
+    {
+        UriPrefixIndex<String> index = index();
+        assertEquals("host", index.longestPrefix(uri("http://example.com")).value());
+        assertEquals("host", index.longestPrefix(uri("http://example.com/")).value());
+        assertEquals("host", index.longestPrefix(uri("HTTP://Example.COM/apis")).value());
+        assertEquals("api", index.longestPrefix(uri("http://example.com/api")).value());
+        assertEquals("api", index.longestPrefix(uri("http://example.com/api/")).value());
+        assertEquals("api", index.longestPrefix(uri("http://user@example.com:8080/api/groups?q=1#f")).value());
+        assertEquals("users", index.longestPrefix(uri("http://example.com/api/users")).value());
+        assertEquals("users", index.longestPrefix(uri("http://example.com/api/users/123/orders")).value());
+        assertEquals("api", index.longestPrefix(uri("http://example.com/api/Users")).value());
+        assertEquals("secure", index.longestPrefix(uri("https://example.com/api/users")).value());
+        assertEquals("relative", index.longestPrefix(uri("/api/users")).value());
+        assertFalse(index.longestPrefix(uri("https://example.org/api")).isPresent());
+        assertFalse(index.longestPrefix(uri("ftp://example.com/api")).isPresent());
+        assertFalse(index.longestPrefix(uri("//example.com/api")).isPresent());
+        assertFalse(index.longestPrefix(uri("/other")).isPresent());
+        assertFalse(index.longestPrefix(uri("mailto:me@example.com")).isPresent());
+    }
+
+
+    @Test
+    public void testAllPrefixes() throws Exception
+    {
+        UriPrefixIndex<String> index = index();
+        assertEquals(Arrays.asList("host", "api", "users"), index.allPrefixes(uri("http://example.com/api/users/123")));
+        assertEquals(Arrays.asList("host", "api"), index.allPrefixes(uri("http://example.com/api/groups")));
+        assertEquals(Collections.singletonList("host"), index.allPrefixes(uri("http://example.com")));
+        assertEquals(Collections.emptyList(), index.allPrefixes(uri("http://example.org/api")));
+    }
+
+
+    @Test
+    public void testPut() throws Exception
+    {
+        UriPrefixIndex<String> index = index();
+        assertEquals(5, index.size());
+        index.put(uri("http://EXAMPLE.com/api/"), "api2");
+        assertEquals(5, index.size());
+        assertEquals("api2", index.longestPrefix(uri("http://example.com/api/groups")).value());
+    }
+
+
+    @Test
+    public void testPutNull() throws Exception
+    {
+        UriPrefixIndex<String> index = index();
+        assertThat(() -> index.put(uri("http://example.com/api"), null), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> index.put(uri("http://example.com/other"), null), is(throwing(IllegalArgumentException.class)));
+        assertEquals(5, index.size());
+        assertEquals("api", index.longestPrefix(uri("http://example.com/api/groups")).value());
+        assertEquals(Collections.singletonList("host"), index.allPrefixes(uri("http://example.com/other")));
+    }
+
+
+    @Test
+    public void testManyPrefixes() throws Exception
+    {
+        UriPrefixIndex<Integer> index = new UriPrefixIndex<>();
+        for (int i = 0; i < 10000; ++i)
+        {
+            index.put(uri(String.format("https://host%d.example.com/%d/%d", i % 100, i / 100, i)), i);
+        }
+        assertEquals(10000, index.size());
+        for (int i = 0; i < 10000; ++i)
+        {
+            assertEquals(i, (int) index.longestPrefix(uri(String.format("https://host%d.example.com/%d/%d/x", i % 100, i / 100, i))).value());
+            assertFalse(index.longestPrefix(uri(String.format("https://host%d.example.com/%d/%d", i % 100, i / 100 + 1, i))).isPresent());
+        }
+    }
+
+
+    private static UriPrefixIndex<String> index()
+    {
+        UriPrefixIndex<String> index = new UriPrefixIndex<>();
+        index.put(uri("http://example.com"), "host");
+        index.put(uri("http://example.com/api"), "api");
+        index.put(uri("http://example.com/api/users"), "users");
+        index.put(uri("https://example.com/"), "secure");
+        index.put(uri("/api"), "relative");
+        return index;
+    }
+
+
+    private static Uri uri(String uri)
+    {
+        return new LazyUri(new Precoded(uri));
+    }
+}
@@ -17,6 +17,9 @@
 package org.dmfs.rfc3986.schemes;
 
 import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.pools.BoundedPool;
+import org.dmfs.rfc3986.pools.Unpooled;
+import org.dmfs.rfc3986.uris.LazyUri;
 import org.junit.jupiter.api.Test;
 
 import java.util.NoSuchElementException;
@@ -57,6 +60,20 @@ public class OptionalLazySchemeTest
     }
 
 
+    @Test
+    public void valuePooled() throws Exception
+    {
+        assertSame(Schemes.HTTP, new OptionalLazyScheme(new Precoded("http://example.com"), new BoundedPool(10)).value());
+        assertSame(Schemes.MAILTO, new OptionalLazyScheme(new Precoded("mailto:test@exampe.com"), new BoundedPool(10)).value());
+        assertEquals("HTTP", new OptionalLazyScheme(new Precoded("HTTP://example.com"), new BoundedPool(10)).value().toString());
+        // it's the choice of the constructor, not the type of the pool, that decides
+        assertNotSame(Schemes.HTTP, new OptionalLazyScheme(new Precoded("http://example.com")).value());
+        assertSame(Schemes.HTTP, new OptionalLazyScheme(new Precoded("http://example.com"), Unpooled.INSTANCE).value());
+        assertNotSame(Schemes.HTTP, new LazyUri(new Precoded("http://example.com")).scheme().value());
+        assertSame(Schemes.HTTP, new LazyUri(new Precoded("http://example.com"), new BoundedPool(10)).scheme().value());
+    }
+
+
     @Test
     public void valueFail1() throws Exception
     {
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.sorting;
+
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.uris.LazyUri;
+import org.dmfs.rfc3986.uris.Normalized;
+import org.dmfs.rfc3986.uris.Text;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.saynotobugs.confidence.Assertion.assertThat;
+import static org.saynotobugs.confidence.core.quality.Grammar.is;
+import static org.saynotobugs.confidence.core.quality.Object.throwing;
+
+
+/**
+ */
+public class ExternalDeduplicatorTest
+{
+    @Test
+    public void testDeduplicate() throws Exception
+    {
+        List<String> uris = new ArrayList<>();
+        for (int i = 0; i < 5000; ++i)
+        {
+            uris.add("http://example.com/" + (i % 700) + "/./a/../b?q=%7e" + (i % 3));
+            uris.add("http://example.com/" + (i % 700) + "/b?q=~" + (i % 3));
+        }
+        Path directory = Files.createTempDirectory("dedupe");
+        for (int runSize : new int[] { 1, 7, 1000, 100000 })
+        {
+            ExternalDeduplicator deduplicator = new ExternalDeduplicator(directory, runSize, new ForkJoinPool(3));
+            StringWriter out = new StringWriter();
+            long count = deduplicator.deduplicate(uris, out);
+
+            List<String> lines = Arrays.asList(out.toString().split("\n"));
+            assertEquals(expected(uris), new HashSet<>(lines));
+            assertEquals(lines.size(), new HashSet<>(lines).size());
+            assertEquals(2100, count);
+            assertEquals(2100, deduplicator.unique());
+            assertEquals(10000, deduplicator.read());
+            assertEquals((10000 + runSize - 1) / runSize, deduplicator.runs());
+            assertTrue(deduplicator.statistics().startsWith("read: 10000, invalid: 0, "));
+            try (Stream<Path> files = Files.list(directory))
+            {
+                assertEquals(0, files.count());
+            }
+        }
+    }
+
+
+    @Test
+    public void testBoundedMergeWidth() throws Exception
+    {
+        List<String> uris = new ArrayList<>();
+        for (int i = 0; i < 3000; ++i)
+        {
+            uris.add("http://example.com/" + (i % 500) + "/./a");
+        }
+        Path directory = Files.createTempDirectory("dedupe");
+        for (int width : new int[] { 2, 3, 10, 1000 })
+        {
+            ExternalDeduplicator deduplicator = new ExternalDeduplicator(directory, 7, width, new ForkJoinPool(2));
+            StringWriter out = new StringWriter();
+            assertEquals(500, deduplicator.deduplicate(uris, out));
+
+            List<String> lines = Arrays.asList(out.toString().split("\n"));
+            assertEquals(expected(uris), new HashSet<>(lines));
+            assertEquals(500, lines.size());
+            // each intermediate merge replaces width runs by one
+            long runs = deduplicator.runs();
+            assertEquals(runs <= width ? 0 : (runs - 2) / (width - 1), deduplicator.intermediateMerges());
+            try (Stream<Path> files = Files.list(directory))
+            {
+                assertEquals(0, files.count());
+            }
+        }
+    }
+
+
+    @Test
+    public void testInvalid() throws Exception
+    {
+        ExternalDeduplicator deduplicator = new ExternalDeduplicator(Files.createTempDirectory("dedupe"), 2, ForkJoinPool.commonPool());
+        StringWriter out = new StringWriter();
+        assertEquals(2, deduplicator.deduplicate(Arrays.asList("http://example.com/%zz", "http://example.com/a", "a", "http://example.com/./a"), out));
+        assertEquals(1, deduplicator.invalid());
+        assertEquals(new HashSet<>(Arrays.asList("http://example.com/a", "a")), new HashSet<>(Arrays.asList(out.toString().split("\n"))));
+    }
+
+
+    @Test
+    public void testEncodedHostWithPort() throws Exception
+    {
+        List<String> uris = new ArrayList<>();
+        for (int i = 0; i < 2000; ++i)
+        {
+            uris.add("http://example.com/" + i % 500);
+        }
+        uris.add("http://h%41:8/x");
+        ExternalDeduplicator deduplicator = new ExternalDeduplicator(Files.createTempDirectory("dedupe"), 100, new ForkJoinPool(4));
+        StringWriter out = new StringWriter();
+        assertEquals(501, deduplicator.deduplicate(uris, out));
+        assertEquals(0, deduplicator.invalid());
+        assertTrue(Arrays.asList(out.toString().split("\n")).contains("http://hA:8/x"));
+
+        // any other exception of a single record is counted as invalid too
+        deduplicator = new ExternalDeduplicator(Files.createTempDirectory("dedupe"), 100, new ForkJoinPool(4));
+        List<CharSequence> broken = new ArrayList<>(uris);
+        broken.add(1000, new CharSequence()
+        {
+            @Override
+            public int length()
+            {
+                return 10;
+            }
+
+
+            @Override
+            public char charAt(int index)
+            {
+                throw new IllegalStateException("broken");
+            }
+
+
+            @Override
+            public CharSequence subSequence(int start, int end)
+            {
+                throw new IllegalStateException("broken");
+            }
+        });
+        assertEquals(501, deduplicator.deduplicate(broken, new StringWriter()));
+        assertEquals(1, deduplicator.invalid());
+    }
+
+
+    @Test
+    public void testFailureLeavesNoFiles() throws Exception
+    {
+        List<CharSequence> uris = new ArrayList<>();
+        for (int i = 0; i < 2000; ++i)
+        {
+            uris.add("http://example.com/" + i % 500);
+        }
+        Path directory = Files.createTempDirectory("dedupe");
+        for (int position : new int[] { 0, 1000, 1950, 2000 })
+        {
+            // a failing run
+            List<CharSequence> failingRun = new ArrayList<>(uris);
+            failingRun.add(position, new CharSequence()
+            {
+                @Override
+                public int length()
+                {
+                    throw new Error("broken");
+                }
+
+
+                @Override
+                public char charAt(int index)
+                {
+                    throw new Error("broken");
+                }
+
+
+                @Override
+                public CharSequence subSequence(int start, int end)
+                {
+                    throw new Error("broken");
+                }
+            });
+            assertThat(() -> new ExternalDeduplicator(directory, 100, new ForkJoinPool(4)).deduplicate(failingRun, new StringWriter()),
+                is(throwing(Error.class)));
+            try (Stream<Path> files = Files.list(directory))
+            {
+                assertEquals(0, files.count());
+            }
+
+            // a failing input
+            Iterable<CharSequence> failingInput = () -> new Iterator<CharSequence>()
+            {
+                private final Iterator<CharSequence> mDelegate = uris.subList(0, position).iterator();
+
+
+                @Override
+                public boolean hasNext()
+                {
+                    return true;
+                }
+
+
+                @Override
+                public CharSequence next()
+                {
+                    if (!mDelegate.hasNext())
+                    {
+                        throw new IllegalStateException("broken");
+                    }
+                    return mDelegate.next();
+                }
+            };
+            assertThat(() -> new ExternalDeduplicator(directory, 100, new ForkJoinPool(4)).deduplicate(failingInput, new StringWriter()),
+                is(throwing(IllegalStateException.class)));
+            try (Stream<Path> files = Files.list(directory))
+            {
+                assertEquals(0, files.count());
+            }
+        }
+    }
+
+
+    @Test
+    public void testEmpty() throws Exception
+    {
+        StringWriter out = new StringWriter();
+        assertEquals(0, new ExternalDeduplicator().deduplicate(new ArrayList<String>(), out));
+        assertEquals("", out.toString());
+    }
+
+
+    @Test
+    public void testInvalidRunSize() throws Exception
+    {
+        assertThat(() -> new ExternalDeduplicator(Files.createTempDirectory("dedupe"), 0, ForkJoinPool.commonPool()),
+            is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> new ExternalDeduplicator(Files.createTempDirectory("dedupe"), 10, 1, ForkJoinPool.commonPool()),
+            is(throwing(IllegalArgumentException.class)));
+    }
+
+
+    private static Set<String> expected(List<String> uris)
+    {
+        return uris.stream().map(uri -> new Text(new Normalized(new LazyUri(new Precoded(uri)))).toString()).collect(Collectors.toSet());
+    }
+}
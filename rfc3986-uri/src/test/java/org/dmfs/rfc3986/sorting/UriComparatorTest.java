@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.sorting;
+
+import org.dmfs.rfc3986.Uri;
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.uris.LazyUri;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ */
+public class UriComparatorTest
+{
+    @Test
+    public void testOrder() throws Exception
+    {
+        String[] ordered = {
+            "",
+            "?q",
+            "a",
+            "a/b",
+            "//example.com",
+            "//example.com:80",
+            "//user@example.com:80",
+            "ftp://example.com",
+            "http://a.example.com/",
+            "http://example.com",
+            "http://example.com/",
+            "http://example.com/a",
+            "http://example.com/a/",
+            "http://example.com/a/b",
+            "http://example.com/ab",
+            "http://example.com/ab?",
+            "http://example.com/ab?x",
+            "http://example.com/ab?x#",
+            "http://example.com/ab?y",
+            "http://example.com:8/",
+            "http://example.com:10/",
+            "http://@example.com:10/",
+            "http://example.org/",
+            "mailto:me@example.com" };
+        for (int i = 0; i < ordered.length; ++i)
+        {
+            for (int j = 0; j < ordered.length; ++j)
+            {
+                assertEquals(Integer.signum(Integer.compare(i, j)), Integer.signum(UriComparator.INSTANCE.compare(uri(ordered[i]), uri(ordered[j]))),
+                    ordered[i] + " vs " + ordered[j]);
+            }
+        }
+    }
+
+
+    @Test
+    public void testEncodedChars() throws Exception
+    {
+        assertTrue(UriComparator.INSTANCE.compare(uri("http://example.com/%7E"), uri("http://example.com/~")) < 0);
+        assertTrue(UriComparator.INSTANCE.compare(uri("HTTP://example.com/"), uri("http://example.com/")) < 0);
+    }
+
+
+    private static Uri uri(String uri)
+    {
+        return new LazyUri(new Precoded(uri));
+    }
+}
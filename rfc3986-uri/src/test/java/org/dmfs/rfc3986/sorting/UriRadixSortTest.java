@@ -0,0 +1,176 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.sorting;
+
+import org.dmfs.rfc3986.Uri;
+import org.dmfs.rfc3986.UriEncoded;
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.uris.LazyUri;
+import org.dmfs.rfc3986.uris.Text;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+/**
+ */
+public class UriRadixSortTest
+{
+    private final static String[] PARTS = { "http:", "https:", "//", "www.", "example", ".com", ".org", ":8080", ":80", "@", "/", "a", "b", "%41", "?", "q=1",
+        "&", "#", "f", "" };
+
+
+    @Test
+    public void testSortEncoded() throws Exception
+    {
+        for (int size : new int[] { 0, 1, 2, 11, 12, 13, 100, 5000 })
+        {
+            String[] uris = random(size, size);
+            UriEncoded[] encoded = new UriEncoded[size];
+            for (int i = 0; i < size; ++i)
+            {
+                encoded[i] = new Precoded(uris[i]);
+            }
+            UriRadixSort.INSTANCE.sort(encoded);
+            Arrays.sort(uris);
+            for (int i = 0; i < size; ++i)
+            {
+                assertEquals(uris[i], encoded[i].toString());
+            }
+        }
+    }
+
+
+    @Test
+    public void testSortUris() throws Exception
+    {
+        for (int size : new int[] { 0, 1, 2, 11, 12, 13, 100, 5000 })
+        {
+            String[] texts = random(size * 3, size + 1);
+            Uri[] uris = new Uri[size];
+            int count = 0;
+            for (int i = 0; count < size; ++i)
+            {
+                Uri uri = new LazyUri(new Precoded(texts[i]));
+                try
+                {
+                    // parses all components
+                    UriComparator.INSTANCE.compare(uri, uri);
+                    uris[count++] = uri;
+                }
+                catch (IllegalArgumentException e)
+                {
+                    // skip invalid URIs
+                }
+            }
+            Uri[] expected = uris.clone();
+            Arrays.sort(expected, UriComparator.INSTANCE);
+            UriRadixSort.INSTANCE.sort(uris);
+            for (int i = 0; i < size; ++i)
+            {
+                assertEquals(0, UriComparator.INSTANCE.compare(expected[i], uris[i]));
+            }
+        }
+    }
+
+
+    @Test
+    public void testCommonPrefixes() throws Exception
+    {
+        UriEncoded[] encoded = new UriEncoded[1000];
+        String[] uris = new String[1000];
+        for (int i = 0; i < uris.length; ++i)
+        {
+            uris[i] = "https://www.example.com/some/long/common/path/" + (i * 7919 % 1000);
+            encoded[i] = new Precoded(uris[i]);
+        }
+        UriRadixSort.INSTANCE.sort(encoded);
+        Arrays.sort(uris);
+        for (int i = 0; i < uris.length; ++i)
+        {
+            assertEquals(uris[i], encoded[i].toString());
+        }
+    }
+
+
+    @Test
+    public void testLongDuplicates() throws Exception
+    {
+        StringBuilder path = new StringBuilder();
+        for (int i = 0; i < 1000; ++i)
+        {
+            path.append("/segment%").append(i % 10).append('A');
+        }
+        String longUri = "http://example.com" + path;
+        UriEncoded[] encoded = new UriEncoded[1000];
+        Uri[] uris = new Uri[1000];
+        for (int i = 0; i < encoded.length; ++i)
+        {
+            // identical URIs, plus a few that differ at the very end
+            String uri = i % 100 == 0 ? longUri + "?" + i : longUri;
+            encoded[i] = new Precoded(uri);
+            uris[i] = new LazyUri(new Precoded(uri));
+        }
+        Throwable[] error = new Throwable[1];
+        Thread thread = new Thread(null, () ->
+        {
+            try
+            {
+                UriRadixSort.INSTANCE.sort(encoded);
+                UriRadixSort.INSTANCE.sort(uris);
+            }
+            catch (Throwable e)
+            {
+                error[0] = e;
+            }
+        }, "small stack", 256 * 1024);
+        thread.start();
+        thread.join();
+        assertEquals(null, error[0]);
+        String[] expected = new String[encoded.length];
+        for (int i = 0; i < encoded.length; ++i)
+        {
+            expected[i] = i % 100 == 0 ? longUri + "?" + i : longUri;
+        }
+        Arrays.sort(expected);
+        for (int i = 0; i < encoded.length; ++i)
+        {
+            assertEquals(expected[i], encoded[i].toString());
+            assertEquals(expected[i], new Text(uris[i]).toString());
+        }
+    }
+
+
+    private static String[] random(int size, long seed)
+    {
+        Random random = new Random(seed);
+        String[] result = new String[size];
+        for (int i = 0; i < size; ++i)
+        {
+            StringBuilder uri = new StringBuilder();
+            for (int j = random.nextInt(8); j > 0; --j)
+            {
+                uri.append(PARTS[random.nextInt(PARTS.length)]);
+            }
+            result[i] = uri.toString();
+        }
+        return result;
+    }
+}
@@ -39,6 +39,7 @@ public final class Bench
         run(new OurUriBench(), uriStr);
         run(new JavaUriBench(), uriStr);
         run(new OurUriBench(), uriStr);
+        run(new CompactUriBench(), uriStr);
     }
 
 
@@ -105,5 +106,19 @@ public final class Bench
         }
     }
 
+
+    private final static class CompactUriBench implements Benchmark
+    {
+
+        @Override
+        public void bench(List<Object> results, int count, String uriStr)
+        {
+            for (int i = 0; i < count; ++i)
+            {
+                results.add(new CompactUri(new Precoded(uriStr)));
+            }
+        }
+    }
+
 }
 
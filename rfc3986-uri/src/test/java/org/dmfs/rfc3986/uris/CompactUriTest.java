@@ -0,0 +1,187 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.uris;
+
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.paths.Text;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.saynotobugs.confidence.Assertion.assertThat;
+import static org.saynotobugs.confidence.core.quality.Grammar.is;
+import static org.saynotobugs.confidence.core.quality.Object.throwing;
+
+
+/**
+ */
+public class CompactUriTest
+{
+    @Test
+    public void scheme() throws Exception
+    {
+        assertEquals("http", new CompactUri(new Precoded("http://example.com")).scheme().value().toString());
+        assertEquals("http", new CompactUri(new Precoded("http://example.com:123/path")).scheme().value().toString());
+        assertEquals("urn", new CompactUri(new Precoded("urn:isbn:3827370191")).scheme().value().toString());
+        assertEquals("file", new CompactUri(new Precoded("file:///test.txt")).scheme().value().toString());
+        assertEquals("mailto", new CompactUri(new Precoded("mailto:test@example.com")).scheme().value().toString());
+        assertFalse(new CompactUri(new Precoded("//example.com")).scheme().isPresent());
+        assertFalse(new CompactUri(new Precoded("/absolute/path")).scheme().isPresent());
+        assertFalse(new CompactUri(new Precoded("relative/path")).scheme().isPresent());
+        assertFalse(new CompactUri(new Precoded("?q=:query:")).scheme().isPresent());
+    }
+
+
+    @Test
+    public void authority() throws Exception
+    {
+        assertEquals("example.com", new CompactUri(new Precoded("http://example.com")).authority().value().host().toString());
+        assertEquals("example.com", new CompactUri(new Precoded("http://example.com/path")).authority().value().host().toString());
+        assertEquals("example.com", new CompactUri(new Precoded("http://example.com:123/path")).authority().value().host().toString());
+        assertEquals("example.com", new CompactUri(new Precoded("//example.com")).authority().value().host().toString());
+        assertEquals("", new CompactUri(new Precoded("file:///test.txt")).authority().value().host().toString());
+        assertEquals("[::1]", new CompactUri(new Precoded("http://[::1]:8080/")).authority().value().host().toString());
+        assertEquals(8080, (int) new CompactUri(new Precoded("http://[::1]:8080/")).authority().value().port().value());
+        assertEquals(123, (int) new CompactUri(new Precoded("http://example.com:123/path")).authority().value().port().value());
+        assertFalse(new CompactUri(new Precoded("http://example.com/path")).authority().value().port().isPresent());
+        assertEquals("user:pw", new CompactUri(new Precoded("http://user:pw@example.com/path")).authority().value().userInfo().value().toString());
+        assertEquals("user", new CompactUri(new Precoded("//user@example.com")).authority().value().userInfo().value().toString());
+        assertFalse(new CompactUri(new Precoded("http://example.com/path")).authority().value().userInfo().isPresent());
+        assertFalse(new CompactUri(new Precoded("mailto:test@example.com")).authority().isPresent());
+        assertFalse(new CompactUri(new Precoded("urn:isbn:3827370191")).authority().isPresent());
+    }
+
+
+    @Test
+    public void path() throws Exception
+    {
+        assertTrue(new CompactUri(new Precoded("http://www.example.com")).path().isEmpty());
+        assertTrue(new CompactUri(new Precoded("http://www.example.com?q=test")).path().isEmpty());
+        assertTrue(new CompactUri(new Precoded("http://www.example.com:123#fragment")).path().isEmpty());
+        assertEquals("/", new Text(new CompactUri(new Precoded("http://www.example.com/")).path()).toString());
+        assertEquals("/test/123", new Text(new CompactUri(new Precoded("http://www.example.com/test/123?q=test")).path()).toString());
+        assertEquals("test@example.com", new Text(new CompactUri(new Precoded("mailto:test@example.com")).path()).toString());
+        assertEquals("/test/123", new Text(new CompactUri(new Precoded("file:///test/123")).path()).toString());
+        assertEquals("../a/b", new Text(new CompactUri(new Precoded("../a/b#x")).path()).toString());
+    }
+
+
+    @Test
+    public void query() throws Exception
+    {
+        assertFalse(new CompactUri(new Precoded("http://www.example.com")).query().isPresent());
+        assertFalse(new CompactUri(new Precoded("http://www.example.com/#?q")).query().isPresent());
+        assertEquals("", new CompactUri(new Precoded("http://www.example.com/?")).query().value().toString());
+        assertEquals("q=test", new CompactUri(new Precoded("http://www.example.com/?q=test")).query().value().toString());
+        assertEquals("q=test?x", new CompactUri(new Precoded("http://www.example.com/?q=test?x#f")).query().value().toString());
+    }
+
+
+    @Test
+    public void fragment() throws Exception
+    {
+        assertFalse(new CompactUri(new Precoded("http://www.example.com")).fragment().isPresent());
+        assertEquals("", new CompactUri(new Precoded("http://www.example.com/#")).fragment().value().toString());
+        assertEquals("q=test", new CompactUri(new Precoded("http://www.example.com/#q=test")).fragment().value().toString());
+        assertEquals("f?g", new CompactUri(new Precoded("?q#f?g")).fragment().value().toString());
+    }
+
+
+    @Test
+    public void isHierarchical() throws Exception
+    {
+        assertFalse(new CompactUri(new Precoded("mailto:test@example.com")).isHierarchical());
+        assertTrue(new CompactUri(new Precoded("http://www.example.com/")).isHierarchical());
+        assertTrue(new CompactUri(new Precoded("file:/test")).isHierarchical());
+        assertTrue(new CompactUri(new Precoded("test")).isHierarchical());
+    }
+
+
+    @Test
+    public void isAbsolute() throws Exception
+    {
+        assertFalse(new CompactUri(new Precoded("/some/path")).isAbsolute());
+        assertTrue(new CompactUri(new Precoded("http://www.example.com/")).isAbsolute());
+    }
+
+
+    @Test
+    public void sameTextAsLazyUri() throws Exception
+    {
+        String[] uris = {
+            "http://www.example.com/my/path/to/file.txt?q=search&filter=none#field1=set&field2=clear",
+            "https://user@example.com:8443/a/b/../c?",
+            "mailto:test@example.com",
+            "//example.com/path",
+            "/",
+            "",
+            "?q",
+            "#f",
+        };
+        for (String uri : uris)
+        {
+            assertEquals(new org.dmfs.rfc3986.uris.Text(new LazyUri(new Precoded(uri))).toString(),
+                new org.dmfs.rfc3986.uris.Text(new CompactUri(new Precoded(uri))).toString());
+        }
+    }
+
+
+    @Test
+    public void sameAsIndexedUri() throws Exception
+    {
+        String[] uris = {
+            "http://www.example.com/my/path/to/file.txt?q=search&filter=none#field1=set&field2=clear",
+            "https://user:pw@example.com:8443/a?#",
+            "http://example.com:/a",
+            "http://example.com:",
+            "//user@[::1]:0?q",
+            "file:///",
+            "mailto:test@example.com#",
+            "a:b",
+            "",
+            "?",
+            "#",
+        };
+        for (String uri : uris)
+        {
+            CompactUri compact = new CompactUri(new Precoded(uri));
+            IndexedUri indexed = new IndexedUri(new Precoded(uri));
+            assertEquals(new org.dmfs.rfc3986.uris.Text(indexed).toString(), new org.dmfs.rfc3986.uris.Text(compact).toString());
+            assertEquals(indexed.authority().isPresent(), compact.authority().isPresent());
+            if (indexed.authority().isPresent())
+            {
+                assertEquals(indexed.authority().value().port().isPresent(), compact.authority().value().port().isPresent());
+            }
+            assertEquals(indexed.query().isPresent(), compact.query().isPresent());
+            assertEquals(indexed.fragment().isPresent(), compact.fragment().isPresent());
+            assertEquals(indexed.isHierarchical(), compact.isHierarchical());
+        }
+    }
+
+
+    @Test
+    public void invalid() throws Exception
+    {
+        assertThat(() -> new CompactUri(new Precoded("http://example.com/a b")), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> new CompactUri(new Precoded("http://exa mple.com/")), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> new CompactUri(new Precoded("http://example.com:12x/")), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> new CompactUri(new Precoded("http://[::1/")), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> new CompactUri(new Precoded("http://example.com/?q=\"")), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> new CompactUri(new Precoded("http://example.com/#f#g")), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> new CompactUri(new Precoded(new String(new char[CompactUri.MAX_LENGTH + 1]).replace('\0', 'a'))),
+            is(throwing(IllegalArgumentException.class)));
+    }
+}
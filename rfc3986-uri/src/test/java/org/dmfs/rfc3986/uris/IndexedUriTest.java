@@ -0,0 +1,152 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.uris;
+
+import org.dmfs.rfc3986.encoding.Precoded;
+import org.dmfs.rfc3986.paths.Text;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.saynotobugs.confidence.Assertion.assertThat;
+import static org.saynotobugs.confidence.core.quality.Grammar.is;
+import static org.saynotobugs.confidence.core.quality.Object.throwing;
+
+
+/**
+ */
+public class IndexedUriTest
+{
+    @Test
+    public void scheme() throws Exception
+    {
+        assertEquals("http", new IndexedUri(new Precoded("http://example.com")).scheme().value().toString());
+        assertEquals("http", new IndexedUri(new Precoded("http://example.com:123/path")).scheme().value().toString());
+        assertEquals("urn", new IndexedUri(new Precoded("urn:isbn:3827370191")).scheme().value().toString());
+        assertEquals("file", new IndexedUri(new Precoded("file:///test.txt")).scheme().value().toString());
+        assertEquals("mailto", new IndexedUri(new Precoded("mailto:test@example.com")).scheme().value().toString());
+        assertFalse(new IndexedUri(new Precoded("//example.com")).scheme().isPresent());
+        assertFalse(new IndexedUri(new Precoded("/absolute/path")).scheme().isPresent());
+        assertFalse(new IndexedUri(new Precoded("relative/path")).scheme().isPresent());
+        assertFalse(new IndexedUri(new Precoded("?q=:query:")).scheme().isPresent());
+    }
+
+
+    @Test
+    public void authority() throws Exception
+    {
+        assertEquals("example.com", new IndexedUri(new Precoded("http://example.com")).authority().value().host().toString());
+        assertEquals("example.com", new IndexedUri(new Precoded("http://example.com/path")).authority().value().host().toString());
+        assertEquals("example.com", new IndexedUri(new Precoded("http://example.com:123/path")).authority().value().host().toString());
+        assertEquals("example.com", new IndexedUri(new Precoded("//example.com")).authority().value().host().toString());
+        assertEquals("", new IndexedUri(new Precoded("file:///test.txt")).authority().value().host().toString());
+        assertEquals("[::1]", new IndexedUri(new Precoded("http://[::1]:8080/")).authority().value().host().toString());
+        assertEquals(8080, (int) new IndexedUri(new Precoded("http://[::1]:8080/")).authority().value().port().value());
+        assertEquals(123, (int) new IndexedUri(new Precoded("http://example.com:123/path")).authority().value().port().value());
+        assertFalse(new IndexedUri(new Precoded("http://example.com/path")).authority().value().port().isPresent());
+        assertEquals("user:pw", new IndexedUri(new Precoded("http://user:pw@example.com/path")).authority().value().userInfo().value().toString());
+        assertEquals("user", new IndexedUri(new Precoded("//user@example.com")).authority().value().userInfo().value().toString());
+        assertFalse(new IndexedUri(new Precoded("http://example.com/path")).authority().value().userInfo().isPresent());
+        assertFalse(new IndexedUri(new Precoded("mailto:test@example.com")).authority().isPresent());
+        assertFalse(new IndexedUri(new Precoded("urn:isbn:3827370191")).authority().isPresent());
+    }
+
+
+    @Test
+    public void path() throws Exception
+    {
+        assertTrue(new IndexedUri(new Precoded("http://www.example.com")).path().isEmpty());
+        assertTrue(new IndexedUri(new Precoded("http://www.example.com?q=test")).path().isEmpty());
+        assertTrue(new IndexedUri(new Precoded("http://www.example.com:123#fragment")).path().isEmpty());
+        assertEquals("/", new Text(new IndexedUri(new Precoded("http://www.example.com/")).path()).toString());
+        assertEquals("/test/123", new Text(new IndexedUri(new Precoded("http://www.example.com/test/123?q=test")).path()).toString());
+        assertEquals("test@example.com", new Text(new IndexedUri(new Precoded("mailto:test@example.com")).path()).toString());
+        assertEquals("/test/123", new Text(new IndexedUri(new Precoded("file:///test/123")).path()).toString());
+        assertEquals("../a/b", new Text(new IndexedUri(new Precoded("../a/b#x")).path()).toString());
+    }
+
+
+    @Test
+    public void query() throws Exception
+    {
+        assertFalse(new IndexedUri(new Precoded("http://www.example.com")).query().isPresent());
+        assertFalse(new IndexedUri(new Precoded("http://www.example.com/#?q")).query().isPresent());
+        assertEquals("", new IndexedUri(new Precoded("http://www.example.com/?")).query().value().toString());
+        assertEquals("q=test", new IndexedUri(new Precoded("http://www.example.com/?q=test")).query().value().toString());
+        assertEquals("q=test?x", new IndexedUri(new Precoded("http://www.example.com/?q=test?x#f")).query().value().toString());
+    }
+
+
+    @Test
+    public void fragment() throws Exception
+    {
+        assertFalse(new IndexedUri(new Precoded("http://www.example.com")).fragment().isPresent());
+        assertEquals("", new IndexedUri(new Precoded("http://www.example.com/#")).fragment().value().toString());
+        assertEquals("q=test", new IndexedUri(new Precoded("http://www.example.com/#q=test")).fragment().value().toString());
+        assertEquals("f?g", new IndexedUri(new Precoded("?q#f?g")).fragment().value().toString());
+    }
+
+
+    @Test
+    public void isHierarchical() throws Exception
+    {
+        assertFalse(new IndexedUri(new Precoded("mailto:test@example.com")).isHierarchical());
+        assertTrue(new IndexedUri(new Precoded("http://www.example.com/")).isHierarchical());
+        assertTrue(new IndexedUri(new Precoded("file:/test")).isHierarchical());
+        assertTrue(new IndexedUri(new Precoded("test")).isHierarchical());
+    }
+
+
+    @Test
+    public void isAbsolute() throws Exception
+    {
+        assertFalse(new IndexedUri(new Precoded("/some/path")).isAbsolute());
+        assertTrue(new IndexedUri(new Precoded("http://www.example.com/")).isAbsolute());
+    }
+
+
+    @Test
+    public void sameTextAsLazyUri() throws Exception
+    {
+        String[] uris = {
+            "http://www.example.com/my/path/to/file.txt?q=search&filter=none#field1=set&field2=clear",
+            "https://user@example.com:8443/a/b/../c?",
+            "mailto:test@example.com",
+            "//example.com/path",
+            "/",
+            "",
+            "?q",
+            "#f",
+        };
+        for (String uri : uris)
+        {
+            assertEquals(new org.dmfs.rfc3986.uris.Text(new LazyUri(new Precoded(uri))).toString(),
+                new org.dmfs.rfc3986.uris.Text(new IndexedUri(new Precoded(uri))).toString());
+        }
+    }
+
+
+    @Test
+    public void invalid() throws Exception
+    {
+        assertThat(() -> new IndexedUri(new Precoded("http://example.com/a b")), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> new IndexedUri(new Precoded("http://exa mple.com/")), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> new IndexedUri(new Precoded("http://example.com:12x/")), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> new IndexedUri(new Precoded("http://[::1/")), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> new IndexedUri(new Precoded("http://example.com/?q=\"")), is(throwing(IllegalArgumentException.class)));
+        assertThat(() -> new IndexedUri(new Precoded("http://example.com/#f#g")), is(throwing(IllegalArgumentException.class)));
+    }
+}
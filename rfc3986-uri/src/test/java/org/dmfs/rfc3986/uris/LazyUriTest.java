@@ -20,6 +20,14 @@ import org.dmfs.rfc3986.encoding.Precoded;
 import org.dmfs.rfc3986.paths.Text;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -115,4 +123,38 @@ public class LazyUriTest
         assertFalse(new LazyUri(new Precoded("/some/path")).isAbsolute());
         assertTrue(new LazyUri(new Precoded("http://www.example.com/")).isAbsolute());
     }
-}
\ No newline at end of file
+
+
+    @Test
+    public void concurrentAccess() throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try
+        {
+            for (int run = 0; run < 100; ++run)
+            {
+                final LazyUri uri = new LazyUri(new Precoded("http://user@example.com:8080/a/b%20c?q=1#frag"));
+                final CountDownLatch start = new CountDownLatch(1);
+                List<Future<String>> results = new ArrayList<>();
+                for (int i = 0; i < 8; ++i)
+                {
+                    results.add(executor.submit((Callable<String>) () ->
+                    {
+                        start.await();
+                        return uri.fragment().value() + " " + uri.query().value() + " " + new Text(uri.path()) + " "
+                            + uri.authority().value().port().value() + " " + uri.authority().value().host() + " " + uri.scheme().value();
+                    }));
+                }
+                start.countDown();
+                for (Future<String> result : results)
+                {
+                    assertEquals("frag q=1 /a/b%20c 8080 example.com http", result.get());
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+}
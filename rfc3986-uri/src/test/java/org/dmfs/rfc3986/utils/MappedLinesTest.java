@@ -0,0 +1,146 @@
+/*
+ * Copyright 2017 dmfs GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dmfs.rfc3986.utils;
+
+import org.dmfs.rfc3986.UriEncoded;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.saynotobugs.confidence.Assertion.assertThat;
+import static org.saynotobugs.confidence.core.quality.Grammar.is;
+import static org.saynotobugs.confidence.core.quality.Object.throwing;
+
+
+/**
+ */
+public class MappedLinesTest
+{
+    private final static String CONTENT = "http://example.com/a\nhttp://example.com/bb\r\n\n/ccc?q=1\n\nd#f\n//example.org";
+    private final static List<String> LINES = Arrays.asList("http://example.com/a", "http://example.com/bb", "/ccc?q=1", "d#f", "//example.org");
+
+
+    @Test
+    public void testIterator() throws Exception
+    {
+        try (FileChannel channel = channel(CONTENT))
+        {
+            assertEquals(LINES, strings(new MappedLines(channel)));
+        }
+    }
+
+
+    @Test
+    public void testSmallWindows() throws Exception
+    {
+        try (FileChannel channel = channel(CONTENT))
+        {
+            for (int windowSize = 24; windowSize < 80; ++windowSize)
+            {
+                assertEquals(LINES, strings(new MappedLines(channel, 0, Long.MAX_VALUE, windowSize)));
+            }
+        }
+    }
+
+
+    @Test
+    public void testEmpty() throws Exception
+    {
+        try (FileChannel channel = channel(""))
+        {
+            assertEquals(new ArrayList<String>(), strings(new MappedLines(channel)));
+        }
+        try (FileChannel channel = channel("\n\r\n"))
+        {
+            assertEquals(new ArrayList<String>(), strings(new MappedLines(channel)));
+        }
+    }
+
+
+    @Test
+    public void testRegions() throws Exception
+    {
+        try (FileChannel channel = channel(CONTENT))
+        {
+            for (int split = 0; split <= CONTENT.length(); ++split)
+            {
+                List<String> lines = strings(new MappedLines(channel, 0, split, 30));
+                lines.addAll(strings(new MappedLines(channel, split, CONTENT.length(), 30)));
+                assertEquals(LINES, lines);
+            }
+            assertEquals(Arrays.asList("http://example.com/bb"), strings(new MappedLines(channel, 21, 22)));
+            assertEquals(Arrays.asList(), strings(new MappedLines(channel, 22, 44)));
+        }
+    }
+
+
+    @Test
+    public void testPartitions() throws Exception
+    {
+        try (FileChannel channel = channel(CONTENT))
+        {
+            for (int count = 1; count < 20; ++count)
+            {
+                List<String> lines = new ArrayList<>();
+                for (MappedLines partition : new MappedPartitions(channel, count, 30))
+                {
+                    lines.addAll(strings(partition));
+                }
+                assertEquals(LINES, lines);
+            }
+        }
+    }
+
+
+    @Test
+    public void testLineTooLong() throws Exception
+    {
+        try (FileChannel channel = channel(CONTENT))
+        {
+            assertThat(() -> strings(new MappedLines(channel, 0, Long.MAX_VALUE, 20)), is(throwing(IllegalStateException.class)));
+        }
+    }
+
+
+    private static List<String> strings(Iterable<UriEncoded> lines)
+    {
+        List<String> result = new ArrayList<>();
+        for (UriEncoded line : lines)
+        {
+            result.add(line.toString());
+        }
+        return result;
+    }
+
+
+    private static FileChannel channel(String content) throws IOException
+    {
+        Path file = Files.createTempFile("mapped", ".txt");
+        file.toFile().deleteOnExit();
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+        return FileChannel.open(file, StandardOpenOption.READ);
+    }
+}
@@ -18,6 +18,7 @@ package org.dmfs.rfc3986.validation;
 
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -41,4 +42,31 @@ public class BitMapCharSetTest
         assertFalse(new BitMapCharSet(0, 0x80000000, 0).contains((char) 64));
     }
 
+
+    @Test
+    public void testEndOfRun() throws Exception
+    {
+        assertEquals(0, new BitMapCharSet().endOfRun("abc", 0, 3));
+        assertEquals(3, new BitMapCharSet().endOfRun("abc", 3, 3));
+        assertEquals(3, CharSets.ALPHA.endOfRun("abc", 0, 3));
+        assertEquals(2, CharSets.ALPHA.endOfRun("abc", 0, 2));
+        assertEquals(3, CharSets.ALPHA.endOfRun("abc1", 0, 4));
+        assertEquals(4, CharSets.ALPHA.endOfRun("1abc", 1, 4));
+        assertEquals(1, CharSets.ALPHA.endOfRun("a\u00e4c", 0, 3));
+        assertEquals(4, CharSets.PCHAR.endOfRun("a%20/b", 0, 6));
+
+        // compare with the default implementation for all chars and a few bitmap sizes
+        int[][] bitmaps = { {}, { 0x55555555 }, { 0, 0x80000001 }, { 0, 0x2FFF7FF2, 0x87FFFFFF, 0x47FFFFFE }, { 0, 0, 0, 0x80000000, 1 },
+            { -1, -1, -1, -1, -1, 0x12345678 } };
+        for (int[] bitmap : bitmaps)
+        {
+            final BitMapCharSet charSet = new BitMapCharSet(bitmap);
+            CharSet reference = charSet::contains;
+            for (int c = 0; c < 512; ++c)
+            {
+                String chars = "" + (char) c + (char) c;
+                assertEquals(reference.endOfRun(chars, 0, 2), charSet.endOfRun(chars, 0, 2));
+            }
+        }
+    }
 }
\ No newline at end of file
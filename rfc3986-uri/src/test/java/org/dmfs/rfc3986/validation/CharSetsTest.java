@@ -252,4 +252,48 @@ public class CharSetsTest
             }
         }
     }
-}
\ No newline at end of file
+
+
+    @Test
+    public void testPATH_CHAR() throws Exception
+    {
+        String unreserved = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ.-_~";
+        String pctEncoded = "%0123456789abcdefABCDEF";
+        String subDelims = "!$&'()*+,;=";
+        String pathChar = unreserved + pctEncoded + subDelims + ":@/";
+
+        for (int i = 0; i < 512; ++i)
+        {
+            if (pathChar.indexOf(i) >= 0)
+            {
+                assertTrue(CharSets.PATH_CHAR.contains((char) i));
+            }
+            else
+            {
+                assertFalse(CharSets.PATH_CHAR.contains((char) i));
+            }
+        }
+    }
+
+
+    @Test
+    public void testUSER_INFO_CHAR() throws Exception
+    {
+        String unreserved = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ.-_~";
+        String pctEncoded = "%0123456789abcdefABCDEF";
+        String subDelims = "!$&'()*+,;=";
+        String userInfoChar = unreserved + pctEncoded + subDelims + ":";
+
+        for (int i = 0; i < 512; ++i)
+        {
+            if (userInfoChar.indexOf(i) >= 0)
+            {
+                assertTrue(CharSets.USER_INFO_CHAR.contains((char) i));
+            }
+            else
+            {
+                assertFalse(CharSets.USER_INFO_CHAR.contains((char) i));
+            }
+        }
+    }
+}